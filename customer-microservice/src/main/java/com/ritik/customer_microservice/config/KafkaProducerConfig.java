@@ -0,0 +1,45 @@
+package com.ritik.customer_microservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class KafkaProducerConfig {
+
+    @Value("${outbox.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${outbox.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${outbox.producer.compression-type:lz4}")
+    private String compressionType;
+
+    // The outbox relay sends in bursts, so let the producer fill and compress record batches
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer outboxProducerCustomizer() {
+        return producerFactory -> {
+            log.info(
+                    "Configuring Kafka producer | lingerMs={} | batchSize={} | compression={}",
+                    lingerMs,
+                    batchSize,
+                    compressionType
+            );
+
+            producerFactory.updateConfigs(Map.of(
+                    ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                    ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                    ProducerConfig.ACKS_CONFIG, "all",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true
+            ));
+        };
+    }
+}
@@ -1,29 +1,57 @@
 package com.ritik.customer_microservice.config;
 
+import com.ritik.customer_microservice.serviceImpl.OtpDeliveryProducer;
+import com.ritik.customer_microservice.serviceImpl.TransactionProducerImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+import java.time.Duration;
+
 @Configuration
 @Slf4j
 public class KafkaTopicConfig {
-    private static final String TRANSACTION_TOPIC = "transaction-events";
+    private static final String TRANSACTION_TOPIC = TransactionProducerImpl.TRANSACTION_TOPIC;
+
+    private static final String OTP_TOPIC = OtpDeliveryProducer.OTP_TOPIC;
+
+    // The transaction email listener's default concurrency follows this
+    public static final int TRANSACTION_TOPIC_PARTITIONS = 3;
 
     @Bean
     public NewTopic transactionTopic(){
         log.info(
                 "Configuring Kafka topic | name={} | partitions={} | replicas={}",
                 TRANSACTION_TOPIC,
-                3,
+                TRANSACTION_TOPIC_PARTITIONS,
                 1
         );
 
         return TopicBuilder
                 .name(TRANSACTION_TOPIC)
-                .partitions(3)
+                .partitions(TRANSACTION_TOPIC_PARTITIONS)
+                .replicas(1)
+                .build();
+    }
+
+    // Short retention: an OTP is useless once it expires, and the code should not linger on the brokers
+    @Bean
+    public NewTopic otpDeliveryTopic(){
+        log.info(
+                "Configuring Kafka topic | name={} | partitions={} | replicas={}",
+                OTP_TOPIC,
+                6,
+                1
+        );
+
+        return TopicBuilder
+                .name(OTP_TOPIC)
+                .partitions(6)
                 .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(Duration.ofMinutes(15).toMillis()))
                 .build();
     }
 }
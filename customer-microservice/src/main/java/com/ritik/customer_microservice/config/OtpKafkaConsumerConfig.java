@@ -0,0 +1,50 @@
+package com.ritik.customer_microservice.config;
+
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class OtpKafkaConsumerConfig {
+
+    @Value("${otp.delivery.concurrency:3}")
+    private int concurrency;
+
+    // Separate from the default factory used by the transaction email listener: own consumers, own threads,
+    // and a fixed payload type so it does not depend on the shared deserializer settings
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OtpDeliveryEvent> otpListenerContainerFactory(
+            KafkaProperties kafkaProperties) {
+
+        Map<String, Object> properties = kafkaProperties.buildConsumerProperties(null);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 50);
+
+        DefaultKafkaConsumerFactory<String, OtpDeliveryEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                properties,
+                new StringDeserializer(),
+                new JsonDeserializer<>(OtpDeliveryEvent.class, false)
+        );
+
+        ConcurrentKafkaListenerContainerFactory<String, OtpDeliveryEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+
+        log.info("Configuring OTP listener container | concurrency={}", concurrency);
+
+        return factory;
+    }
+}
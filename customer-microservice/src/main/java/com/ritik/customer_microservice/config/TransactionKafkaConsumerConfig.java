@@ -0,0 +1,80 @@
+package com.ritik.customer_microservice.config;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class TransactionKafkaConsumerConfig {
+
+    // One consumer per partition; more would sit idle, fewer would leave partitions sharing a thread
+    @Value("${transaction.notification.concurrency:" + KafkaTopicConfig.TRANSACTION_TOPIC_PARTITIONS + "}")
+    private int concurrency;
+
+    @Value("${transaction.notification.max-poll-records:100}")
+    private int maxPollRecords;
+
+    // Batch listener for the transaction email consumer. Offsets are committed by the listener once the whole
+    // batch has been mailed, instead of one commit per record.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> transactionBatchListenerContainerFactory(
+            KafkaProperties kafkaProperties) {
+
+        Map<String, Object> properties = kafkaProperties.buildConsumerProperties(null);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        DefaultKafkaConsumerFactory<String, TransactionEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                properties,
+                new StringDeserializer(),
+                new JsonDeserializer<>(TransactionEvent.class, false)
+        );
+
+        ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        log.info(
+                "Configuring transaction listener container | concurrency={} | maxPollRecords={}",
+                concurrency,
+                maxPollRecords
+        );
+
+        return factory;
+    }
+
+    // Record listener for the retry and dead-letter topics. Non-blocking retries need one record per delivery,
+    // so these cannot share the batch factory.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> transactionRetryListenerContainerFactory(
+            KafkaProperties kafkaProperties) {
+
+        DefaultKafkaConsumerFactory<String, TransactionEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(null),
+                new StringDeserializer(),
+                new JsonDeserializer<>(TransactionEvent.class, false)
+        );
+
+        ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+
+        return factory;
+    }
+}
@@ -11,12 +11,15 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/customers/accounts")
@@ -63,6 +66,23 @@ public class AccountController {
         return ResponseEntity.ok(balance);
     }
 
+    @GetMapping("/{accountNum}/balance-as-of")
+    public ResponseEntity<AccountBalanceDTO> balanceAsOf(
+            @AuthenticationPrincipal CustomerPrincipal principal,
+            @PathVariable
+            @NotNull(message = "Account number is required")
+            @Positive(message = "Account number must be positive")
+            Long accountNum,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime asOf) {
+
+        String email = principal.getUsername();
+        log.info("API call: BALANCE AS OF | user={} | accountNum={} | asOf={}", email, accountNum, asOf);
+
+        return ResponseEntity.ok(accountService.balanceAsOf(email, accountNum, asOf));
+    }
+
     @GetMapping("/account-info")
     public ResponseEntity<PageResponse<AccountResponseDTO>> accountInfo(
             @AuthenticationPrincipal CustomerPrincipal principal,
@@ -1,16 +1,15 @@
 package com.ritik.customer_microservice.controller;
 
+import com.ritik.customer_microservice.dto.accountDTO.AccountBalanceDTO;
 import com.ritik.customer_microservice.dto.customerDTO.CustomerBalanceDTO;
+import com.ritik.customer_microservice.service.AccountService;
 import com.ritik.customer_microservice.service.CustomerService;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 
@@ -22,6 +21,8 @@ public class InternalCustomerController {
 
     private final CustomerService service;
 
+    private final AccountService accountService;
+
     @GetMapping
     @PreAuthorize("hasRole('SERVICE')")
     public PageResponse<CustomerBalanceDTO> getCustomers(
@@ -42,4 +43,15 @@ public class InternalCustomerController {
 
         return response;
     }
+
+    @PostMapping("/accounts/{accountNum}/hot")
+    @PreAuthorize("hasRole('SERVICE')")
+    public AccountBalanceDTO enableHotAccount(
+            @PathVariable Long accountNum,
+            @RequestParam(defaultValue = "16") int buckets) {
+
+        log.info("INTERNAL API call: ENABLE HOT ACCOUNT | accountNum={} | buckets={}", accountNum, buckets);
+
+        return accountService.enableHotAccount(accountNum, buckets);
+    }
 }
@@ -1,20 +1,34 @@
 package com.ritik.customer_microservice.controller;
 
 import com.ritik.customer_microservice.dto.transactionDTO.*;
+import com.ritik.customer_microservice.enums.StatementFormat;
+import com.ritik.customer_microservice.exception.BadRequestException;
 import com.ritik.customer_microservice.model.CustomerPrincipal;
 import com.ritik.customer_microservice.service.OtpService;
 import com.ritik.customer_microservice.service.TransactionService;
+import com.ritik.customer_microservice.serviceImpl.IdempotencyService;
+import com.ritik.customer_microservice.serviceImpl.StatementExportService;
+import com.ritik.customer_microservice.wrapper.CursorPageResponse;
 import com.ritik.customer_microservice.wrapper.PageResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/customers/transactions")
@@ -24,17 +38,22 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final OtpService otpService;
+    private final IdempotencyService idempotencyService;
+    private final StatementExportService statementExportService;
 
     @PostMapping("/deposit")
     public ResponseEntity<TransactionResponseDTO> depositMoney(
             @AuthenticationPrincipal CustomerPrincipal principal,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody DepositRequestDTO depositRequestDTO) {
 
         String email = principal.getUsername();
         log.info("API call: DEPOSIT MONEY | user={}", email);
 
         return ResponseEntity.status(HttpStatus.ACCEPTED)
-                .body(transactionService.depositMoney(email, depositRequestDTO));
+                .body(idempotencyService.execute(email, "deposit", idempotencyKey, depositRequestDTO,
+                        TransactionResponseDTO.class,
+                        () -> transactionService.depositMoney(email, depositRequestDTO)));
     }
 
     @PostMapping("/withdraw")
@@ -70,29 +89,117 @@ public class TransactionController {
         );
     }
 
+    @GetMapping("/transactionHistory/cursor")
+    public ResponseEntity<CursorPageResponse<TransactionHistoryDTO>> historyByCursor(
+            @AuthenticationPrincipal CustomerPrincipal principal,
+            @RequestParam(required = false)
+            @Positive(message = "Account number must be positive")
+            Long accountNum,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size) {
+
+        String email = principal.getUsername();
+
+        log.info("API call: TRANSACTION HISTORY CURSOR | user={} | accountNum={} | hasCursor={}", email, accountNum, cursor != null);
+
+        return ResponseEntity.ok(transactionService.transactionHistoryByCursor(email, accountNum, cursor, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageResponse<TransactionHistoryDTO>> search(
+            @AuthenticationPrincipal CustomerPrincipal principal,
+            @Valid @ModelAttribute TransactionSearchRequestDTO searchRequest) {
+
+        String email = principal.getUsername();
+
+        log.info("API call: TRANSACTION SEARCH | user={} | accountNum={}", email, searchRequest.getAccountNum());
+
+        return ResponseEntity.ok(transactionService.searchTransactions(email, searchRequest));
+    }
+
+    @GetMapping("/statement")
+    public void exportStatement(
+            @AuthenticationPrincipal CustomerPrincipal principal,
+            @RequestParam
+            @Positive(message = "Account number must be positive")
+            Long accountNum,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        String email = principal.getUsername();
+
+        log.info("API call: STATEMENT EXPORT | user={} | accountNum={} | from={} | to={} | format={}",
+                email, accountNum, from, to, format);
+
+        StatementFormat statementFormat;
+        try {
+            statementFormat = StatementFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Statement format must be csv or ndjson");
+        }
+
+        UUID accountId = statementExportService.resolveAccountId(email, accountNum, from, to);
+
+        String extension = statementFormat == StatementFormat.CSV ? "csv" : "ndjson";
+        response.setContentType(statementFormat == StatementFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"statement-" + accountNum + "-" + from + "-" + to + "." + extension + "\"");
+
+        statementExportService.writeStatement(accountId, from, to, statementFormat, response.getOutputStream());
+    }
+
     @PostMapping("/transfer")
     public ResponseEntity<TransferResponseDTO> transferMoney(
             @AuthenticationPrincipal CustomerPrincipal principal,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransferRequestDTO transferRequestDTO) {
 
         String email = principal.getUsername();
         log.info("API call: TRANSFER MONEY | user={}", email);
 
         return ResponseEntity.status(HttpStatus.ACCEPTED)
-                .body(transactionService.transferMoney(email, transferRequestDTO));
+                .body(idempotencyService.execute(email, "transfer", idempotencyKey,
+                        Arrays.asList(
+                                transferRequestDTO.getFromAccountNum(),
+                                transferRequestDTO.getToAccountNum(),
+                                transferRequestDTO.getAmount()
+                        ),
+                        TransferResponseDTO.class,
+                        () -> transactionService.transferMoney(email, transferRequestDTO)));
     }
 
 
     @PostMapping("/confirm-transaction")
     public ResponseEntity<TransactionResponseDTO> confirmTransaction(
             @AuthenticationPrincipal CustomerPrincipal principal,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody ConfirmRequestDTO confirmRequestDTO){
 
         String email = principal.getUsername();
         log.info("API call: CONFIRM TRANSACTION MONEY | user={}", email);
 
         return ResponseEntity.status(HttpStatus.ACCEPTED)
-                .body(transactionService.transactionConfirm(email, confirmRequestDTO));
+                .body(idempotencyService.execute(email, "confirm-transaction", idempotencyKey,
+                        confirmRequestDTO.getTransactionId(),
+                        TransactionResponseDTO.class,
+                        () -> transactionService.transactionConfirm(email, confirmRequestDTO)));
+    }
+
+    @GetMapping("/{transactionId}/status")
+    public ResponseEntity<TransactionResponseDTO> transactionStatus(
+            @AuthenticationPrincipal CustomerPrincipal principal,
+            @PathVariable UUID transactionId,
+            @RequestParam(defaultValue = "0")
+            @PositiveOrZero(message = "waitMs must not be negative")
+            long waitMs) {
+
+        String email = principal.getUsername();
+        log.info("API call: TRANSACTION STATUS | user={} | txnId={}", email, transactionId);
+
+        return ResponseEntity.ok(transactionService.transactionStatus(email, transactionId, waitMs));
     }
 
 
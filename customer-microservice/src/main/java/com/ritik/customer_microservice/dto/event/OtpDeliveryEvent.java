@@ -0,0 +1,19 @@
+package com.ritik.customer_microservice.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OtpDeliveryEvent {
+    private UUID transactionId;
+    private String email;
+    private String otp;
+    private long validityMinutes;
+    private Instant expiresAt;
+}
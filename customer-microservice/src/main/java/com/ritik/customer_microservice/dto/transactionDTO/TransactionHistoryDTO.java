@@ -3,7 +3,9 @@ package com.ritik.customer_microservice.dto.transactionDTO;
 import com.ritik.customer_microservice.enums.OperationType;
 import com.ritik.customer_microservice.enums.TransactionStatus;
 import com.ritik.customer_microservice.enums.TransactionType;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
@@ -12,6 +14,8 @@ import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionHistoryDTO {
     private UUID transactionId;
     private TransactionType transactionType;
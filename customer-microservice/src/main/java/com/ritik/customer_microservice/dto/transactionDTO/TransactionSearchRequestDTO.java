@@ -0,0 +1,44 @@
+package com.ritik.customer_microservice.dto.transactionDTO;
+
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Bound from query parameters; every filter is optional
+@Getter
+@Setter
+public class TransactionSearchRequestDTO {
+
+    @Positive(message = "Account number must be positive")
+    private Long accountNum;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    @DecimalMin(value = "0.00", message = "Minimum amount must not be negative")
+    private BigDecimal minAmount;
+
+    @DecimalMin(value = "0.00", message = "Maximum amount must not be negative")
+    private BigDecimal maxAmount;
+
+    private OperationType operationType;
+
+    private TransactionStatus transactionStatus;
+
+    @Positive(message = "Counterparty account number must be positive")
+    private Long counterpartyAccountNum;
+
+    private String cursor;
+
+    private int size = 20;
+}
@@ -0,0 +1,6 @@
+package com.ritik.customer_microservice.enums;
+
+public enum StatementFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,7 @@
+package com.ritik.customer_microservice.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
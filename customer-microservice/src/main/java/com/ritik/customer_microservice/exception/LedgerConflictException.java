@@ -0,0 +1,7 @@
+package com.ritik.customer_microservice.exception;
+
+public class LedgerConflictException extends RuntimeException {
+    public LedgerConflictException(String message) {
+        super(message);
+    }
+}
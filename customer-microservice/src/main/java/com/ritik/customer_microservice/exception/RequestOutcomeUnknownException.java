@@ -0,0 +1,8 @@
+package com.ritik.customer_microservice.exception;
+
+// The request was handed off and may still commit, so it must not be treated as failed
+public class RequestOutcomeUnknownException extends ServiceUnavailableException {
+    public RequestOutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -31,7 +31,7 @@ import java.util.UUID;
 public class Account {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     @Column(name = "account_id", columnDefinition = "BINARY(16)")
     private UUID accountId;
 
@@ -59,6 +59,13 @@ public class Account {
     @Column(name = "pin_hash", nullable = false, length = 255)
     private String pinHash;
 
+    // Hot accounts keep credits in account_balance_buckets; the balance is amount plus the bucket total
+    @Column(name = "hot_account", nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private boolean hotAccount = false;
+
+    @Column(name = "bucket_count", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int bucketCount = 0;
+
     @OneToMany(
             mappedBy = "account",
             cascade = {CascadeType.PERSIST},
@@ -0,0 +1,46 @@
+package com.ritik.customer_microservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "account_balance_buckets",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_bucket_account_no", columnNames = {"account_id", "bucket_no"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountBalanceBucket {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "bucket_id", columnDefinition = "BINARY(16)")
+    private UUID bucketId;
+
+    @Column(name = "account_id", columnDefinition = "BINARY(16)", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "bucket_no", nullable = false)
+    private Integer bucketNo;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
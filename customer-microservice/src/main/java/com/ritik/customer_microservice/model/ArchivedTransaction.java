@@ -0,0 +1,63 @@
+package com.ritik.customer_microservice.model;
+
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Closed monthly partitions of `transactions` are copied here by TransactionArchiveService and then dropped.
+// The table is rebuilt ROW_FORMAT=COMPRESSED and is read by history pages and statement exports.
+@Entity
+@Immutable
+@Table(
+        name = "transactions_archive",
+        indexes = {@Index(name = "idx_tx_archive_account_created", columnList = "account_id, created_at, transaction_id")}
+)
+@Getter
+@NoArgsConstructor
+public class ArchivedTransaction {
+
+    @Id
+    @Column(name = "transaction_id", columnDefinition = "BINARY(16)")
+    private UUID transactionId;
+
+    @Column(name = "account_id", nullable = false, columnDefinition = "BINARY(16)")
+    private UUID accountId;
+
+    @Column(name = "account_num", nullable = false)
+    private Long accountNum;
+
+    @Column(name = "bank_id", nullable = false)
+    private Long bankId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation_type", nullable = false)
+    private OperationType operationType;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "closing_balance")
+    private BigDecimal closingBalance;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_status", nullable = false)
+    private TransactionStatus transactionStatus;
+
+    private UUID transactionReferenceId;
+    private Long counterpartyAccountNum;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
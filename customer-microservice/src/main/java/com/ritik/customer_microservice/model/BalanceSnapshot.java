@@ -0,0 +1,50 @@
+package com.ritik.customer_microservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "balance_snapshots",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_snapshot_account_sequence", columnNames = {"account_id", "sequence"})
+        },
+        indexes = {@Index(name = "idx_snapshot_account_as_of", columnList = "account_id, as_of")}
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "snapshot_id", columnDefinition = "BINARY(16)")
+    private UUID snapshotId;
+
+    @Column(name = "account_id", columnDefinition = "BINARY(16)", nullable = false)
+    private UUID accountId;
+
+    // Last ledger sequence folded into this balance (0 = opening balance)
+    @Column(name = "sequence", nullable = false)
+    private Long sequence;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
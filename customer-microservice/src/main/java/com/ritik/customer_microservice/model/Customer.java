@@ -24,6 +24,7 @@ import java.util.UUID;
 public class Customer {
 
     @Id
+    @TimeOrderedUuid
     @Column(name = "customer_id", columnDefinition = "BINARY(16)")
     private UUID customerId;
 
@@ -68,7 +69,6 @@ public class Customer {
 
     @PrePersist
     public void onCreate() {
-        this.customerId = UUID.randomUUID();
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
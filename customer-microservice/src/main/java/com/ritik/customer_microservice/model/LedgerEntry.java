@@ -0,0 +1,53 @@
+package com.ritik.customer_microservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "ledger_entries",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_ledger_account_sequence", columnNames = {"account_id", "sequence"})
+        },
+        indexes = {
+                @Index(name = "idx_ledger_account_created", columnList = "account_id, created_at"),
+                @Index(name = "idx_ledger_created", columnList = "created_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "entry_id", columnDefinition = "BINARY(16)")
+    private UUID entryId;
+
+    @Column(name = "account_id", columnDefinition = "BINARY(16)", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "sequence", nullable = false)
+    private Long sequence;
+
+    // Signed: credits are positive, debits negative
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id", columnDefinition = "BINARY(16)")
+    private UUID transactionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ritik.customer_microservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Per-account ledger watermark: how far the ledger and its latest snapshot have got, and how much is unfolded.
+// Only the compactor writes it, from recently appended entries, so postings stay append-only.
+// Compaction then reads this table through its indexes instead of aggregating all of ledger_entries.
+@Entity
+@Table(
+        name = "ledger_heads",
+        indexes = {
+                @Index(name = "idx_ledger_head_pending_entries", columnList = "pending_entries"),
+                @Index(name = "idx_ledger_head_pending_since", columnList = "pending_since")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerHead {
+
+    @Id
+    @Column(name = "account_id", columnDefinition = "BINARY(16)")
+    private UUID accountId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    @Column(name = "snapshot_sequence", nullable = false)
+    private Long snapshotSequence;
+
+    // Entries appended since the latest snapshot
+    @Column(name = "pending_entries", nullable = false)
+    private Long pendingEntries;
+
+    // When the oldest unsnapshotted entry was appended; null once everything is folded into a snapshot
+    @Column(name = "pending_since")
+    private LocalDateTime pendingSince;
+
+    public LedgerHead(UUID accountId, Long snapshotSequence) {
+        this.accountId = accountId;
+        this.lastSequence = snapshotSequence;
+        this.snapshotSequence = snapshotSequence;
+        this.pendingEntries = 0L;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ritik.customer_microservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {@Index(name = "idx_outbox_published_id", columnList = "published_at, outbox_id")}
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    // Identity order is the publish order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Column(name = "topic", nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "event_key", nullable = false, length = 64)
+    private String eventKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // A relay is sending the row until then; it is claimable again once the lease lapses
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    // Set when the payload cannot be read back: the row is kept for inspection but never sent
+    @Column(name = "dead_lettered_at")
+    private LocalDateTime deadLetteredAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
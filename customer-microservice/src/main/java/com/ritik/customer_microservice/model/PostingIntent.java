@@ -0,0 +1,42 @@
+package com.ritik.customer_microservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A confirmed posting handed to the in-memory posting engine. Written in the confirm transaction and deleted in
+// the transaction that posts it, so a posting lost from the queue by a crash is still on record and re-queued.
+@Entity
+@Table(
+        name = "posting_intents",
+        indexes = {@Index(name = "idx_posting_intent_created", columnList = "created_at")}
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class PostingIntent {
+
+    @Id
+    @Column(name = "transaction_id", columnDefinition = "BINARY(16)")
+    private UUID transactionId;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public PostingIntent(UUID transactionId, String email) {
+        this.transactionId = transactionId;
+        this.email = email;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ritik.customer_microservice.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUIDv7 (RFC 9562): 48-bit Unix millisecond timestamp, version, 12-bit counter, variant, 62 random bits.
+ * The timestamp occupies the most significant bytes, and Hibernate binds a UUID to BINARY(16) most significant
+ * byte first, so ids sort by creation time in MySQL without the UUID_TO_BIN swap flag that v1 UUIDs need.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final long MAX_COUNTER = 0xFFF;
+
+    private static long lastMillis = -1;
+
+    private static long counter;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        long millis;
+        long sequence;
+
+        synchronized (TimeOrderedUuidGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+
+            if (millis == lastMillis) {
+                // Same millisecond: bump the counter so ids stay strictly increasing; borrow the next ms on overflow
+                if (++counter > MAX_COUNTER) {
+                    millis++;
+                    counter = RANDOM.nextInt(0x800);
+                }
+            } else {
+                // Seed in the lower half so a burst within one millisecond rarely overflows
+                counter = RANDOM.nextInt(0x800);
+            }
+
+            lastMillis = millis;
+            sequence = counter;
+        }
+
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
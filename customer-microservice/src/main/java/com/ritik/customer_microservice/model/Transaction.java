@@ -4,6 +4,7 @@ import com.ritik.customer_microservice.enums.OperationType;
 import com.ritik.customer_microservice.enums.Status;
 import com.ritik.customer_microservice.enums.TransactionStatus;
 import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.serviceImpl.TransactionWindowListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,21 +13,41 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(
+        name = "transactions",
+        indexes = {
+                // Covers every history column so history pages are served from the index alone
+                @Index(
+                        name = "idx_tx_history_covering",
+                        columnList = "account_id, created_at, transaction_id, transaction_type, operation_type, "
+                                + "amount, closing_balance, transaction_status"
+                ),
+                // Search filters: equality column first so the created_at keyset seek stays in index order.
+                // InnoDB appends the primary key (transaction_id, created_at) to each, which breaks created_at ties.
+                @Index(name = "idx_tx_search_operation", columnList = "account_id, operation_type, created_at"),
+                @Index(name = "idx_tx_search_status", columnList = "account_id, transaction_status, created_at"),
+                @Index(name = "idx_tx_search_counterparty", columnList = "account_id, counterparty_account_num, created_at"),
+                // PendingTransactionSweeper: oldest PENDING rows first
+                @Index(name = "idx_tx_status_created", columnList = "transaction_status, created_at")
+        }
+)
+@EntityListeners(TransactionWindowListener.class)
 @Getter
 @Setter
 public class Transaction {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     @Column(name = "transaction_id", columnDefinition = "BINARY(16)")
     private UUID transactionId;
 
+    // Partitioned InnoDB tables cannot carry foreign keys; postings only ever reference a locked, existing account
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "account_id", nullable = false)
+    @JoinColumn(name = "account_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Account account;
 
     @Column(name = "account_num", nullable = false)
@@ -56,10 +77,13 @@ public class Transaction {
     private UUID transactionReferenceId;
     private Long counterpartyAccountNum;
 
+    // Partition key: range-partitioned by month, so it is part of the physical primary key
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
     public void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // Truncated to the column's precision so in-memory copies (history window, cursors) match the stored value
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,59 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.AccountBalanceBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AccountBalanceBucketRepository extends JpaRepository<AccountBalanceBucket, UUID> {
+
+    @Query("SELECT b.bucketNo FROM AccountBalanceBucket b WHERE b.accountId = :accountId")
+    List<Integer> findBucketNos(@Param("accountId") UUID accountId);
+
+    @Query("""
+    SELECT a.amount + COALESCE((SELECT SUM(b.amount) FROM AccountBalanceBucket b WHERE b.accountId = a.accountId), 0)
+    FROM Account a
+    WHERE a.accountId = :accountId
+""")
+    BigDecimal totalBalance(@Param("accountId") UUID accountId);
+
+    @Modifying
+    @Query("""
+    UPDATE AccountBalanceBucket b
+    SET b.amount = b.amount + :amount, b.updatedAt = CURRENT_TIMESTAMP
+    WHERE b.accountId = :accountId
+      AND b.bucketNo = :bucketNo
+""")
+    int credit(
+            @Param("accountId") UUID accountId,
+            @Param("bucketNo") int bucketNo,
+            @Param("amount") BigDecimal amount
+    );
+
+    @Modifying
+    @Query("""
+    UPDATE AccountBalanceBucket b
+    SET b.amount = b.amount - :amount, b.updatedAt = CURRENT_TIMESTAMP
+    WHERE b.accountId = :accountId
+      AND b.bucketNo = :bucketNo
+      AND b.amount >= :amount
+""")
+    int debitIfSufficient(
+            @Param("accountId") UUID accountId,
+            @Param("bucketNo") int bucketNo,
+            @Param("amount") BigDecimal amount
+    );
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalanceBucket b WHERE b.accountId = :accountId ORDER BY b.bucketNo")
+    List<AccountBalanceBucket> lockAllByAccountId(@Param("accountId") UUID accountId);
+}
@@ -0,0 +1,12 @@
+package com.ritik.customer_microservice.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface AccountBalanceOperations {
+
+    Optional<BigDecimal> credit(Long accountNum, BigDecimal amount);
+
+    // Empty when the balance does not cover the amount
+    Optional<BigDecimal> debitIfSufficient(Long accountNum, BigDecimal amount);
+}
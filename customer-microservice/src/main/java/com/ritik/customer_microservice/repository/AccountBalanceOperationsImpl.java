@@ -0,0 +1,55 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+// MySQL has no UPDATE ... RETURNING: the new amount is read back with a locking SELECT in the same transaction.
+// The UPDATE already holds the row's exclusive lock, so that read never waits and sees exactly what was written.
+public class AccountBalanceOperationsImpl implements AccountBalanceOperations {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<BigDecimal> credit(Long accountNum, BigDecimal amount) {
+        return apply("""
+                UPDATE accounts
+                SET amount = amount + :amount, updated_at = NOW()
+                WHERE account_num = :accountNum
+                """, accountNum, amount);
+    }
+
+    @Override
+    public Optional<BigDecimal> debitIfSufficient(Long accountNum, BigDecimal amount) {
+        return apply("""
+                UPDATE accounts
+                SET amount = amount - :amount, updated_at = NOW()
+                WHERE account_num = :accountNum
+                  AND amount >= :amount
+                """, accountNum, amount);
+    }
+
+    private Optional<BigDecimal> apply(String sql, Long accountNum, BigDecimal amount) {
+        int updated = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Account.class)
+                .setParameter("accountNum", accountNum)
+                .setParameter("amount", amount)
+                .executeUpdate();
+
+        if (updated != 1) {
+            return Optional.empty();
+        }
+
+        Object closingBalance = entityManager
+                .createNativeQuery("SELECT amount FROM accounts WHERE account_num = :accountNum FOR UPDATE")
+                .setParameter("accountNum", accountNum)
+                .getSingleResult();
+        return Optional.of(new BigDecimal(closingBalance.toString()));
+    }
+}
@@ -5,16 +5,19 @@ import jakarta.persistence.LockModeType;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, UUID> {
+public interface AccountRepository extends JpaRepository<Account, UUID>, AccountBalanceOperations {
     Optional<Account> findByAccountNumAndCustomer_CustomerId(Long accountNum, UUID customerId);
 
     List<Account> findByCustomer_CustomerId(UUID customerId);
@@ -24,15 +27,25 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     //List<Account> findByCustomer_(Customer customer);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT a FROM Account a WHERE a.accountNum = :accountNum AND a.customer.customerId = :customerId")
-    Optional<Account> lockAccount(Long accountNum, UUID customerId);
+    @Query("SELECT a FROM Account a WHERE a.accountNum IN :accountNums ORDER BY a.accountNum")
+    List<Account> lockAllByAccountNumInOrder(@Param("accountNums") Collection<Long> accountNums);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT a FROM Account a WHERE a.accountId = :id")
-    Account lockAccountById(@Param("id") UUID id);
+    // Shared row lock: holders do not block each other, but wait for (and block) an exclusive holder
+    @Query(value = "SELECT account_num FROM accounts WHERE account_num = :accountNum FOR SHARE", nativeQuery = true)
+    Optional<Long> lockShared(@Param("accountNum") Long accountNum);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT a FROM Account a WHERE a.accountNum = :accountNum")
-    Account lockByAccountNum(@Param("accountNum") Long accountNum);
+    @Query(value = "SELECT @@SESSION.innodb_lock_wait_timeout", nativeQuery = true)
+    int getLockWaitTimeout();
+
+    @Modifying
+    @Query(value = "SET SESSION innodb_lock_wait_timeout = :seconds", nativeQuery = true)
+    int setLockWaitTimeout(@Param("seconds") int seconds);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.amount = :amount, a.updatedAt = CURRENT_TIMESTAMP WHERE a.accountId = :id")
+    int updateAmount(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT a.hotAccount FROM Account a WHERE a.accountNum = :accountNum")
+    Optional<Boolean> findHotAccountFlag(@Param("accountNum") Long accountNum);
 
 }
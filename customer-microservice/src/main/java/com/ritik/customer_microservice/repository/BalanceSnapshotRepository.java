@@ -0,0 +1,18 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, UUID> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdOrderBySequenceDesc(UUID accountId);
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndAsOfLessThanEqualOrderBySequenceDesc(
+            UUID accountId, LocalDateTime asOf);
+}
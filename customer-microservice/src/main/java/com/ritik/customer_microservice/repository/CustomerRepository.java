@@ -24,13 +24,24 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
     boolean existsByEmail(String email);
 
+    // Hot accounts hold part of their balance in account_balance_buckets, so their balance is the row plus the
+    // bucket total; the derived table computes it once per account of the bank and both filters read that column
     @Query("""
-    SELECT c, a.amount
+    SELECT c, ab.balance
     FROM Customer c
     JOIN c.accounts a
-    WHERE a.bankId = :bankId
-      AND (:minBalance IS NULL OR a.amount >= :minBalance)
-      AND (:maxBalance IS NULL OR a.amount <= :maxBalance)
+    JOIN (
+        SELECT acc.accountId AS accountId, acc.amount + COALESCE(bs.total, 0) AS balance
+        FROM Account acc
+        LEFT JOIN (
+            SELECT b.accountId AS accountId, SUM(b.amount) AS total
+            FROM AccountBalanceBucket b
+            GROUP BY b.accountId
+        ) bs ON bs.accountId = acc.accountId
+        WHERE acc.bankId = :bankId
+    ) ab ON ab.accountId = a.accountId
+    WHERE (:minBalance IS NULL OR ab.balance >= :minBalance)
+      AND (:maxBalance IS NULL OR ab.balance <= :maxBalance)
 """)
     Page<Object[]> findCustomersByBankIdAndBalance(
             @Param("bankId") Long bankId,
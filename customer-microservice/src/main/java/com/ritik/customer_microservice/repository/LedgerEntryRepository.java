@@ -0,0 +1,57 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    @Query("SELECT MAX(e.sequence) FROM LedgerEntry e WHERE e.accountId = :accountId")
+    Optional<Long> findLastSequence(@Param("accountId") UUID accountId);
+
+    Optional<LedgerEntry> findByAccountIdAndSequence(UUID accountId, Long sequence);
+
+    @Query("""
+    SELECT COALESCE(SUM(e.amount), 0)
+    FROM LedgerEntry e
+    WHERE e.accountId = :accountId
+      AND e.sequence > :afterSequence
+      AND e.sequence <= :toSequence
+""")
+    BigDecimal sumAmountBetween(
+            @Param("accountId") UUID accountId,
+            @Param("afterSequence") Long afterSequence,
+            @Param("toSequence") Long toSequence
+    );
+
+    @Query("""
+    SELECT COALESCE(SUM(e.amount), 0)
+    FROM LedgerEntry e
+    WHERE e.accountId = :accountId
+      AND e.sequence > :afterSequence
+      AND e.createdAt <= :asOf
+""")
+    BigDecimal sumAmountAfterSequenceUntil(
+            @Param("accountId") UUID accountId,
+            @Param("afterSequence") Long afterSequence,
+            @Param("asOf") LocalDateTime asOf
+    );
+
+    // accountId, last sequence and first append time per account written since :since, served by idx_ledger_created
+    @Query("""
+    SELECT e.accountId, MAX(e.sequence), MIN(e.createdAt)
+    FROM LedgerEntry e
+    WHERE e.createdAt >= :since
+    GROUP BY e.accountId
+""")
+    List<Object[]> findActivitySince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,35 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.LedgerHead;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LedgerHeadRepository extends JpaRepository<LedgerHead, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM LedgerHead h WHERE h.accountId = :accountId")
+    Optional<LedgerHead> lockByAccountId(@Param("accountId") UUID accountId);
+
+    // Served by idx_ledger_head_pending_entries and idx_ledger_head_pending_since (index merge)
+    @Query("""
+    SELECT h FROM LedgerHead h
+    WHERE h.pendingEntries >= :minEntries
+       OR h.pendingSince <= :pendingBefore
+""")
+    List<LedgerHead> findDueForSnapshot(
+            @Param("minEntries") long minEntries,
+            @Param("pendingBefore") LocalDateTime pendingBefore,
+            Pageable pageable
+    );
+}
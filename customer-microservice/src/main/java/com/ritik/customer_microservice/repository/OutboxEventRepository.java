@@ -0,0 +1,54 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several relays drain disjoint batches without waiting on each other
+    @Query(value = """
+    SELECT * FROM outbox_events
+    WHERE published_at IS NULL
+      AND dead_lettered_at IS NULL
+      AND (claimed_until IS NULL OR claimed_until < :now)
+    ORDER BY outbox_id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    List<OutboxEvent> lockUnpublishedBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimedUntil = :claimedUntil WHERE o.outboxId IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.publishedAt = :publishedAt, o.claimedUntil = NULL WHERE o.outboxId IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.deadLetteredAt = :deadLetteredAt, o.claimedUntil = NULL WHERE o.outboxId IN :ids")
+    int markDeadLettered(@Param("ids") Collection<Long> ids, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimedUntil = NULL WHERE o.outboxId IN :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    long countByPublishedAtIsNullAndDeadLetteredAtIsNull();
+
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o WHERE o.publishedAt IS NULL AND o.deadLetteredAt IS NULL")
+    Optional<LocalDateTime> findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,28 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.PostingIntent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PostingIntentRepository extends JpaRepository<PostingIntent, UUID> {
+
+    @Query(value = """
+    SELECT * FROM posting_intents
+    WHERE created_at < :before
+    ORDER BY created_at
+    LIMIT :limit
+""", nativeQuery = true)
+    List<PostingIntent> findStale(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM PostingIntent p WHERE p.transactionId = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") UUID transactionId);
+}
@@ -0,0 +1,81 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.model.ArchivedTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<ArchivedTransaction, UUID> {
+
+    // Same streaming contract as TransactionRepository.streamStatement
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        a.transactionId, a.transactionType, a.operationType, a.amount,
+        a.closingBalance, a.transactionStatus, a.createdAt)
+    FROM ArchivedTransaction a
+    WHERE a.accountId = :accountId
+      AND a.createdAt >= :from
+      AND a.createdAt < :to
+    ORDER BY a.createdAt ASC, a.transactionId ASC
+""")
+    Stream<TransactionHistoryDTO> streamStatement(
+            @Param("accountId") UUID accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    long countByAccountIdInAndCreatedAtLessThan(List<UUID> accountIds, LocalDateTime before);
+
+    // History reads, newest first over idx_tx_archive_account_created. `before` is the oldest row still in
+    // `transactions`: a month is copied here before its partition is dropped, so for a while it is in both tables.
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        a.transactionId, a.transactionType, a.operationType, a.amount,
+        a.closingBalance, a.transactionStatus, a.createdAt)
+    FROM ArchivedTransaction a
+    WHERE a.accountId IN :accountIds
+      AND a.createdAt < :before
+    ORDER BY a.createdAt DESC, a.transactionId DESC
+""")
+    List<TransactionHistoryDTO> findHistory(
+            @Param("accountIds") List<UUID> accountIds,
+            @Param("before") LocalDateTime before,
+            Pageable pageable
+    );
+
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        a.transactionId, a.transactionType, a.operationType, a.amount,
+        a.closingBalance, a.transactionStatus, a.createdAt)
+    FROM ArchivedTransaction a
+    WHERE a.accountId IN :accountIds
+      AND a.createdAt < :before
+      AND (a.createdAt < :createdAt
+           OR (a.createdAt = :createdAt AND a.transactionId < :transactionId))
+    ORDER BY a.createdAt DESC, a.transactionId DESC
+""")
+    List<TransactionHistoryDTO> findHistoryAfter(
+            @Param("accountIds") List<UUID> accountIds,
+            @Param("before") LocalDateTime before,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("transactionId") UUID transactionId,
+            Pageable pageable
+    );
+}
@@ -1,29 +1,165 @@
 package com.ritik.customer_microservice.repository;
 
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
 import com.ritik.customer_microservice.model.Account;
 import com.ritik.customer_microservice.model.Transaction;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, TransactionSearchOperations {
 
     Page<Transaction> findByAccount_AccountId(UUID accountId, Pageable pageable);
 
     Page<Transaction> findByAccount_AccountIdIn(List<UUID> accountIds, Pageable pageable);
 
+    long countByAccount_AccountId(UUID accountId);
+
     Optional<Transaction> findByTransactionId(UUID transactionId);
 
+    // History reads select only the DTO columns, all of which sit in idx_tx_history_covering, so no row lookups
+    // or entity hydration happen. The single-account form reads the index in order without a filesort.
+    // Bounded below by the hot tier start so only the hot partitions are read; older rows continue from
+    // findHistoryBefore and the cold tiers.
+    @Query(value = """
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        t.transactionId, t.transactionType, t.operationType, t.amount,
+        t.closingBalance, t.transactionStatus, t.createdAt)
+    FROM Transaction t
+    WHERE t.account.accountId = :accountId
+      AND t.createdAt >= :from
+""", countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.account.accountId = :accountId AND t.createdAt >= :from")
+    Page<TransactionHistoryDTO> findHistoryByAccountId(
+            @Param("accountId") UUID accountId,
+            @Param("from") LocalDateTime from,
+            Pageable pageable
+    );
+
+    @Query(value = """
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        t.transactionId, t.transactionType, t.operationType, t.amount,
+        t.closingBalance, t.transactionStatus, t.createdAt)
+    FROM Transaction t
+    WHERE t.account.accountId IN :accountIds
+      AND t.createdAt >= :from
+""", countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.account.accountId IN :accountIds AND t.createdAt >= :from")
+    Page<TransactionHistoryDTO> findHistoryByAccountIdIn(
+            @Param("accountIds") List<UUID> accountIds,
+            @Param("from") LocalDateTime from,
+            Pageable pageable
+    );
+
+    // Closed months not archived yet (held back by PENDING rows): older than the hot tier, still in this table
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        t.transactionId, t.transactionType, t.operationType, t.amount,
+        t.closingBalance, t.transactionStatus, t.createdAt)
+    FROM Transaction t
+    WHERE t.account.accountId IN :accountIds
+      AND t.createdAt < :before
+    ORDER BY t.createdAt DESC, t.transactionId DESC
+""")
+    List<TransactionHistoryDTO> findHistoryBefore(
+            @Param("accountIds") List<UUID> accountIds,
+            @Param("before") LocalDateTime before,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.account.accountId IN :accountIds AND t.createdAt < :before")
+    long countHistoryBefore(@Param("accountIds") List<UUID> accountIds, @Param("before") LocalDateTime before);
+
+    // Keyset pages: List return type so no count query runs
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        t.transactionId, t.transactionType, t.operationType, t.amount,
+        t.closingBalance, t.transactionStatus, t.createdAt)
+    FROM Transaction t
+    WHERE t.account.accountId IN :accountIds
+    ORDER BY t.createdAt DESC, t.transactionId DESC
+""")
+    List<TransactionHistoryDTO> findHistoryFirstPage(@Param("accountIds") List<UUID> accountIds, Pageable pageable);
+
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        t.transactionId, t.transactionType, t.operationType, t.amount,
+        t.closingBalance, t.transactionStatus, t.createdAt)
+    FROM Transaction t
+    WHERE t.account.accountId IN :accountIds
+      AND (t.createdAt < :createdAt
+           OR (t.createdAt = :createdAt AND t.transactionId < :transactionId))
+    ORDER BY t.createdAt DESC, t.transactionId DESC
+""")
+    List<TransactionHistoryDTO> findHistoryAfter(
+            @Param("accountIds") List<UUID> accountIds,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("transactionId") UUID transactionId,
+            Pageable pageable
+    );
+
+    // Lower edge of what this table still holds for the accounts; archive reads stay below it
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t WHERE t.account.accountId IN :accountIds")
+    LocalDateTime findOldestCreatedAt(@Param("accountIds") List<UUID> accountIds);
+
+    // Integer.MIN_VALUE makes Connector/J stream rows one at a time instead of buffering the whole result set.
+    // The caller must consume and close the stream inside a read-only transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+    SELECT new com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO(
+        t.transactionId, t.transactionType, t.operationType, t.amount,
+        t.closingBalance, t.transactionStatus, t.createdAt)
+    FROM Transaction t
+    WHERE t.account.accountId = :accountId
+      AND t.createdAt >= :from
+      AND t.createdAt < :to
+    ORDER BY t.createdAt ASC, t.transactionId ASC
+""")
+    Stream<TransactionHistoryDTO> streamStatement(
+            @Param("accountId") UUID accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Claims abandoned PENDING rows through idx_tx_status_created. Rows held by an in-flight confirmation or by
+    // another instance's sweep are skipped rather than waited on.
+    // Confirmed rows with a posting intent are left to the posting recovery, not expired.
+    @Query(value = """
+    SELECT * FROM transactions
+    WHERE transaction_status = 'PENDING'
+      AND created_at < :cutoff
+      AND NOT EXISTS (SELECT 1 FROM posting_intents p WHERE p.transaction_id = transactions.transaction_id)
+    ORDER BY created_at
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    List<Transaction> lockExpiredPending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // transactionId, customer email
+    @Query("""
+    SELECT t.transactionId, c.email
+    FROM Transaction t JOIN t.account a JOIN a.customer c
+    WHERE t.transactionId IN :ids
+""")
+    List<Object[]> findOwnerEmails(@Param("ids") List<UUID> ids);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT t FROM Transaction t WHERE t.transactionId = :id")
     Optional<Transaction> lockByTransactionId(@Param("id") UUID id);
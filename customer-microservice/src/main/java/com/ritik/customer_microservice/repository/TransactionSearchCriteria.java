@@ -0,0 +1,22 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Null fields are not filtered on. `from` is always set so the partition key is bounded.
+public record TransactionSearchCriteria(
+        List<UUID> accountIds,
+        LocalDateTime from,
+        LocalDateTime to,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        OperationType operationType,
+        TransactionStatus transactionStatus,
+        Long counterpartyAccountNum
+) {
+}
@@ -0,0 +1,18 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionSearchOperations {
+
+    // Newest first, strictly after (afterCreatedAt, afterTransactionId) when those are given
+    List<TransactionHistoryDTO> search(
+            TransactionSearchCriteria criteria,
+            LocalDateTime afterCreatedAt,
+            UUID afterTransactionId,
+            int limit
+    );
+}
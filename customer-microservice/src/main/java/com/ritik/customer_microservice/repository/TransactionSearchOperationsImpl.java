@@ -0,0 +1,86 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Only the filters that were supplied become predicates, so MySQL sees the narrowest query and can pick the
+// matching idx_tx_search_* index (or idx_tx_history_covering for amount and date filters). Every index leads
+// with account_id and ends in created_at, so the keyset seek and the ORDER BY are served in index order.
+public class TransactionSearchOperationsImpl implements TransactionSearchOperations {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionHistoryDTO> search(
+            TransactionSearchCriteria criteria,
+            LocalDateTime afterCreatedAt,
+            UUID afterTransactionId,
+            int limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionHistoryDTO> query = cb.createQuery(TransactionHistoryDTO.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        Path<LocalDateTime> createdAt = t.get("createdAt");
+        Path<UUID> transactionId = t.get("transactionId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(t.get("account").get("accountId").in(criteria.accountIds()));
+        predicates.add(cb.greaterThanOrEqualTo(createdAt, criteria.from()));
+
+        if (criteria.to() != null) {
+            predicates.add(cb.lessThan(createdAt, criteria.to()));
+        }
+        if (criteria.minAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("amount"), criteria.minAmount()));
+        }
+        if (criteria.maxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("amount"), criteria.maxAmount()));
+        }
+        if (criteria.operationType() != null) {
+            predicates.add(cb.equal(t.get("operationType"), criteria.operationType()));
+        }
+        if (criteria.transactionStatus() != null) {
+            predicates.add(cb.equal(t.get("transactionStatus"), criteria.transactionStatus()));
+        }
+        if (criteria.counterpartyAccountNum() != null) {
+            predicates.add(cb.equal(t.get("counterpartyAccountNum"), criteria.counterpartyAccountNum()));
+        }
+        if (afterCreatedAt != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(transactionId, afterTransactionId))
+            ));
+        }
+
+        query.select(cb.construct(
+                        TransactionHistoryDTO.class,
+                        transactionId,
+                        t.get("transactionType"),
+                        t.get("operationType"),
+                        t.get("amount"),
+                        t.get("closingBalance"),
+                        t.get("transactionStatus"),
+                        createdAt
+                ))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(transactionId));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
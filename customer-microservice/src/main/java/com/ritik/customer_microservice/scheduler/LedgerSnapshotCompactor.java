@@ -0,0 +1,96 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.model.LedgerHead;
+import com.ritik.customer_microservice.repository.LedgerHeadRepository;
+import com.ritik.customer_microservice.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerSnapshotCompactor {
+
+    private final LedgerHeadRepository ledgerHeadRepository;
+    private final LedgerService ledgerService;
+
+    @Value("${ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
+    @Value("${ledger.compaction.min-entries:50}")
+    private long minEntries;
+
+    // Low-volume accounts roll on age so accounts.amount converges for reporting queries
+    @Value("${ledger.compaction.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    @Value("${ledger.compaction.batch-size:500}")
+    private int batchSize;
+
+    // Entries are stamped before they commit, so each scan re-reads this much of the previous one
+    @Value("${ledger.compaction.commit-lag-ms:60000}")
+    private long commitLagMs;
+
+    // How far back the first scan after startup looks for entries not yet counted in ledger_heads
+    @Value("${ledger.compaction.initial-lookback-ms:86400000}")
+    private long initialLookbackMs;
+
+    private LocalDateTime scannedUntil;
+
+    @Scheduled(fixedDelayString = "${ledger.compaction.interval-ms:60000}")
+    public void compactSnapshots() {
+
+        if (!ledgerEnabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        LocalDateTime scanStart = LocalDateTime.now();
+        LocalDateTime since = scannedUntil == null
+                ? scanStart.minus(Duration.ofMillis(initialLookbackMs))
+                : scannedUntil.minus(Duration.ofMillis(commitLagMs));
+        ledgerService.refreshHeads(since);
+        scannedUntil = scanStart;
+
+        List<LedgerHead> dueAccounts = ledgerHeadRepository.findDueForSnapshot(
+                minEntries,
+                LocalDateTime.now().minus(Duration.ofMillis(maxAgeMs)),
+                PageRequest.of(0, batchSize)
+        );
+
+        log.info(
+                "Ledger snapshot compaction started | dueAccounts={} | minEntries={} | maxAgeMs={}",
+                dueAccounts.size(),
+                minEntries,
+                maxAgeMs
+        );
+
+        int rolled = 0;
+        for (LedgerHead head : dueAccounts) {
+            try {
+                ledgerService.rollSnapshot(head.getAccountId(), head.getLastSequence());
+                rolled++;
+            } catch (Exception ex) {
+                log.error(
+                        "Ledger snapshot failed | accountId={} | toSequence={}",
+                        head.getAccountId(),
+                        head.getLastSequence(),
+                        ex
+                );
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+
+        log.info("Ledger snapshot compaction completed | rolledSnapshots={} | duration={} ms", rolled, duration);
+    }
+}
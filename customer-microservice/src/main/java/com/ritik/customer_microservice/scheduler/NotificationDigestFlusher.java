@@ -0,0 +1,152 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.service.EmailService;
+import com.ritik.customer_microservice.serviceImpl.NotificationDedupeService;
+import com.ritik.customer_microservice.serviceImpl.NotificationDigestService;
+import com.ritik.customer_microservice.serviceImpl.TransactionConsumerImpl;
+import com.ritik.customer_microservice.serviceImpl.TransactionEmailRetryConsumer;
+import com.ritik.customer_microservice.serviceImpl.TransactionEmailTemplateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Sends the digests whose window has closed. Draining is atomic per customer, so several instances can run this
+// at once without mailing the same digest twice. A drained digest stays claimed in Redis until it is sent or its
+// events reach the retry topic; a flusher that dies in between leaves it to be requeued.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDigestFlusher {
+
+    static final String DIGEST_SUBJECT = "Transaction Summary";
+
+    private final NotificationDigestService notificationDigestService;
+    private final TransactionEmailTemplateService emailTemplateService;
+    private final EmailService emailService;
+    private final NotificationDedupeService notificationDedupeService;
+    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.digest.flush-batch:200}")
+    private int flushBatch;
+
+    @Value("${notification.digest.forward-timeout-ms:30000}")
+    private long forwardTimeoutMs;
+
+    @Scheduled(fixedDelayString = "${notification.digest.flush-interval-ms:5000}")
+    public void flush() {
+
+        if (!enabled) {
+            return;
+        }
+
+        List<NotificationDigestService.Digest> digests = notificationDigestService.drainDue(flushBatch);
+
+        if (digests.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        int events = 0;
+
+        List<SimpleMailMessage> messages = new ArrayList<>(digests.size());
+        for (NotificationDigestService.Digest digest : digests) {
+            events += digest.events().size();
+            messages.add(message(digest));
+        }
+
+        Map<Object, Exception> failed = send(messages);
+
+        for (int i = 0; i < digests.size(); i++) {
+            NotificationDigestService.Digest digest = digests.get(i);
+            Exception failure = failed == null ? null : failed.get(messages.get(i));
+
+            if (failed == null || failure != null) {
+                forward(digest, failure == null ? "batch not sent" : failure.getMessage());
+            } else {
+                notificationDedupeService.markDelivered(digest.events());
+                notificationDigestService.complete(digest);
+            }
+        }
+
+        meterRegistry.counter("notification.digest.sent").increment(digests.size());
+        meterRegistry.counter("notification.digest.events").increment(events);
+
+        log.info(
+                "Notification digests flushed | digests={} | events={} | failed={} | duration={} ms",
+                digests.size(),
+                events,
+                failed == null ? digests.size() : failed.size(),
+                System.currentTimeMillis() - startTime
+        );
+    }
+
+    private SimpleMailMessage message(NotificationDigestService.Digest digest) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(digest.email());
+        message.setSubject(digest.events().size() == 1 ? TransactionConsumerImpl.SUBJECT : DIGEST_SUBJECT);
+        message.setText(emailTemplateService.buildDigestBody(digest.events()));
+        return message;
+    }
+
+    // All digests of a run go out back to back over one pooled SMTP session. Returns the messages that failed,
+    // empty when all were sent, or null when the batch failed without per-message detail.
+    private Map<Object, Exception> send(List<SimpleMailMessage> messages) {
+        try {
+            emailService.sendMails(messages);
+            return Map.of();
+        } catch (MailSendException ex) {
+            return ex.getFailedMessages().isEmpty() ? null : ex.getFailedMessages();
+        } catch (Exception ex) {
+            log.warn("Digest batch not sent | digests={} | reason={}", messages.size(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private void forward(NotificationDigestService.Digest digest, String reason) {
+
+        // The claimed events fall back to the per-event retry topics, and are only let go once the broker has them
+        log.warn(
+                "Digest not sent, forwarding events to retry topic | email={} | events={} | reason={}",
+                digest.email(),
+                digest.events().size(),
+                reason
+        );
+
+        CompletableFuture<?>[] forwards = digest.events().stream()
+                .map(event -> kafkaTemplate.send(
+                        TransactionEmailRetryConsumer.RETRY_TOPIC, event.getTransactionId().toString(), event))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(forwards).get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+            notificationDigestService.complete(digest);
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            notificationDigestService.requeue(digest);
+
+        } catch (ExecutionException | TimeoutException ex) {
+            log.error("Digest events not forwarded, requeued | email={} | reason={}", digest.email(), ex.getMessage());
+            notificationDigestService.requeue(digest);
+        }
+    }
+}
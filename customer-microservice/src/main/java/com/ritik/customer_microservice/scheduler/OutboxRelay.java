@@ -0,0 +1,245 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.model.OutboxEvent;
+import com.ritik.customer_microservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Must outlast the send timeout, or another relay could resend a batch still awaiting acks
+    @Value("${outbox.relay.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    @Value("${outbox.retention-hours:24}")
+    private long retentionHours;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Map<Integer, AtomicLong> partitionOffsets = new ConcurrentHashMap<>();
+
+    private Counter publishedCounter;
+    private Counter failedCounter;
+    private Counter deadLetteredCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0).register(meterRegistry);
+        publishedCounter = meterRegistry.counter("outbox.published");
+        failedCounter = meterRegistry.counter("outbox.send.failed");
+        deadLetteredCounter = meterRegistry.counter("outbox.dead.lettered");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        int total = 0;
+        int batches = 0;
+        int handled;
+
+        // Keep draining while batches are fully handled, bounded so one run cannot starve the scheduler
+        do {
+            handled = relayBatch();
+            total += handled;
+            batches++;
+        } while (handled == batchSize && batches < maxBatchesPerRun);
+
+        refreshLag();
+
+        if (total > 0) {
+            log.info(
+                    "Outbox relay completed | handled={} | batches={} | pending={} | lag={} ms | offsets={} | duration={} ms",
+                    total,
+                    batches,
+                    pendingEvents.get(),
+                    lagMillis.get(),
+                    partitionOffsets,
+                    System.currentTimeMillis() - startTime
+            );
+        }
+    }
+
+    // Sent and acknowledged rows count as handled, and so do dead-lettered ones
+    private int relayBatch() {
+
+        // Claimed in a short transaction so no row locks are held while the broker acknowledges
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Hand the whole batch to the producer before waiting so it can fill and compress record batches
+        List<CompletableFuture<SendResult<String, TransactionEvent>>> futures = new ArrayList<>(batch.size());
+        List<Long> deadIds = new ArrayList<>();
+        for (OutboxEvent outboxEvent : batch) {
+            TransactionEvent event = read(outboxEvent);
+            if (event == null) {
+                deadIds.add(outboxEvent.getOutboxId());
+                futures.add(null);
+                continue;
+            }
+            futures.add(kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getEventKey(), event));
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.currentTimeMillis() + sendTimeoutMs;
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> unsentIds = new ArrayList<>();
+
+        // Stop at the first failure: later rows are released and resent in order on the next run
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent outboxEvent = batch.get(i);
+            if (futures.get(i) == null) {
+                continue;
+            }
+            if (!unsentIds.isEmpty()) {
+                unsentIds.add(outboxEvent.getOutboxId());
+                continue;
+            }
+            try {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                SendResult<String, TransactionEvent> result = futures.get(i).get(remaining, TimeUnit.MILLISECONDS);
+                recordOffset(result);
+                sentIds.add(outboxEvent.getOutboxId());
+            } catch (ExecutionException | TimeoutException ex) {
+                failedCounter.increment();
+                log.error("Outbox event send failed | outboxId={} | key={}", outboxEvent.getOutboxId(), outboxEvent.getEventKey(), ex);
+                unsentIds.add(outboxEvent.getOutboxId());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                unsentIds.add(outboxEvent.getOutboxId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.execute(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEventRepository.markPublished(sentIds, now);
+            }
+            if (!deadIds.isEmpty()) {
+                outboxEventRepository.markDeadLettered(deadIds, now);
+            }
+            if (!unsentIds.isEmpty()) {
+                outboxEventRepository.releaseClaims(unsentIds);
+            }
+            return null;
+        });
+
+        publishedCounter.increment(sentIds.size());
+        deadLetteredCounter.increment(deadIds.size());
+
+        return sentIds.size() + deadIds.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockUnpublishedBatch(batchSize, now);
+
+        if (!batch.isEmpty()) {
+            outboxEventRepository.claim(
+                    batch.stream().map(OutboxEvent::getOutboxId).toList(),
+                    now.plus(Duration.ofMillis(claimLeaseMs))
+            );
+        }
+        return batch;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup.interval-ms:3600000}")
+    public void purgePublished() {
+
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+
+        try {
+            Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(before));
+            log.info("Outbox cleanup completed | deletedEvents={} | before={}", deleted, before);
+        } catch (Exception ex) {
+            log.error("Outbox cleanup failed | before={}", before, ex);
+        }
+    }
+
+    // Retrying cannot fix an unreadable payload, and leaving it unpublished would block every later row
+    private TransactionEvent read(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), TransactionEvent.class);
+        } catch (JsonProcessingException ex) {
+            log.error("Outbox event unreadable, dead-lettering it | outboxId={} | key={} | reason={}",
+                    outboxEvent.getOutboxId(), outboxEvent.getEventKey(), ex.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private void recordOffset(SendResult<String, TransactionEvent> result) {
+        if (result == null || result.getRecordMetadata() == null) {
+            return;
+        }
+
+        int partition = result.getRecordMetadata().partition();
+        partitionOffsets.computeIfAbsent(partition, p -> {
+            AtomicLong offset = new AtomicLong(-1);
+            Gauge.builder("outbox.partition.offset", offset, AtomicLong::get)
+                    .tag("partition", String.valueOf(p))
+                    .register(meterRegistry);
+            return offset;
+        }).accumulateAndGet(result.getRecordMetadata().offset(), Math::max);
+    }
+
+    private void refreshLag() {
+        pendingEvents.set(outboxEventRepository.countByPublishedAtIsNullAndDeadLetteredAtIsNull());
+        lagMillis.set(outboxEventRepository.findOldestUnpublishedCreatedAt()
+                .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+}
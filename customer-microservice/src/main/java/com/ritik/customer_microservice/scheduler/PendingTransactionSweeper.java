@@ -0,0 +1,128 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.model.Transaction;
+import com.ritik.customer_microservice.repository.TransactionRepository;
+import com.ritik.customer_microservice.serviceImpl.CacheGenerationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Fails withdrawals and transfers whose OTP was never entered. Each batch is claimed with SKIP LOCKED and
+// committed on its own, so instances running concurrently split the backlog instead of colliding, and a
+// confirmation holding a row lock is never failed underneath.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingTransactionSweeper {
+
+    static final String EXPIRED_REASON = "OTP EXPIRED";
+
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheGenerationService cacheGenerationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.pending.sweeper.enabled:true}")
+    private boolean enabled;
+
+    // Well past the OTP validity so a code entered just before it expires still gets through
+    @Value("${transaction.pending.expiry-minutes:15}")
+    private long expiryMinutes;
+
+    @Value("${transaction.pending.sweeper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${transaction.pending.sweeper.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${transaction.pending.sweeper.interval-ms:60000}")
+    public void sweep() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(expiryMinutes);
+        int total = 0;
+        int batches = 0;
+        int failed;
+
+        do {
+            Integer swept = transactionTemplate.execute(status -> sweepBatch(cutoff));
+            failed = swept == null ? 0 : swept;
+            total += failed;
+            batches++;
+        } while (failed == batchSize && batches < maxBatchesPerRun);
+
+        if (total > 0) {
+            meterRegistry.counter("transaction.pending.expired").increment(total);
+            log.info(
+                    "Pending transaction sweep completed | failed={} | batches={} | cutoff={} | duration={} ms",
+                    total,
+                    batches,
+                    cutoff,
+                    System.currentTimeMillis() - startTime
+            );
+        }
+    }
+
+    private int sweepBatch(LocalDateTime cutoff) {
+
+        List<Transaction> expired = transactionRepository.lockExpiredPending(cutoff, batchSize);
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, String> emails = new HashMap<>();
+        for (Object[] row : transactionRepository.findOwnerEmails(
+                expired.stream().map(Transaction::getTransactionId).toList())) {
+            emails.put((UUID) row[0], (String) row[1]);
+        }
+
+        // One generation bump per account, however many of its rows expired in this batch
+        Set<Long> invalidated = new HashSet<>();
+
+        // Managed entities, so the status change flushes through the entity listeners like any other update
+        for (Transaction tx : expired) {
+            String email = emails.get(tx.getTransactionId());
+
+            tx.setTransactionStatus(TransactionStatus.FAILED);
+            if (invalidated.add(tx.getAccountNum())) {
+                cacheGenerationService.invalidate(email, tx.getAccountNum(), null);
+            }
+
+            // Written to the outbox in this same transaction by TransactionProducerImpl
+            eventPublisher.publishEvent(new TransactionEvent(
+                    tx.getTransactionId(),
+                    email,
+                    tx.getAmount(),
+                    tx.getOperationType(),
+                    tx.getTransactionType(),
+                    TransactionStatus.FAILED,
+                    EXPIRED_REASON
+            ));
+        }
+
+        log.debug("Expired pending transactions failed | count={} | oldest={}", expired.size(), expired.get(0).getCreatedAt());
+
+        return expired.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.serviceImpl.TransactionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Re-queues confirmed postings the posting engine lost, e.g. to a restart between the confirm and its batch.
+// Until then the transaction stays PENDING and PendingTransactionSweeper leaves it alone.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostingIntentRecovery {
+
+    private final TransactionServiceImpl transactionService;
+
+    @Value("${posting.recovery.enabled:true}")
+    private boolean enabled;
+
+    // Well past a normal queue wait, so a posting still in flight is rarely queued a second time
+    @Value("${posting.recovery.after-ms:60000}")
+    private long afterMs;
+
+    @Value("${posting.recovery.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${posting.recovery.interval-ms:30000}")
+    public void recover() {
+
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(afterMs));
+        int recovered = transactionService.recoverConfirmedPostings(before, batchSize);
+
+        if (recovered > 0) {
+            log.warn("Confirmed postings recovered | count={} | before={}", recovered, before);
+        }
+    }
+}
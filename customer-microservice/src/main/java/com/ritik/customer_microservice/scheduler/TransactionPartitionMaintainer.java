@@ -0,0 +1,99 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.serviceImpl.TransactionArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionMaintainer {
+
+    // MySQL named lock: only one instance runs partition DDL at a time
+    private static final String LOCK_NAME = "customer-ms-transaction-partitions";
+
+    private final TransactionArchiveService transactionArchiveService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Opt-in: the first run against an existing, populated table needs transaction.partition.migrate-existing
+    // as well, and that conversion blocks postings while MySQL copies the table
+    @Value("${transaction.partition.enabled:false}")
+    private boolean enabled;
+
+    // Runs once at startup too, so a freshly created schema is partitioned before the first posting lands
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${transaction.partition.cron:0 15 2 * * *}")
+    public void maintain() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!acquire(connection)) {
+                    log.info("Transaction partition maintenance skipped | reason=LOCK_HELD");
+                    return null;
+                }
+                try {
+                    runMaintenance();
+                } finally {
+                    try (PreparedStatement release = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                        release.setString(1, LOCK_NAME);
+                        release.execute();
+                    }
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.error("Transaction partition maintenance failed | reason={}", ex.getMessage(), ex);
+        }
+    }
+
+    private void runMaintenance() {
+
+        long startTime = System.currentTimeMillis();
+
+        boolean converted = transactionArchiveService.ensurePartitioned();
+        if (!converted && !transactionArchiveService.isPartitioned()) {
+            return;
+        }
+
+        int added = transactionArchiveService.addFuturePartitions();
+        int archived = transactionArchiveService.archiveClosedPartitions();
+
+        log.info(
+                "Transaction partition maintenance completed | converted={} | added={} | archived={} | duration={} ms",
+                converted,
+                added,
+                archived,
+                System.currentTimeMillis() - startTime
+        );
+    }
+
+    private boolean acquire(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            lock.setString(1, LOCK_NAME);
+            try (ResultSet result = lock.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.ritik.customer_microservice.dto.accountDTO.AccountResponseDTO;
 import com.ritik.customer_microservice.dto.accountDTO.CreateAccountDTO;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 
+import java.time.LocalDateTime;
+
 
 public interface AccountService {
 
@@ -13,4 +15,8 @@ public interface AccountService {
     AccountBalanceDTO checkBalance(String email, Long accountNum);
 
     PageResponse<AccountResponseDTO> getAccountInfo(String email, Long accountNum);
+
+    AccountBalanceDTO balanceAsOf(String email, Long accountNum, LocalDateTime asOf);
+
+    AccountBalanceDTO enableHotAccount(Long accountNum, int buckets);
 }
@@ -1,5 +1,11 @@
 package com.ritik.customer_microservice.service;
 
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.List;
+
 public interface EmailService {
     void sendMail(String to, String subject, String body);
+
+    void sendMails(List<SimpleMailMessage> messages);
 }
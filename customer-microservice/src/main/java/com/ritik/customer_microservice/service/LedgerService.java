@@ -0,0 +1,18 @@
+package com.ritik.customer_microservice.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface LedgerService {
+
+    BigDecimal post(UUID accountId, BigDecimal amount, UUID transactionId);
+
+    BigDecimal currentBalance(UUID accountId);
+
+    BigDecimal balanceAsOf(UUID accountId, LocalDateTime asOf);
+
+    void rollSnapshot(UUID accountId, Long toSequence);
+
+    int refreshHeads(LocalDateTime since);
+}
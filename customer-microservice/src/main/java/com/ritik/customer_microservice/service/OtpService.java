@@ -6,4 +6,7 @@ public interface OtpService {
     void sendOtp( String email, UUID transactionId);
 
     boolean verifyOtp(String email, UUID transactionId, String otp);
+
+    // Marks a verified code as used. Called inside the transaction that acts on it, so a rollback leaves it usable.
+    void consumeOtp(String email, UUID transactionId);
 }
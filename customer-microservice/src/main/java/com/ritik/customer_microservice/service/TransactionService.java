@@ -1,8 +1,11 @@
 package com.ritik.customer_microservice.service;
 
 import com.ritik.customer_microservice.dto.transactionDTO.*;
+import com.ritik.customer_microservice.wrapper.CursorPageResponse;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 
+import java.util.UUID;
+
 public interface TransactionService {
     TransactionResponseDTO depositMoney(String email, DepositRequestDTO depositRequestDTO);
 
@@ -10,7 +13,13 @@ public interface TransactionService {
 
     PageResponse<TransactionHistoryDTO> transactionHistory(String email, Long accountNum, int page, int size);
 
+    CursorPageResponse<TransactionHistoryDTO> transactionHistoryByCursor(String email, Long accountNum, String cursor, int size);
+
+    CursorPageResponse<TransactionHistoryDTO> searchTransactions(String email, TransactionSearchRequestDTO request);
+
     TransferResponseDTO transferMoney(String email, TransferRequestDTO transferRequestDTO);
 
     TransactionResponseDTO transactionConfirm(String email, ConfirmRequestDTO dto);
+
+    TransactionResponseDTO transactionStatus(String email, UUID transactionId, long waitMs);
 }
@@ -0,0 +1,76 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.AccountNotFoundException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountLockService {
+
+    private final AccountRepository accountRepository;
+
+    @Value("${account.lock.wait-timeout-seconds:3}")
+    private int lockWaitTimeoutSeconds;
+
+    // One SELECT ... FOR UPDATE in ascending accountNum order: A->B and B->A can never wait on each other
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Account> lockAccounts(Collection<Long> accountNums) {
+
+        List<Long> ordered = accountNums.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+
+        // The timeout is a session variable, so it is put back once the locks are held (or the wait gave up).
+        // Left in place it would stay on the pooled connection and cut short every later statement on it.
+        Integer previousTimeout = null;
+        if (lockWaitTimeoutSeconds > 0) {
+            previousTimeout = accountRepository.getLockWaitTimeout();
+            accountRepository.setLockWaitTimeout(lockWaitTimeoutSeconds);
+        }
+
+        log.debug("Acquiring ordered account locks | accountNums={} | waitTimeout={}s", ordered, lockWaitTimeoutSeconds);
+
+        List<Account> accounts;
+        try {
+            accounts = accountRepository.lockAllByAccountNumInOrder(ordered);
+        } finally {
+            if (previousTimeout != null) {
+                restoreLockWaitTimeout(previousTimeout);
+            }
+        }
+
+        if (accounts.size() != ordered.size()) {
+            log.warn("Account lock failed | reason=ACCOUNT_NOT_FOUND | requested={} | found={}",
+                    ordered, accounts.stream().map(Account::getAccountNum).toList());
+            throw new AccountNotFoundException("Account not found");
+        }
+
+        Map<Long, Account> locked = new LinkedHashMap<>();
+        accounts.forEach(account -> locked.put(account.getAccountNum(), account));
+
+        log.debug("Account locks acquired | accountNums={}", locked.keySet());
+        return locked;
+    }
+
+    // Must not mask the lock failure it may be running after
+    private void restoreLockWaitTimeout(int seconds) {
+        try {
+            accountRepository.setLockWaitTimeout(seconds);
+        } catch (DataAccessException ex) {
+            log.error("Lock wait timeout not restored | timeout={}s | reason={}", seconds, ex.getMessage());
+        }
+    }
+}
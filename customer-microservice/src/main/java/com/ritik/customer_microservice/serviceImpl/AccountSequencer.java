@@ -0,0 +1,272 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.RequestOutcomeUnknownException;
+import com.ritik.customer_microservice.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class AccountSequencer {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${sequencer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${sequencer.lanes:8}")
+    private int laneCount;
+
+    @Value("${sequencer.max-batch:64}")
+    private int maxBatch;
+
+    @Value("${sequencer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${sequencer.result-timeout-ms:30000}")
+    private long resultTimeoutMs;
+
+    // Empty means every account is sequenced once the sequencer is enabled
+    @Value("${sequencer.hot-accounts:}")
+    private Set<Long> hotAccounts = Set.of();
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private volatile boolean stopped;
+
+    public AccountSequencer(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        // Bounds how long a caller whose command is already running can be kept waiting for its outcome
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(resultTimeoutMs)));
+
+        for (int i = 0; i < laneCount; i++) {
+            Lane lane = new Lane(i, new LinkedBlockingQueue<>(queueCapacity));
+            lanes.add(lane);
+            lane.thread.start();
+        }
+
+        log.info(
+                "Account sequencer started | lanes={} | maxBatch={} | queueCapacity={} | hotAccounts={}",
+                laneCount,
+                maxBatch,
+                queueCapacity,
+                hotAccounts.isEmpty() ? "ALL" : hotAccounts
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        lanes.forEach(lane -> lane.thread.interrupt());
+        log.info("Account sequencer stopped | lanes={}", lanes.size());
+    }
+
+    public boolean isSequenced(Long accountNum) {
+        return enabled && !stopped && !lanes.isEmpty() && (hotAccounts.isEmpty() || hotAccounts.contains(accountNum));
+    }
+
+    public <T> T submit(Long accountNum, Supplier<T> mutation) {
+        if (stopped) {
+            throw new ServiceUnavailableException("Service is shutting down. Please retry.");
+        }
+
+        Lane lane = lanes.get(Math.floorMod(Long.hashCode(accountNum), lanes.size()));
+        if (!lane.thread.isAlive()) {
+            log.error("Sequencer lane not running | lane={} | accountNum={}", lane.index, accountNum);
+            throw new ServiceUnavailableException("Account is busy. Please retry later.");
+        }
+
+        Command<T> command = new Command<>(accountNum, mutation);
+
+        if (!lane.queue.offer(command)) {
+            log.warn("Sequencer lane full | lane={} | accountNum={} | capacity={}", lane.index, accountNum, queueCapacity);
+            throw new ServiceUnavailableException("Account is busy. Please retry later.");
+        }
+
+        try {
+            return await(command);
+        } catch (TimeoutException ex) {
+            // Not started yet: abandoning it means the lane skips it, so nothing was applied
+            if (command.abandon()) {
+                log.warn("Sequencer command timed out before start | lane={} | accountNum={}", lane.index, accountNum);
+                throw new ServiceUnavailableException("Account is busy. Please retry later.");
+            }
+        }
+
+        // Already running, so it may still commit: wait for the lane to complete or fail it. The lane's
+        // transaction timeout bounds that wait, and a dying lane fails every command it holds.
+        log.warn("Sequencer command still running after timeout, waiting for its outcome | lane={} | accountNum={}",
+                lane.index, accountNum);
+        return awaitOutcome(command);
+    }
+
+    private <T> T await(Command<T> command) throws TimeoutException {
+        try {
+            return command.result.get(resultTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (command.abandon()) {
+                throw new ServiceUnavailableException("Request interrupted. Please retry.");
+            }
+            throw new RequestOutcomeUnknownException("Request interrupted. Please check its status.");
+        } catch (ExecutionException ex) {
+            throw failure(ex);
+        }
+    }
+
+    private <T> T awaitOutcome(Command<T> command) {
+        try {
+            return command.result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestOutcomeUnknownException("Request interrupted. Please check its status.");
+        } catch (ExecutionException ex) {
+            throw failure(ex);
+        }
+    }
+
+    private RuntimeException failure(ExecutionException ex) {
+        if (ex.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new ServiceUnavailableException("Account update failed. Please retry.");
+    }
+
+    private record Command<T>(
+            Long accountNum,
+            Supplier<T> mutation,
+            CompletableFuture<T> result,
+            AtomicBoolean claimed
+    ) {
+
+        Command(Long accountNum, Supplier<T> mutation) {
+            this(accountNum, mutation, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        // The lane and a timed-out caller race for the command; whoever claims it first decides its fate
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        boolean abandon() {
+            if (!claim()) {
+                return false;
+            }
+            result.completeExceptionally(new ServiceUnavailableException("Account is busy. Please retry later."));
+            return true;
+        }
+
+        void complete(Object value) {
+            @SuppressWarnings("unchecked")
+            T typed = (T) value;
+            result.complete(typed);
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Command<?>> queue;
+        private final Thread thread;
+
+        private Lane(int index, BlockingQueue<Command<?>> queue) {
+            this.index = index;
+            this.queue = queue;
+            this.thread = new Thread(this, "account-sequencer-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Command<?>> batch = new ArrayList<>(maxBatch);
+
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        batch.add(queue.take());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    queue.drainTo(batch, maxBatch - 1);
+
+                    // Skip commands whose callers already gave up
+                    batch.removeIf(command -> !command.claim());
+                    if (!batch.isEmpty()) {
+                        applyBatch(batch);
+                    }
+                    batch.clear();
+                }
+            } catch (Throwable ex) {
+                log.error("Sequencer lane died | lane={} | reason={}", index, ex.toString());
+                throw ex;
+            } finally {
+                // However the lane exits, nobody may be left waiting on it
+                ServiceUnavailableException unavailable =
+                        new ServiceUnavailableException("Service is shutting down. Please retry.");
+                batch.forEach(command -> command.result.completeExceptionally(unavailable));
+                queue.forEach(command -> command.result.completeExceptionally(unavailable));
+            }
+        }
+
+        private void applyBatch(List<Command<?>> batch) {
+            long startTime = System.nanoTime();
+
+            try {
+                List<Object> results = transactionTemplate.execute(status -> {
+                    List<Object> applied = new ArrayList<>(batch.size());
+                    for (Command<?> command : batch) {
+                        applied.add(command.mutation.get());
+                    }
+                    return applied;
+                });
+
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(results.get(i));
+                }
+
+                log.debug(
+                        "Sequencer batch committed | lane={} | size={} | duration={} us",
+                        index,
+                        batch.size(),
+                        (System.nanoTime() - startTime) / 1_000
+                );
+            } catch (RuntimeException ex) {
+                if (batch.size() == 1) {
+                    batch.get(0).result.completeExceptionally(ex);
+                    return;
+                }
+
+                // One bad mutation must not fail its neighbours: replay the batch one commit per command
+                log.warn("Sequencer batch failed, replaying individually | lane={} | size={} | reason={}",
+                        index, batch.size(), ex.getMessage());
+
+                for (Command<?> command : batch) {
+                    try {
+                        command.complete(transactionTemplate.execute(status -> command.mutation.get()));
+                    } catch (RuntimeException single) {
+                        command.result.completeExceptionally(single);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -12,16 +12,19 @@ import com.ritik.customer_microservice.model.Customer;
 import com.ritik.customer_microservice.repository.AccountRepository;
 import com.ritik.customer_microservice.repository.CustomerRepository;
 import com.ritik.customer_microservice.service.AccountService;
+import com.ritik.customer_microservice.service.LedgerService;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,6 +45,14 @@ public class AccountServiceImpl implements AccountService {
 
     private final ModelMapper modelMapper;
 
+    private final LedgerService ledgerService;
+
+    private final HotAccountService hotAccountService;
+    private final CacheGenerationService cacheGenerationService;
+
+    @Value("${ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
     private AccountResponseDTO toResponseDto(Account account) {
         return modelMapper.map(account, AccountResponseDTO.class);
     }
@@ -100,6 +111,9 @@ public class AccountServiceImpl implements AccountService {
 
         accountRepository.save(account);
 
+        // The customer's all-accounts view and the bank's customer listing both gain a row
+        cacheGenerationService.invalidate(email, null, bankId);
+
         log.info(
                 "Account created successfully | email={} | accountNum={} | bankId={}",
                 email,
@@ -128,17 +142,63 @@ public class AccountServiceImpl implements AccountService {
                     return new AccountNotFoundException("Account not found");
                 });
 
-        log.debug("Balance fetched | accountNum={} | balance={}", accountNum, account.getAmount());
+        BigDecimal balance;
+        if (ledgerEnabled) {
+            balance = ledgerService.currentBalance(account.getAccountId());
+        } else if (account.isHotAccount()) {
+            balance = hotAccountService.balance(account);
+        } else {
+            balance = account.getAmount();
+        }
+
+        log.debug("Balance fetched | accountNum={} | balance={}", accountNum, balance);
         AccountBalanceDTO dto = new AccountBalanceDTO();
         dto.setAccountNumber(account.getAccountNum());
-        dto.setAccountBalance(account.getAmount());
+        dto.setAccountBalance(balance);
+        return dto;
+    }
+
+    @Override
+    public AccountBalanceDTO balanceAsOf(String email, Long accountNum, LocalDateTime asOf) {
+        log.info("Balance as-of request | email={} | accountNum={} | asOf={}", email, accountNum, asOf);
+
+        if (!ledgerEnabled) {
+            log.warn("Balance as-of rejected | reason=LEDGER_DISABLED | accountNum={}", accountNum);
+            throw new BadRequestException("Balance history is not available");
+        }
+
+        Customer customer = customerRepository.findByEmail(email).orElseThrow(() -> {
+            log.warn("Customer not found during balance as-of | email={}", email);
+            return new CustomerNotFoundException("Customer not found");
+        });
+        Account account = accountRepository.findByAccountNumAndCustomer_CustomerId(accountNum, customer.getCustomerId())
+                .orElseThrow(() -> {
+                    log.warn("Account not found during balance as-of | email={} | accountNum={}", email, accountNum);
+                    return new AccountNotFoundException("Account not found");
+                });
+
+        AccountBalanceDTO dto = new AccountBalanceDTO();
+        dto.setAccountNumber(account.getAccountNum());
+        dto.setAccountBalance(ledgerService.balanceAsOf(account.getAccountId(), asOf));
+        return dto;
+    }
+
+    @Override
+    public AccountBalanceDTO enableHotAccount(Long accountNum, int buckets) {
+        log.info("Enable hot account request | accountNum={} | buckets={}", accountNum, buckets);
+
+        Account account = hotAccountService.enable(accountNum, buckets);
+
+        AccountBalanceDTO dto = new AccountBalanceDTO();
+        dto.setAccountNumber(account.getAccountNum());
+        dto.setAccountBalance(hotAccountService.balance(account));
         return dto;
     }
 
     @Override
     @Cacheable(
             value = "accountInfo",
-            key = "{#email, #accountNum}",
+            key = "{#email, #accountNum, @cacheGenerationService.of(#email, #accountNum)}",
             unless = "#result == null"
     )
     public PageResponse<AccountResponseDTO> getAccountInfo(String email, Long accountNum) {
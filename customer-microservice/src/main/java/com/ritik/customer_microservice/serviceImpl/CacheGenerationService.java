@@ -0,0 +1,100 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generation counters embedded in cache keys. Bumping a counter orphans every entry keyed on the old value,
+ * which then ages out through its TTL, so invalidation is one INCR per scope instead of a key scan.
+ *
+ * Scopes: per account (single-account views), per customer email (all-accounts views) and per bank
+ * (bankCustomers). Counters carry no TTL: one small key per scope, and a counter that expired and restarted
+ * could collide with entries still cached under its earlier values.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheGenerationService {
+
+    private static final String KEY_PREFIX = "customer-ms::gen::";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Used in @Cacheable keys for views of one account, or of all of a customer's accounts when accountNum is null
+    public String of(String email, Long accountNum) {
+        return read(accountNum != null ? accountKey(accountNum) : customerKey(email));
+    }
+
+    public String bank(Long bankId) {
+        return read(bankKey(bankId));
+    }
+
+    // Applied after commit so a concurrent read cannot re-cache pre-commit state under the new generation
+    public void invalidate(String email, Long accountNum, Long bankId) {
+        List<String> keys = new ArrayList<>(3);
+        if (email != null) {
+            keys.add(customerKey(email));
+        }
+        if (accountNum != null) {
+            keys.add(accountKey(accountNum));
+        }
+        if (bankId != null) {
+            keys.add(bankKey(bankId));
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(keys);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(keys);
+            }
+        });
+    }
+
+    // One INCR per key rather than a script: the scopes hash to different cluster slots, and each counter stands
+    // alone, so a failed bump only leaves its own scope to age out through the TTL
+    private void bump(List<String> keys) {
+        for (String key : keys) {
+            try {
+                redisTemplate.opsForValue().increment(key);
+            } catch (DataAccessException ex) {
+                log.error("Cache generation not bumped | key={} | reason={}", key, ex.getMessage());
+            }
+        }
+    }
+
+    private String read(String key) {
+        try {
+            String generation = redisTemplate.opsForValue().get(key);
+            return generation == null ? "0" : generation;
+        } catch (DataAccessException ex) {
+            // A never-repeating generation turns the lookup into a cache miss instead of failing the request
+            log.warn("Cache generation unavailable | key={} | reason={}", key, ex.getMessage());
+            return "unavailable-" + System.nanoTime();
+        }
+    }
+
+    private String accountKey(Long accountNum) {
+        return KEY_PREFIX + "account::" + accountNum;
+    }
+
+    private String customerKey(String email) {
+        return KEY_PREFIX + "customer::" + email;
+    }
+
+    private String bankKey(Long bankId) {
+        return KEY_PREFIX + "bank::" + bankId;
+    }
+}
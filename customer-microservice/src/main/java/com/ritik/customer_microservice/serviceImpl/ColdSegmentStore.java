@@ -0,0 +1,546 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.wrapper.HistoryCursor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Immutable per-month files holding postings that have left MySQL. Rows are sorted by (account, created_at) and
+// cut into deflate-compressed blocks that never span two accounts. A sparse index with one entry per block sits
+// at the end of the file, so a read maps the file, binary-searches the index and inflates only the account's
+// blocks that overlap the requested range. Files past 2 GB are mapped as overlapping windows.
+//
+// Layout: MAGIC VERSION | block* | index entry* | index offset, entry count, MAGIC
+@Slf4j
+@Service
+public class ColdSegmentStore {
+
+    private static final int MAGIC = 0x54585347; // "TXSG"
+    private static final int VERSION = 1;
+    private static final int INDEX_ENTRY_BYTES = 56;
+    private static final int FOOTER_BYTES = 16;
+    // Windows overlap by this much and no block may be larger, so every block lies inside the window it starts in
+    private static final int MAX_BLOCK_BYTES = 16 * 1024 * 1024;
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String FILE_PREFIX = "transactions-";
+    private static final String FILE_SUFFIX = ".seg";
+
+    @Value("${transaction.segment.enabled:false}")
+    private boolean enabled;
+
+    // Must be storage every instance mounts (NFS, EFS, ...): a segment replaces the month's partition in MySQL,
+    // so a file only one pod can see loses that month for every other pod and for the next deployment
+    @Value("${transaction.segment.dir:}")
+    private String directory;
+
+    // Set once the directory above is confirmed to be shared; segments refuse to start without it
+    @Value("${transaction.segment.shared:false}")
+    private boolean shared;
+
+    // How often each instance rescans the directory for segments written elsewhere
+    @Value("${transaction.segment.refresh-ms:60000}")
+    private long refreshMs;
+
+    @Value("${transaction.segment.block-rows:256}")
+    private int blockRows;
+
+    // A single mapping is capped at 2 GB
+    @Value("${transaction.segment.map-window-bytes:1073741824}")
+    private long mapWindowBytes;
+
+    private final NavigableMap<YearMonth, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // Files already reported as unreadable, so a bad file is logged once rather than on every rescan
+    private final Set<Path> skipped = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void loadSegments() {
+
+        if (!enabled) {
+            return;
+        }
+
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalStateException("transaction.segment.enabled needs transaction.segment.dir on shared storage");
+        }
+        if (!shared) {
+            throw new IllegalStateException("Cold segments refused: set transaction.segment.shared=true once "
+                    + directory + " is mounted by every instance");
+        }
+        // Never created here: a missing mount would otherwise turn into a local directory only this pod can read
+        if (!Files.isDirectory(Path.of(directory))) {
+            throw new IllegalStateException("Cold segment directory " + directory + " is not mounted");
+        }
+
+        refresh();
+
+        log.info("Cold segments loaded | dir={} | segments={}", directory, segments.size());
+    }
+
+    // Picks up months archived by other instances
+    @Scheduled(fixedDelayString = "${transaction.segment.refresh-ms:60000}")
+    public void refresh() {
+
+        if (!enabled) {
+            return;
+        }
+
+        Path dir = Path.of(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                registerIfNew(file);
+            }
+        } catch (IOException | DirectoryIteratorException ex) {
+            log.error("Cold segment scan failed, retrying on next refresh | dir={} | reason={}", dir, ex.getMessage());
+        }
+    }
+
+    // One bad file must not stop the others loading or the service starting; it is retried on every rescan
+    private void registerIfNew(Path file) {
+        try {
+            YearMonth month = monthOf(file);
+            if (!segments.containsKey(month)) {
+                register(month, file);
+                skipped.remove(file);
+                log.debug("Cold segment registered | month={} | file={}", month, file);
+            }
+        } catch (IOException | RuntimeException ex) {
+            if (skipped.add(file)) {
+                log.error("Cold segment skipped | file={} | reason={}", file, ex.getMessage());
+            }
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    public boolean contains(YearMonth month) {
+        return segments.containsKey(month);
+    }
+
+    // True once the file has existed for two refresh periods, so every running instance has rescanned since it
+    // appeared; until then the month's partition has to stay in MySQL
+    public boolean visibleToAllReaders(YearMonth month) {
+        try {
+            Path file = Path.of(directory).resolve(fileName(month));
+            return Files.exists(file)
+                    && Files.getLastModifiedTime(file).toMillis() <= System.currentTimeMillis() - 2 * refreshMs;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Rows must arrive ordered by account_id (MySQL BINARY order), created_at, transaction_id
+    public SegmentWriter writer(YearMonth month) {
+        try {
+            return new SegmentWriter(month, Path.of(directory).resolve(fileName(month)), blockRows);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // History reads only take months before `before`: a month whose partition is still in MySQL is read from there
+    public long count(Collection<UUID> accountIds, LocalDateTime before) {
+        long total = 0;
+        for (Segment segment : segments.headMap(YearMonth.from(before), false).values()) {
+            for (UUID accountId : accountIds) {
+                total += segment.count(accountId);
+            }
+        }
+        return total;
+    }
+
+    // Oldest first over [from, to); months are visited lazily in order
+    public Stream<TransactionHistoryDTO> statement(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        return segments.subMap(YearMonth.from(from), true, YearMonth.from(to), true).values().stream()
+                .flatMap(segment -> segment.rows(accountId, from, to).stream());
+    }
+
+    // Newest first across accounts, strictly after `position` in that order when one is given
+    public Stream<TransactionHistoryDTO> newestFirst(
+            Collection<UUID> accountIds, HistoryCursor position, LocalDateTime before) {
+
+        NavigableMap<YearMonth, Segment> candidates = segments.headMap(YearMonth.from(before), false);
+        if (position != null) {
+            candidates = candidates.headMap(YearMonth.from(position.createdAt()), true);
+        }
+
+        TransactionHistoryDTO probe = position == null ? null : new TransactionHistoryDTO(
+                position.transactionId(), null, null, null, null, null, position.createdAt());
+
+        return candidates.descendingMap().values().stream().flatMap(segment -> {
+            List<TransactionHistoryDTO> rows = new ArrayList<>();
+            for (UUID accountId : accountIds) {
+                rows.addAll(segment.rows(accountId, LocalDateTime.MIN, LocalDateTime.MAX));
+            }
+            rows.sort(RecentTransactionWindow.NEWEST_FIRST);
+            return rows.stream()
+                    .filter(row -> probe == null || RecentTransactionWindow.NEWEST_FIRST.compare(row, probe) > 0);
+        });
+    }
+
+    private void register(YearMonth month, Path file) throws IOException {
+        segments.put(month, Segment.open(file, mapWindowBytes));
+    }
+
+    private static String fileName(YearMonth month) {
+        return FILE_PREFIX + FILE_MONTH.format(month) + FILE_SUFFIX;
+    }
+
+    private static YearMonth monthOf(Path file) {
+        String name = file.getFileName().toString();
+        return YearMonth.parse(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()), FILE_MONTH);
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // Same order as MySQL compares BINARY(16) account ids
+    private static int compareUnsigned(long msb, long lsb, UUID accountId) {
+        int high = Long.compareUnsigned(msb, accountId.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(lsb, accountId.getLeastSignificantBits());
+    }
+
+    public final class SegmentWriter implements Closeable {
+
+        private final YearMonth month;
+        private final Path target;
+        private final Path temp;
+        private final int blockRows;
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexOut = new DataOutputStream(index);
+
+        private ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private DataOutputStream blockOut = new DataOutputStream(block);
+        private UUID blockAccount;
+        private long blockFirst;
+        private long blockLast;
+        private int blockCount;
+        private int entries;
+        private long rows;
+        private boolean committed;
+
+        private SegmentWriter(YearMonth month, Path target, int blockRows) throws IOException {
+            this.month = month;
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.blockRows = blockRows;
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip());
+        }
+
+        public void append(UUID accountId, TransactionHistoryDTO row) {
+            try {
+                if (blockCount == blockRows || (blockAccount != null && !blockAccount.equals(accountId))) {
+                    flushBlock();
+                }
+
+                long createdAt = micros(row.getCreatedAt());
+                if (blockCount == 0) {
+                    blockAccount = accountId;
+                    blockFirst = createdAt;
+                }
+                blockLast = createdAt;
+
+                blockOut.writeLong(row.getTransactionId().getMostSignificantBits());
+                blockOut.writeLong(row.getTransactionId().getLeastSignificantBits());
+                blockOut.writeLong(createdAt);
+                blockOut.writeUTF(row.getTransactionType().name());
+                blockOut.writeUTF(row.getOperationType().name());
+                blockOut.writeUTF(row.getTransactionStatus().name());
+                blockOut.writeUTF(row.getAmount().toPlainString());
+                blockOut.writeBoolean(row.getClosingBalance() != null);
+                if (row.getClosingBalance() != null) {
+                    blockOut.writeUTF(row.getClosingBalance().toPlainString());
+                }
+
+                blockCount++;
+                rows++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        // Durable before it becomes visible: the caller drops the source partition only after this returns
+        public long commit() {
+            try {
+                flushBlock();
+
+                long indexOffset = channel.position();
+                channel.write(ByteBuffer.wrap(index.toByteArray()));
+                channel.write(ByteBuffer.allocate(FOOTER_BYTES).putLong(indexOffset).putInt(entries).putInt(MAGIC).flip());
+                channel.force(true);
+                channel.close();
+
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                register(month, target);
+                committed = true;
+
+                log.info("Cold segment written | month={} | rows={} | blocks={} | bytes={}", month, rows, entries, Files.size(target));
+                return rows;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (blockCount == 0) {
+                return;
+            }
+
+            byte[] raw = block.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+
+            if (compressed.size() > MAX_BLOCK_BYTES || raw.length > MAX_BLOCK_BYTES) {
+                throw new IOException("Segment block of " + raw.length + " bytes is too large, lower transaction.segment.block-rows");
+            }
+
+            long offset = channel.position();
+            channel.write(ByteBuffer.wrap(compressed.toByteArray()));
+
+            indexOut.writeLong(blockAccount.getMostSignificantBits());
+            indexOut.writeLong(blockAccount.getLeastSignificantBits());
+            indexOut.writeLong(blockFirst);
+            indexOut.writeLong(blockLast);
+            indexOut.writeLong(offset);
+            indexOut.writeInt(compressed.size());
+            indexOut.writeInt(raw.length);
+            indexOut.writeInt(blockCount);
+            indexOut.writeInt(0);
+            entries++;
+
+            block = new ByteArrayOutputStream();
+            blockOut = new DataOutputStream(block);
+            blockCount = 0;
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+            if (!committed) {
+                try {
+                    channel.close();
+                    Files.deleteIfExists(temp);
+                } catch (IOException ex) {
+                    log.warn("Cold segment temp file not removed | file={}", temp, ex);
+                }
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final MappedByteBuffer[] windows;
+        private final long windowBytes;
+        private final int entries;
+        private final long indexOffset;
+
+        private Segment(MappedByteBuffer[] windows, long windowBytes, int entries, long indexOffset) {
+            this.windows = windows;
+            this.windowBytes = windowBytes;
+            this.entries = entries;
+            this.indexOffset = indexOffset;
+        }
+
+        // The mappings outlive the channel, and pages are loaded by the OS on first touch
+        static Segment open(Path file, long windowBytes) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < 8 + FOOTER_BYTES) {
+                    throw new IOException("Truncated segment " + file);
+                }
+
+                // Window i covers [i * windowBytes, (i + 1) * windowBytes + MAX_BLOCK_BYTES)
+                MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + windowBytes - 1) / windowBytes)];
+                for (int i = 0; i < windows.length; i++) {
+                    long start = i * windowBytes;
+                    windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                            Math.min(size - start, windowBytes + MAX_BLOCK_BYTES));
+                }
+
+                Segment segment = new Segment(windows, windowBytes, 0, 0);
+                long footer = size - FOOTER_BYTES;
+                long indexOffset = segment.getLong(footer);
+                int entries = segment.getInt(footer + 8);
+                if (segment.getInt(0) != MAGIC || segment.getInt(footer + 12) != MAGIC
+                        || entries < 0 || indexOffset < 8 || indexOffset + (long) entries * INDEX_ENTRY_BYTES != footer) {
+                    throw new IOException("Corrupt segment " + file);
+                }
+
+                return new Segment(windows, windowBytes, entries, indexOffset);
+            }
+        }
+
+        private ByteBuffer window(long position) {
+            return windows[(int) (position / windowBytes)];
+        }
+
+        private long getLong(long position) {
+            return window(position).getLong((int) (position % windowBytes));
+        }
+
+        private int getInt(long position) {
+            return window(position).getInt((int) (position % windowBytes));
+        }
+
+        long count(UUID accountId) {
+            long total = 0;
+            for (int entry = firstEntry(accountId); entry < entries && isAccount(entry, accountId); entry++) {
+                total += getInt(entryAt(entry) + 48);
+            }
+            return total;
+        }
+
+        // Oldest first over [from, to)
+        List<TransactionHistoryDTO> rows(UUID accountId, LocalDateTime from, LocalDateTime to) {
+            long fromMicros = from == LocalDateTime.MIN ? Long.MIN_VALUE : micros(from);
+            long toMicros = to == LocalDateTime.MAX ? Long.MAX_VALUE : micros(to);
+
+            List<TransactionHistoryDTO> rows = new ArrayList<>();
+            for (int entry = firstEntry(accountId); entry < entries && isAccount(entry, accountId); entry++) {
+                long position = entryAt(entry);
+                // An account's blocks are in time order: stop at the first one past the range
+                if (getLong(position + 16) >= toMicros) {
+                    break;
+                }
+                if (getLong(position + 24) < fromMicros) {
+                    continue;
+                }
+                readBlock(position, fromMicros, toMicros, rows);
+            }
+            return rows;
+        }
+
+        // Lower bound over the sparse index
+        private int firstEntry(UUID accountId) {
+            int low = 0;
+            int high = entries;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long position = entryAt(mid);
+                if (compareUnsigned(getLong(position), getLong(position + 8), accountId) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean isAccount(int entry, UUID accountId) {
+            long position = entryAt(entry);
+            return compareUnsigned(getLong(position), getLong(position + 8), accountId) == 0;
+        }
+
+        private long entryAt(int entry) {
+            return indexOffset + (long) entry * INDEX_ENTRY_BYTES;
+        }
+
+        private void readBlock(long position, long fromMicros, long toMicros, List<TransactionHistoryDTO> rows) {
+            long offset = getLong(position + 32);
+            int compressedLength = getInt(position + 40);
+            int rawLength = getInt(position + 44);
+            int count = getInt(position + 48);
+
+            Inflater inflater = new Inflater();
+            try {
+                if (compressedLength < 0 || compressedLength > MAX_BLOCK_BYTES || rawLength < 0 || rawLength > MAX_BLOCK_BYTES) {
+                    throw new DataFormatException("Block lengths out of range");
+                }
+                byte[] raw = new byte[rawLength];
+                inflater.setInput(window(offset).slice((int) (offset % windowBytes), compressedLength));
+                int read = 0;
+                while (read < raw.length && !inflater.finished()) {
+                    int inflated = inflater.inflate(raw, read, raw.length - read);
+                    // Truncated or garbled input would otherwise spin here forever
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new DataFormatException("Block ends before " + raw.length + " bytes were inflated");
+                    }
+                    read += inflated;
+                }
+
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+                for (int i = 0; i < count; i++) {
+                    UUID transactionId = new UUID(in.readLong(), in.readLong());
+                    long createdAt = in.readLong();
+                    TransactionType transactionType = TransactionType.valueOf(in.readUTF());
+                    OperationType operationType = OperationType.valueOf(in.readUTF());
+                    TransactionStatus status = TransactionStatus.valueOf(in.readUTF());
+                    BigDecimal amount = new BigDecimal(in.readUTF());
+                    BigDecimal closingBalance = in.readBoolean() ? new BigDecimal(in.readUTF()) : null;
+
+                    if (createdAt >= fromMicros && createdAt < toMicros) {
+                        rows.add(new TransactionHistoryDTO(transactionId, transactionType, operationType, amount,
+                                closingBalance, status, fromMicros(createdAt)));
+                    }
+                }
+            } catch (IOException | DataFormatException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+                throw new UncheckedIOException(new IOException("Corrupt segment block at " + offset, ex));
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
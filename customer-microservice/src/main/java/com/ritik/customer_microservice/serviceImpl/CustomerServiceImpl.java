@@ -202,7 +202,7 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Cacheable(
             value = "bankCustomers",
-            key = "{#bankId, #minBalance, #maxBalance, #page, #size}",
+            key = "{#bankId, #minBalance, #maxBalance, #page, #size, @cacheGenerationService.bank(#bankId)}",
             unless = "#result == null"
     )
     @Override
@@ -7,12 +7,15 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool smtpTransportPool;
 
 
     @Override
@@ -26,7 +29,11 @@ public class EmailServiceImpl implements EmailService {
             message.setSubject(subject);
             message.setText(body);
 
-            mailSender.send(message);
+            if (smtpTransportPool.enabled()) {
+                smtpTransportPool.send(message);
+            } else {
+                mailSender.send(message);
+            }
 
             log.info("Email sent successfully | to={} | subject={}", to, subject);
 
@@ -36,4 +43,29 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    // Sent back to back over one pooled session; failed messages are reported together in a MailSendException
+    @Override
+    public void sendMails(List<SimpleMailMessage> messages) {
+
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        log.info("Sending emails | count={}", messages.size());
+
+        try {
+            if (smtpTransportPool.enabled()) {
+                smtpTransportPool.send(messages);
+            } else {
+                mailSender.send(messages.toArray(SimpleMailMessage[]::new));
+            }
+
+            log.info("Emails sent successfully | count={}", messages.size());
+
+        } catch (Exception ex) {
+            log.error("Failed to send emails | count={} | reason={}", messages.size(), ex.getMessage(), ex);
+            throw ex;
+        }
+    }
+
 }
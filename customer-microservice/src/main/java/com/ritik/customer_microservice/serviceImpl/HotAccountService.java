@@ -0,0 +1,149 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.AccountNotFoundException;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.InsufficientBalanceException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.model.AccountBalanceBucket;
+import com.ritik.customer_microservice.repository.AccountBalanceBucketRepository;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotAccountService {
+
+    private final AccountRepository accountRepository;
+
+    private final AccountBalanceBucketRepository bucketRepository;
+
+    @Value("${account.hot.max-buckets:64}")
+    private int maxBuckets;
+
+    // Read from the accounts row on every call: a cached answer could send a bucketed account down the plain path
+    public boolean isHot(Long accountNum) {
+        return accountRepository.findHotAccountFlag(accountNum).orElse(false);
+    }
+
+    @Transactional
+    public Account enable(Long accountNum, int buckets) {
+        if (buckets < 1 || buckets > maxBuckets) {
+            throw new BadRequestException("Bucket count must be between 1 and " + maxBuckets);
+        }
+
+        Account account = accountRepository.lockAllByAccountNumInOrder(List.of(accountNum))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+
+        if (account.isHotAccount() && account.getBucketCount() >= buckets) {
+            log.info("Hot account already enabled | accountNum={} | buckets={}", accountNum, account.getBucketCount());
+            return account;
+        }
+
+        Set<Integer> existing = new HashSet<>(bucketRepository.findBucketNos(account.getAccountId()));
+        for (int bucketNo = 0; bucketNo < buckets; bucketNo++) {
+            if (!existing.contains(bucketNo)) {
+                AccountBalanceBucket bucket = new AccountBalanceBucket();
+                bucket.setAccountId(account.getAccountId());
+                bucket.setBucketNo(bucketNo);
+                bucketRepository.save(bucket);
+            }
+        }
+
+        account.setHotAccount(true);
+        account.setBucketCount(buckets);
+        accountRepository.save(account);
+
+        log.info("Hot account enabled | accountNum={} | buckets={}", accountNum, buckets);
+        return account;
+    }
+
+    // Read from the database rather than the entity: the accounts row is only ever changed by atomic updates
+    public BigDecimal balance(Account account) {
+        return bucketRepository.totalBalance(account.getAccountId());
+    }
+
+    // Lock order for a hot account is accounts row, then buckets, on every path. A credit takes the row in share
+    // mode, so concurrent credits still only contend when they land on the same bucket, but one queues behind a
+    // debit holding the row instead of taking a bucket the debit is about to consolidate.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Account account, BigDecimal amount) {
+        if (accountRepository.lockShared(account.getAccountNum()).isEmpty()) {
+            throw new AccountNotFoundException("Account not found");
+        }
+
+        int bucketNo = ThreadLocalRandom.current().nextInt(account.getBucketCount());
+
+        if (bucketRepository.credit(account.getAccountId(), bucketNo, amount) != 1) {
+            log.error("Balance bucket missing | accountNum={} | bucketNo={}", account.getAccountNum(), bucketNo);
+            throw new IllegalStateException("Balance bucket missing for account " + account.getAccountNum());
+        }
+
+        log.debug("Hot account credited | accountNum={} | bucketNo={} | amount={}", account.getAccountNum(), bucketNo, amount);
+    }
+
+    // Every step is a single conditional statement; the accounts row is always touched before any bucket,
+    // the same order credit() locks in
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal debit(Account account, BigDecimal amount) {
+        Optional<BigDecimal> fromAccountRow = accountRepository.debitIfSufficient(account.getAccountNum(), amount);
+        if (fromAccountRow.isPresent()) {
+            return balance(account);
+        }
+
+        int buckets = account.getBucketCount();
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        for (int i = 0; i < buckets; i++) {
+            int bucketNo = (start + i) % buckets;
+            if (bucketRepository.debitIfSufficient(account.getAccountId(), bucketNo, amount) == 1) {
+                log.debug("Hot account debited | accountNum={} | bucketNo={} | amount={}", account.getAccountNum(), bucketNo, amount);
+                return balance(account);
+            }
+        }
+
+        // No single bucket can cover it: fold every bucket back into the accounts row and debit from there
+        List<AccountBalanceBucket> locked = bucketRepository.lockAllByAccountId(account.getAccountId());
+        BigDecimal consolidated = BigDecimal.ZERO;
+        for (AccountBalanceBucket bucket : locked) {
+            consolidated = consolidated.add(bucket.getAmount());
+            bucket.setAmount(BigDecimal.ZERO);
+        }
+
+        BigDecimal total = accountRepository.credit(account.getAccountNum(), consolidated)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+
+        log.info(
+                "Hot account buckets consolidated | accountNum={} | buckets={} | consolidated={} | total={}",
+                account.getAccountNum(),
+                locked.size(),
+                consolidated,
+                total
+        );
+
+        // Buckets stay locked until commit, so nothing can land in them after this point
+        return accountRepository.debitIfSufficient(account.getAccountNum(), amount)
+                .orElseThrow(() -> {
+                    log.error(
+                            "Insufficient balance at confirmation | accountNum={} | balance={} | required={}",
+                            account.getAccountNum(),
+                            total,
+                            amount
+                    );
+                    return new InsufficientBalanceException("Insufficient balance at confirmation");
+                });
+    }
+}
@@ -0,0 +1,295 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.exception.*;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final String KEY_PREFIX = "customer-ms::idempotency::";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private static final String COMPLETED = "COMPLETED";
+
+    // The action ran, or may have, but its response could not be stored: duplicates are refused rather than executed again
+    private static final String UNRECORDED = "UNRECORDED";
+
+    // Failures raised before anything commits; any other failure may have committed, e.g. one raised by the commit itself
+    private static final List<Class<? extends RuntimeException>> ROLLED_BACK = List.of(
+            BadRequestException.class,
+            InvalidAmountException.class,
+            InsufficientBalanceException.class,
+            AccountNotFoundException.class,
+            AccountAccessDeniedException.class,
+            CustomerNotFoundException.class,
+            BankNotFoundException.class,
+            WrongPinException.class,
+            UnauthorizedException.class,
+            OtpAttemptsExceededException.class,
+            TransactionNotFoundException.class,
+            TransactionAlreadyProcessedException.class,
+            TransactionFailedException.class,
+            IdempotencyConflictException.class,
+            ServiceUnavailableException.class,
+            LedgerConflictException.class,
+            PessimisticLockingFailureException.class
+    );
+
+    // Only the request that claimed the key may release it
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    // Keeps in-progress claims alive while their action runs, however long that takes
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "idempotency-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.in-progress-ttl-seconds:30}")
+    private long inProgressTtlSeconds;
+
+    @Value("${idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    @Value("${idempotency.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    @PreDestroy
+    public void stop() {
+        renewer.shutdownNow();
+    }
+
+    // fingerprintSource must not carry secrets such as the PIN or OTP: its hash is stored alongside the response
+    public <T> T execute(
+            String email,
+            String operation,
+            String idempotencyKey,
+            Object fingerprintSource,
+            Class<T> responseType,
+            Supplier<T> action
+    ) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = KEY_PREFIX + operation + "::" + email + "::" + idempotencyKey;
+        String fingerprint = fingerprint(fingerprintSource);
+        String claim = write(new StoredResponse(IN_PROGRESS, fingerprint, UUID.randomUUID().toString(), null));
+        long deadline = System.currentTimeMillis() + waitMs;
+
+        while (true) {
+            Boolean claimed;
+            try {
+                claimed = redisTemplate.opsForValue().setIfAbsent(key, claim, Duration.ofSeconds(inProgressTtlSeconds));
+            } catch (DataAccessException ex) {
+                log.error("Idempotency store unavailable, executing without replay protection | operation={} | email={} | reason={}",
+                        operation, email, ex.getMessage());
+                return action.get();
+            }
+
+            if (Boolean.TRUE.equals(claimed)) {
+                return runAndStore(key, claim, fingerprint, action);
+            }
+
+            String stored;
+            try {
+                stored = redisTemplate.opsForValue().get(key);
+            } catch (DataAccessException ex) {
+                log.error("Idempotency store unavailable, executing without replay protection | operation={} | email={} | reason={}",
+                        operation, email, ex.getMessage());
+                return action.get();
+            }
+
+            if (stored == null) {
+                // The first attempt failed and released the key: this request takes over
+                continue;
+            }
+
+            StoredResponse record = read(stored);
+            if (!record.fingerprint().equals(fingerprint)) {
+                log.warn("Idempotency key reused with different request | operation={} | email={}", operation, email);
+                throw new BadRequestException("Idempotency-Key was already used for a different request");
+            }
+
+            if (COMPLETED.equals(record.state())) {
+                log.info("Idempotent replay | operation={} | email={} | key={}", operation, email, idempotencyKey);
+                return readBody(record.body(), responseType);
+            }
+
+            if (UNRECORDED.equals(record.state())) {
+                log.warn("Idempotent replay unavailable, response was not stored | operation={} | email={} | key={}",
+                        operation, email, idempotencyKey);
+                throw new IdempotencyConflictException(
+                        "A request with this Idempotency-Key was already processed, but its response is not available. Please check its status.");
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Idempotent duplicate timed out waiting | operation={} | email={} | key={}", operation, email, idempotencyKey);
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+            }
+
+            sleep();
+        }
+    }
+
+    private <T> T runAndStore(String key, String claim, String fingerprint, Supplier<T> action) {
+        ScheduledFuture<?> renewal = scheduleRenewal(key, claim);
+        try {
+            T response;
+            try {
+                response = action.get();
+            } catch (RuntimeException ex) {
+                if (rolledBack(ex)) {
+                    // Nothing was committed, so the client may retry the same key
+                    release(key, claim);
+                } else {
+                    log.error("Idempotent action outcome unknown | key={} | reason={}", key, ex.getMessage());
+                    markUnrecorded(key, fingerprint);
+                }
+                throw ex;
+            }
+
+            try {
+                String completed = write(new StoredResponse(COMPLETED, fingerprint, null, objectMapper.writeValueAsString(response)));
+                redisTemplate.opsForValue().set(key, completed, Duration.ofHours(ttlHours));
+            } catch (DataAccessException | JsonProcessingException ex) {
+                log.error("Idempotent response not stored | key={} | reason={}", key, ex.getMessage());
+                markUnrecorded(key, fingerprint);
+            }
+
+            return response;
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    private boolean rolledBack(RuntimeException ex) {
+        return !(ex instanceof RequestOutcomeUnknownException)
+                && ROLLED_BACK.stream().anyMatch(type -> type.isInstance(ex));
+    }
+
+    // Renews the claim at a third of its TTL, so a slow action never lets a duplicate take the key over
+    private ScheduledFuture<?> scheduleRenewal(String key, String claim) {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(inProgressTtlSeconds);
+        long periodMillis = Math.max(1, ttlMillis / 3);
+        return renewer.scheduleAtFixedRate(() -> renew(key, claim, ttlMillis), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(String key, String claim, long ttlMillis) {
+        try {
+            redisTemplate.execute(RENEW_SCRIPT, List.of(key), claim, String.valueOf(ttlMillis));
+        } catch (DataAccessException ex) {
+            log.warn("Idempotency claim renewal failed | key={} | reason={}", key, ex.getMessage());
+        }
+    }
+
+    // The action has, or may have, committed, so the key must not lapse back to claimable: keep it for the normal retention
+    private void markUnrecorded(String key, String fingerprint) {
+        try {
+            redisTemplate.opsForValue().set(key, write(new StoredResponse(UNRECORDED, fingerprint, null, null)), Duration.ofHours(ttlHours));
+        } catch (DataAccessException ex) {
+            log.error("Idempotency key left in progress, it will expire | key={} | reason={}", key, ex.getMessage());
+        }
+    }
+
+    private void release(String key, String claim) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), claim);
+        } catch (DataAccessException ex) {
+            log.error("Idempotency key release failed, it will expire | key={} | reason={}", key, ex.getMessage());
+        }
+    }
+
+    private String fingerprint(Object fingerprintSource) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(fingerprintSource).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Request fingerprint failed", ex);
+        }
+    }
+
+    private String write(StoredResponse record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Idempotency record serialization failed", ex);
+        }
+    }
+
+    private StoredResponse read(String stored) {
+        try {
+            return objectMapper.readValue(stored, StoredResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Idempotency record deserialization failed", ex);
+        }
+    }
+
+    private <T> T readBody(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Idempotent response deserialization failed", ex);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+        }
+    }
+
+    private record StoredResponse(String state, String fingerprint, String owner, String body) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.AccountNotFoundException;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.InsufficientBalanceException;
+import com.ritik.customer_microservice.exception.LedgerConflictException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.model.BalanceSnapshot;
+import com.ritik.customer_microservice.model.LedgerEntry;
+import com.ritik.customer_microservice.model.LedgerHead;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import com.ritik.customer_microservice.repository.BalanceSnapshotRepository;
+import com.ritik.customer_microservice.repository.LedgerEntryRepository;
+import com.ritik.customer_microservice.repository.LedgerHeadRepository;
+import com.ritik.customer_microservice.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerHeadRepository ledgerHeadRepository;
+
+    private BalanceSnapshot latestSnapshot(UUID accountId) {
+        return balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId)
+                .orElseGet(() -> openingSnapshot(accountId));
+    }
+
+    // First posting in ledger mode carries the pre-ledger Account.amount forward as sequence 0
+    private BalanceSnapshot openingSnapshot(UUID accountId) {
+        Account account = accountRepository.findById(accountId).orElseThrow(() -> {
+            log.warn("Ledger opening snapshot failed | reason=ACCOUNT_NOT_FOUND | accountId={}", accountId);
+            return new AccountNotFoundException("Account not found");
+        });
+
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setAccountId(accountId);
+        snapshot.setSequence(0L);
+        snapshot.setBalance(account.getAmount());
+        snapshot.setAsOf(LocalDateTime.now());
+
+        try {
+            balanceSnapshotRepository.saveAndFlush(snapshot);
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Concurrent ledger opening detected | accountId={}", accountId);
+            throw new LedgerConflictException("Concurrent update on account. Please retry.");
+        }
+
+        log.info("Ledger opened | accountId={} | openingBalance={}", accountId, snapshot.getBalance());
+        return snapshot;
+    }
+
+    // Serializes the compactor's own writers; created on first use, counting entries that predate the head
+    private LedgerHead lockHead(UUID accountId, long snapshotSequence, long lastSequence, LocalDateTime pendingSince) {
+        return ledgerHeadRepository.lockByAccountId(accountId).orElseGet(() -> {
+            LedgerHead head = new LedgerHead(accountId, snapshotSequence);
+            head.setLastSequence(lastSequence);
+            head.setPendingEntries(lastSequence - snapshotSequence);
+            head.setPendingSince(lastSequence > snapshotSequence ? pendingSince : null);
+
+            try {
+                ledgerHeadRepository.saveAndFlush(head);
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Concurrent ledger head creation detected | accountId={}", accountId);
+                throw new LedgerConflictException("Concurrent update on account. Please retry.");
+            }
+            return head;
+        });
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal post(UUID accountId, BigDecimal amount, UUID transactionId) {
+        BalanceSnapshot snapshot = latestSnapshot(accountId);
+
+        long lastSequence = ledgerEntryRepository.findLastSequence(accountId)
+                .orElse(snapshot.getSequence());
+
+        BigDecimal balance = snapshot.getBalance().add(
+                ledgerEntryRepository.sumAmountBetween(accountId, snapshot.getSequence(), lastSequence));
+        BigDecimal closingBalance = balance.add(amount);
+
+        if (closingBalance.signum() < 0) {
+            log.warn(
+                    "Ledger posting rejected | reason=INSUFFICIENT_BALANCE | accountId={} | balance={} | amount={}",
+                    accountId,
+                    balance,
+                    amount
+            );
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+
+        LedgerEntry entry = new LedgerEntry();
+        entry.setAccountId(accountId);
+        entry.setSequence(lastSequence + 1);
+        entry.setAmount(amount);
+        entry.setTransactionId(transactionId);
+
+        // (account_id, sequence) is unique: a concurrent append for the same sequence loses here
+        try {
+            ledgerEntryRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException ex) {
+            log.warn(
+                    "Ledger sequence conflict | accountId={} | sequence={} | txnId={}",
+                    accountId,
+                    entry.getSequence(),
+                    transactionId
+            );
+            throw new LedgerConflictException("Concurrent update on account. Please retry.");
+        }
+
+        log.debug(
+                "Ledger entry posted | accountId={} | sequence={} | amount={} | closingBalance={}",
+                accountId,
+                entry.getSequence(),
+                amount,
+                closingBalance
+        );
+        return closingBalance;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal currentBalance(UUID accountId) {
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId)
+                .orElse(null);
+
+        if (snapshot == null) {
+            return accountRepository.findById(accountId)
+                    .map(Account::getAmount)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        }
+
+        long lastSequence = ledgerEntryRepository.findLastSequence(accountId).orElse(snapshot.getSequence());
+
+        return snapshot.getBalance().add(
+                ledgerEntryRepository.sumAmountBetween(accountId, snapshot.getSequence(), lastSequence));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAsOf(UUID accountId, LocalDateTime asOf) {
+        BalanceSnapshot snapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndAsOfLessThanEqualOrderBySequenceDesc(accountId, asOf)
+                .orElseThrow(() -> {
+                    log.warn("Balance history not available | accountId={} | asOf={}", accountId, asOf);
+                    return new BadRequestException("Balance history not available for the requested time");
+                });
+
+        return snapshot.getBalance().add(
+                ledgerEntryRepository.sumAmountAfterSequenceUntil(accountId, snapshot.getSequence(), asOf));
+    }
+
+    @Override
+    @Transactional
+    public void rollSnapshot(UUID accountId, Long toSequence) {
+        BalanceSnapshot previous = latestSnapshot(accountId);
+
+        if (previous.getSequence() >= toSequence) {
+            log.debug("Snapshot already current | accountId={} | sequence={}", accountId, previous.getSequence());
+            return;
+        }
+
+        LedgerEntry lastEntry = ledgerEntryRepository.findByAccountIdAndSequence(accountId, toSequence)
+                .orElseThrow(() -> new BadRequestException("Ledger entry not found"));
+
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setAccountId(accountId);
+        snapshot.setSequence(toSequence);
+        snapshot.setBalance(previous.getBalance().add(
+                ledgerEntryRepository.sumAmountBetween(accountId, previous.getSequence(), toSequence)));
+        snapshot.setAsOf(lastEntry.getCreatedAt());
+
+        balanceSnapshotRepository.save(snapshot);
+
+        // Keep accounts.amount as an eventually consistent copy for reporting queries
+        accountRepository.updateAmount(accountId, snapshot.getBalance());
+
+        // After the accounts row; refreshHeads takes only the head lock, so the two cannot deadlock
+        LedgerHead head = lockHead(accountId, previous.getSequence(),
+                ledgerEntryRepository.findLastSequence(accountId).orElse(toSequence), LocalDateTime.now());
+        if (head.getSnapshotSequence() < toSequence) {
+            long pending = Math.max(0L, head.getLastSequence() - toSequence);
+            head.setSnapshotSequence(toSequence);
+            head.setPendingEntries(pending);
+            head.setPendingSince(pending > 0 ? LocalDateTime.now() : null);
+        }
+
+        log.info(
+                "Balance snapshot rolled | accountId={} | fromSequence={} | toSequence={} | balance={}",
+                accountId,
+                previous.getSequence(),
+                toSequence,
+                snapshot.getBalance()
+        );
+    }
+
+    // Postings never touch ledger_heads; this folds what they appended since :since into the watermarks
+    @Override
+    @Transactional
+    public int refreshHeads(LocalDateTime since) {
+        List<Object[]> activity = ledgerEntryRepository.findActivitySince(since);
+
+        for (Object[] row : activity) {
+            UUID accountId = (UUID) row[0];
+            long lastSequence = (Long) row[1];
+            LocalDateTime firstAppendedAt = (LocalDateTime) row[2];
+
+            long snapshotSequence = balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId)
+                    .map(BalanceSnapshot::getSequence)
+                    .orElse(0L);
+
+            LedgerHead head = lockHead(accountId, snapshotSequence, lastSequence, firstAppendedAt);
+            head.setLastSequence(Math.max(head.getLastSequence(), lastSequence));
+
+            // Sequences are dense per account, so the gap to the snapshot is the exact pending count
+            long pending = Math.max(0L, head.getLastSequence() - head.getSnapshotSequence());
+            head.setPendingEntries(pending);
+            if (pending == 0) {
+                head.setPendingSince(null);
+            } else if (head.getPendingSince() == null) {
+                head.setPendingSince(firstAppendedAt);
+            }
+        }
+
+        log.debug("Ledger heads refreshed | since={} | accounts={}", since, activity.size());
+        return activity.size();
+    }
+}
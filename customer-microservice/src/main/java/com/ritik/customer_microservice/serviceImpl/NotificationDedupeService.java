@@ -0,0 +1,150 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Remembers which notifications (transaction id + status) have already been mailed, so a record redelivered by a
+// rebalance or a partial batch failure is dropped before rendering instead of costing another SMTP send.
+// Recent keys are answered from a bounded in-process LRU; Redis holds the shared record for the TTL.
+// A Redis outage answers "not delivered": a duplicate email is preferred over a lost one.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDedupeService {
+
+    private static final String KEY_PREFIX = "customer-ms::notified::";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${notification.dedupe.enabled:true}")
+    private boolean enabled;
+
+    // Comfortably longer than any redelivery path, including the last retry tier
+    @Value("${notification.dedupe.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${notification.dedupe.local-capacity:100000}")
+    private int localCapacity;
+
+    private Map<String, Boolean> local;
+
+    @PostConstruct
+    public void init() {
+        local = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > localCapacity;
+            }
+        });
+    }
+
+    public boolean isDelivered(TransactionEvent event) {
+        return delivered(List.of(event)).get(0);
+    }
+
+    // One flag per event, in order. Local misses are resolved with a single MGET.
+    public List<Boolean> delivered(List<TransactionEvent> events) {
+
+        List<Boolean> result = new ArrayList<>(Collections.nCopies(events.size(), Boolean.FALSE));
+
+        if (!enabled || events.isEmpty()) {
+            return result;
+        }
+
+        List<String> misses = new ArrayList<>();
+        List<Integer> missIndexes = new ArrayList<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            String key = key(events.get(i));
+
+            // get() rather than containsKey(): only get() counts as an access and refreshes LRU order
+            if (local.get(key) != null) {
+                result.set(i, Boolean.TRUE);
+            } else {
+                misses.add(key);
+                missIndexes.add(i);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(misses);
+        } catch (DataAccessException ex) {
+            log.warn("Notification dedupe lookup failed, treating as undelivered | keys={} | reason={}",
+                    misses.size(), ex.getMessage());
+            return result;
+        }
+
+        // Null or empty inside a pipeline or MULTI
+        if (values == null || values.size() != misses.size()) {
+            return result;
+        }
+
+        for (int m = 0; m < misses.size(); m++) {
+            if (values.get(m) != null) {
+                local.put(misses.get(m), Boolean.TRUE);
+                result.set(missIndexes.get(m), Boolean.TRUE);
+            }
+        }
+
+        return result;
+    }
+
+    public void markDelivered(TransactionEvent event) {
+        markDelivered(List.of(event));
+    }
+
+    // Pipelined SET ... PX, one round trip for a whole digest
+    public void markDelivered(List<TransactionEvent> events) {
+
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = events.stream().map(NotificationDedupeService::key).toList();
+        keys.forEach(key -> local.put(key, Boolean.TRUE));
+
+        Expiration ttl = Expiration.from(Duration.ofHours(ttlHours));
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.stringCommands().set(
+                            key.getBytes(StandardCharsets.UTF_8),
+                            new byte[]{'1'},
+                            ttl,
+                            RedisStringCommands.SetOption.upsert()
+                    );
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Notification dedupe not recorded in Redis | keys={} | reason={}", keys.size(), ex.getMessage());
+        }
+    }
+
+    private static String key(TransactionEvent event) {
+        return KEY_PREFIX + event.getTransactionId() + "::" + event.getStatus();
+    }
+}
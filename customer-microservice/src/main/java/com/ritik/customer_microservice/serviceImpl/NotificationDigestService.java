@@ -0,0 +1,310 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Buffers transaction notifications per email address so a burst (payroll, a merchant receiving many transfers)
+// goes out as one digest per window instead of one email per event. The buffer lives in Redis so events for
+// the same customer coalesce across partitions and instances and survive a restart.
+//
+// Each customer's keys share a hash tag on the email, so customers spread over the cluster and every script
+// touches a single slot. The due and claims indexes are global and only ever updated with single-key commands;
+// the per-customer owner key, not the indexes, decides who may send a customer's events.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDigestService {
+
+    private static final String KEY_PREFIX = "customer-ms::digest::";
+    private static final String DUE_KEY = KEY_PREFIX + "due";
+    private static final String CLAIMS_KEY = KEY_PREFIX + "claims";
+
+    // KEYS: events list. ARGV: event json, ttl millis.
+    private static final DefaultRedisScript<Long> BUFFER_SCRIPT = new DefaultRedisScript<>("""
+            local size = redis.call('RPUSH', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return size
+            """, Long.class);
+
+    // KEYS: events list, processing list, owner. ARGV: flusher id, lease millis.
+    // Returns nil while another flusher owns the customer. Otherwise the buffered events move to the processing
+    // list, which also still holds anything this customer's last failed flush left behind, and it is returned.
+    // The events stay there until the digest is sent or forwarded, so a crash mid-send loses nothing.
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>("""
+            local owner = redis.call('GET', KEYS[3])
+            if owner and owner ~= ARGV[1] then
+                return false
+            end
+            local events = redis.call('LRANGE', KEYS[1], 0, -1)
+            redis.call('DEL', KEYS[1])
+            for i = 1, #events, 1000 do
+                redis.call('RPUSH', KEYS[2], unpack(events, i, math.min(i + 999, #events)))
+            end
+            local claimed = redis.call('LRANGE', KEYS[2], 0, -1)
+            if #claimed == 0 then
+                redis.call('DEL', KEYS[3])
+            else
+                redis.call('SET', KEYS[3], ARGV[1], 'PX', ARGV[2])
+            end
+            return claimed
+            """, List.class);
+
+    // KEYS: processing list, owner, events list. ARGV: flusher id.
+    // Returns how many events arrived since the drain, or -1 when another flusher has taken the customer over.
+    private static final DefaultRedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+            local owner = redis.call('GET', KEYS[2])
+            if owner and owner ~= ARGV[1] then
+                return -1
+            end
+            redis.call('DEL', KEYS[1], KEYS[2])
+            return redis.call('LLEN', KEYS[3])
+            """, Long.class);
+
+    // KEYS: processing list, owner, events list. ARGV: flusher id, ttl millis.
+    // Puts the claimed events back in the buffer and returns its size, or -1 when another flusher owns it.
+    private static final DefaultRedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>("""
+            local owner = redis.call('GET', KEYS[2])
+            if owner and owner ~= ARGV[1] then
+                return -1
+            end
+            local events = redis.call('LRANGE', KEYS[1], 0, -1)
+            redis.call('DEL', KEYS[1], KEYS[2])
+            for i = 1, #events, 1000 do
+                redis.call('RPUSH', KEYS[3], unpack(events, i, math.min(i + 999, #events)))
+            end
+            if #events > 0 then
+                redis.call('PEXPIRE', KEYS[3], ARGV[2])
+            end
+            return redis.call('LLEN', KEYS[3])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Owns the customers this instance is sending; claims in the index are "<flusherId>::<email>"
+    private final String flusherId = UUID.randomUUID().toString();
+
+    @Value("${notification.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.digest.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${notification.digest.max-events:500}")
+    private int maxEvents;
+
+    // A claim older than this belongs to a flusher that died mid-send: its owner key has expired with the same
+    // lease, and its events go back in the buffer
+    @Value("${notification.digest.claim-lease-ms:300000}")
+    private long claimLeaseMs;
+
+    public record Digest(String email, List<TransactionEvent> events) {
+    }
+
+    // Failure notices need the customer's attention now and are never held back. OTPs travel on their own
+    // topic and never reach this pipeline.
+    public boolean coalesces(TransactionEvent event) {
+        return enabled && event.getEmail() != null && event.getStatus() != TransactionStatus.FAILED;
+    }
+
+    // False when the event could not be buffered; the caller then sends it on its own
+    public boolean buffer(TransactionEvent event) {
+
+        String email = event.getEmail();
+        try {
+            Long size = redisTemplate.execute(
+                    BUFFER_SCRIPT,
+                    List.of(eventsKey(email)),
+                    objectMapper.writeValueAsString(event),
+                    String.valueOf(windowSeconds * 1000 * 10)
+            );
+
+            // After the push, so a crash in between leaves the event unacknowledged and redelivered rather than
+            // buffered with nothing to flush it. The window starts with the first event; a full buffer is due now.
+            if (size != null && size >= maxEvents) {
+                redisTemplate.opsForZSet().add(DUE_KEY, email, 0);
+            } else {
+                redisTemplate.opsForZSet().addIfAbsent(DUE_KEY, email, System.currentTimeMillis() + windowSeconds * 1000);
+            }
+
+            log.debug("Notification buffered | transactionId={} | email={} | buffered={}",
+                    event.getTransactionId(), email, size);
+            return true;
+
+        } catch (DataAccessException | JsonProcessingException ex) {
+            log.warn("Notification not buffered, sending directly | transactionId={} | reason={}",
+                    event.getTransactionId(), ex.getMessage());
+            return false;
+        }
+    }
+
+    public List<Digest> drainDue(int limit) {
+
+        requeueAbandoned();
+
+        Set<String> due;
+        try {
+            due = redisTemplate.opsForZSet().rangeByScore(DUE_KEY, 0, System.currentTimeMillis(), 0, limit);
+        } catch (DataAccessException ex) {
+            log.error("Due digests not read | reason={}", ex.getMessage());
+            return List.of();
+        }
+
+        if (due == null || due.isEmpty()) {
+            return List.of();
+        }
+
+        List<Digest> digests = new ArrayList<>(due.size());
+        for (String email : due) {
+            try {
+                Digest digest = drain(email);
+                if (digest != null) {
+                    digests.add(digest);
+                }
+            } catch (DataAccessException ex) {
+                log.error("Digest not drained | email={} | reason={}", email, ex.getMessage());
+            }
+        }
+
+        return digests;
+    }
+
+    // Indexed before the owner key is taken, so a crash between the two still leaves a claim to requeue from
+    private Digest drain(String email) {
+        String claim = claim(email);
+        redisTemplate.opsForZSet().add(CLAIMS_KEY, claim, System.currentTimeMillis());
+
+        List<?> raw = redisTemplate.execute(
+                DRAIN_SCRIPT,
+                List.of(eventsKey(email), processingKey(email), ownerKey(email)),
+                flusherId,
+                String.valueOf(claimLeaseMs)
+        );
+
+        if (raw == null) {
+            // Another flusher is still sending this customer; its due entry stays for a later flush
+            redisTemplate.opsForZSet().remove(CLAIMS_KEY, claim);
+            return null;
+        }
+
+        // Events buffered after the drain re-add the customer when this digest completes or is requeued
+        redisTemplate.opsForZSet().remove(DUE_KEY, email);
+
+        // Keyed by transaction and status: a redelivered event buffered twice appears once in the digest
+        Map<String, TransactionEvent> events = new LinkedHashMap<>();
+        for (Object json : raw) {
+            try {
+                TransactionEvent event = objectMapper.readValue((String) json, TransactionEvent.class);
+                events.putIfAbsent(event.getTransactionId() + "::" + event.getStatus(), event);
+            } catch (JsonProcessingException ex) {
+                log.error("Buffered notification unreadable, dropped | email={} | reason={}", email, ex.getMessage());
+            }
+        }
+
+        Digest digest = new Digest(email, new ArrayList<>(events.values()));
+        if (events.isEmpty()) {
+            complete(digest);
+            return null;
+        }
+        return digest;
+    }
+
+    // The digest went out or its events reached the retry topic: its processing list can go
+    public void complete(Digest digest) {
+        String email = digest.email();
+        try {
+            Long buffered = redisTemplate.execute(
+                    COMPLETE_SCRIPT,
+                    List.of(processingKey(email), ownerKey(email), eventsKey(email)),
+                    flusherId
+            );
+            release(claim(email), email, buffered, System.currentTimeMillis() + windowSeconds * 1000);
+        } catch (DataAccessException ex) {
+            // Requeued once the lease runs out, so the customer may get this digest twice
+            log.error("Digest claim not released | email={} | reason={}", email, ex.getMessage());
+        }
+    }
+
+    // Neither sent nor forwarded: back in the buffer for the next flush
+    public void requeue(Digest digest) {
+        requeue(claim(digest.email()));
+    }
+
+    private void requeueAbandoned() {
+        Set<String> abandoned;
+        try {
+            abandoned = redisTemplate.opsForZSet().rangeByScore(CLAIMS_KEY, 0, System.currentTimeMillis() - claimLeaseMs);
+        } catch (DataAccessException ex) {
+            log.error("Digest claims not read | reason={}", ex.getMessage());
+            return;
+        }
+
+        if (abandoned != null) {
+            abandoned.forEach(this::requeue);
+        }
+    }
+
+    private void requeue(String claim) {
+        int separator = claim.indexOf("::");
+        String owner = claim.substring(0, separator);
+        String email = claim.substring(separator + 2);
+        try {
+            Long buffered = redisTemplate.execute(
+                    REQUEUE_SCRIPT,
+                    List.of(processingKey(email), ownerKey(email), eventsKey(email)),
+                    owner,
+                    String.valueOf(windowSeconds * 1000 * 10)
+            );
+            release(claim, email, buffered, 0);
+            log.warn("Digest requeued | email={} | buffered={}", email, buffered);
+        } catch (DataAccessException ex) {
+            // The claim stays, so the lease brings it back on a later flush
+            log.error("Digest not requeued | email={} | reason={}", email, ex.getMessage());
+        }
+    }
+
+    // Anything still buffered gets a due entry again before the claim goes, so no customer is left unindexed
+    private void release(String claim, String email, Long buffered, long dueAt) {
+        if (buffered != null && buffered > 0) {
+            if (dueAt == 0) {
+                redisTemplate.opsForZSet().add(DUE_KEY, email, 0);
+            } else {
+                redisTemplate.opsForZSet().addIfAbsent(DUE_KEY, email, dueAt);
+            }
+        }
+        redisTemplate.opsForZSet().remove(CLAIMS_KEY, claim);
+    }
+
+    private String claim(String email) {
+        return flusherId + "::" + email;
+    }
+
+    private static String eventsKey(String email) {
+        return KEY_PREFIX + "{" + email + "}::events";
+    }
+
+    private static String processingKey(String email) {
+        return KEY_PREFIX + "{" + email + "}::processing";
+    }
+
+    private static String ownerKey(String email) {
+        return KEY_PREFIX + "{" + email + "}::owner";
+    }
+}
@@ -0,0 +1,37 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
+import com.ritik.customer_microservice.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OtpDeliveryConsumer {
+
+    private final EmailService emailService;
+
+    // Runs on its own container pool, so a backlog of transaction emails never delays an OTP
+    @KafkaListener(
+            topics = OtpDeliveryProducer.OTP_TOPIC,
+            groupId = "otp-delivery-group",
+            containerFactory = "otpListenerContainerFactory"
+    )
+    public void deliver(OtpDeliveryEvent event) {
+
+        if (event.getExpiresAt() != null && event.getExpiresAt().isBefore(Instant.now())) {
+            log.warn("OTP delivery skipped | reason=EXPIRED | transactionId={}", event.getTransactionId());
+            return;
+        }
+
+        emailService.sendMail(event.getEmail(), "OTP Verification",
+                "Your OTP is: " + event.getOtp() + " (valid for " + event.getValidityMinutes() + " minutes)");
+
+        log.info("OTP email sent successfully | email={} | transactionId={}", event.getEmail(), event.getTransactionId());
+    }
+}
@@ -0,0 +1,46 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+// OTPs skip the outbox: they are worthless after a few minutes and must not queue behind transaction events.
+// Sent after commit, so the code only goes out for a transaction that exists, and asynchronously, so the
+// request thread never waits on Kafka or the mail server.
+@Component
+@Slf4j
+public class OtpDeliveryProducer {
+
+    public static final String OTP_TOPIC = "otp-delivery";
+
+    private final KafkaTemplate<String, OtpDeliveryEvent> kafkaTemplate;
+
+    // Own producer instance with no lingering or compression, so OTPs never wait for a batch to fill
+    public OtpDeliveryProducer(ProducerFactory<String, OtpDeliveryEvent> producerFactory) {
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory, Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, 0,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "none"
+        ));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void publish(OtpDeliveryEvent event) {
+        kafkaTemplate.send(OTP_TOPIC, event.getTransactionId().toString(), event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("OTP delivery not published | transactionId={} | reason={}",
+                                event.getTransactionId(), ex.getMessage());
+                    } else {
+                        log.debug("OTP delivery published | transactionId={} | partition={}",
+                                event.getTransactionId(), result.getRecordMetadata().partition());
+                    }
+                });
+    }
+}
@@ -1,28 +1,33 @@
 package com.ritik.customer_microservice.serviceImpl;
 
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
 import com.ritik.customer_microservice.exception.BadRequestException;
 import com.ritik.customer_microservice.exception.OtpAttemptsExceededException;
 import com.ritik.customer_microservice.model.OtpVerification;
 import com.ritik.customer_microservice.repository.OtpRepository;
-import com.ritik.customer_microservice.service.EmailService;
 import com.ritik.customer_microservice.service.OtpService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Random;
 import java.util.UUID;
 
+// Database-backed store, kept for deployments without Redis (otp.store=database)
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
+@ConditionalOnProperty(name = "otp.store", havingValue = "database")
 public class OtpServiceImpl implements OtpService {
 
     private final OtpRepository otpRepository;
-    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
     private final OtpAttemptService otpAttemptService;
     private final TransactionFailureService transactionFailureService;
 
@@ -49,9 +54,11 @@ public class OtpServiceImpl implements OtpService {
 
         log.debug("OTP record created | otpId={} | expiryTime={}", verification.getId(), verification.getExpiryTime());
 
-        emailService.sendMail(email, "OTP Verification", "Your OTP is: " + otp + " (valid for 5 minutes)");
+        // Delivered by OtpDeliveryProducer once the initiating transaction commits
+        eventPublisher.publishEvent(new OtpDeliveryEvent(transactionId, email, otp, 5,
+                verification.getExpiryTime().atZone(ZoneId.systemDefault()).toInstant()));
 
-        log.info("OTP email sent successfully | email={} | transactionId={}", email, transactionId);
+        log.info("OTP delivery queued | email={} | transactionId={}", email, transactionId);
     }
 
     @Override
@@ -108,10 +115,29 @@ public class OtpServiceImpl implements OtpService {
             throw new BadRequestException("Invalid OTP");
         }
 
+        log.info("OTP verified successfully | otpId={} | transactionId={}", verification.getId(), transactionId);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void consumeOtp(String email, UUID transactionId) {
+
+        OtpVerification verification =
+                otpRepository.findByEmailAndTransactionIdAndVerifiedFalse(email, transactionId)
+                        .orElseThrow(() -> {
+                            log.warn(
+                                    "OTP consume failed - not found or already used | email={} | transactionId={}",
+                                    email,
+                                    transactionId
+                            );
+                            return new BadRequestException("OTP not found or already used");
+                        });
+
+        // Joins the caller's transaction, so a rolled-back posting leaves the code unused
         verification.setVerified(true);
         otpRepository.save(verification);
 
-        log.info("OTP verified successfully | otpId={} | transactionId={}", verification.getId(), transactionId);
-        return true;
+        log.info("OTP consumed | otpId={} | transactionId={}", verification.getId(), transactionId);
     }
 }
@@ -0,0 +1,262 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionResponseDTO;
+import com.ritik.customer_microservice.exception.LedgerConflictException;
+import com.ritik.customer_microservice.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class PostingEngine {
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AccountLockService accountLockService;
+
+    @Value("${posting.engine.enabled:false}")
+    private boolean enabled;
+
+    @Value("${posting.engine.max-batch:100}")
+    private int maxBatch;
+
+    @Value("${posting.engine.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${posting.engine.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Attempts per posting at lock timeouts, deadlocks and ledger conflicts before it is left to the recovery
+    @Value("${posting.engine.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${posting.engine.status-max-wait-ms:30000}")
+    private long statusMaxWaitMs;
+
+    private BlockingQueue<Posting> queue;
+
+    private final Map<UUID, CompletableFuture<TransactionResponseDTO>> inFlight = new ConcurrentHashMap<>();
+
+    private Thread worker;
+
+    public PostingEngine(PlatformTransactionManager transactionManager, AccountLockService accountLockService) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountLockService = accountLockService;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        worker = new Thread(this::run, "posting-engine");
+        worker.setDaemon(true);
+        worker.start();
+
+        log.info("Posting engine started | maxBatch={} | maxWaitMs={} | queueCapacity={}", maxBatch, maxWaitMs, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            log.info("Posting engine stopped | queued={}", queue.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && worker != null;
+    }
+
+    // Queued once the caller's transaction commits, so the worker never sees an uncommitted OTP verification
+    public void submit(
+            UUID transactionId,
+            Collection<Long> accountNums,
+            Supplier<TransactionResponseDTO> posting,
+            Consumer<RuntimeException> onFailure
+    ) {
+        Posting command = new Posting(
+                transactionId, List.copyOf(accountNums), posting, onFailure, new CompletableFuture<>(), 1);
+        inFlight.put(transactionId, command.result);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(command);
+                    } else {
+                        inFlight.remove(transactionId);
+                    }
+                }
+            });
+            return;
+        }
+
+        enqueue(command);
+    }
+
+    // Long-poll support: waits for a posting queued on this instance, returns immediately otherwise
+    public void awaitPosting(UUID transactionId, long waitMs) {
+        CompletableFuture<TransactionResponseDTO> result = inFlight.get(transactionId);
+        if (result == null || waitMs <= 0) {
+            return;
+        }
+
+        try {
+            result.get(Math.min(waitMs, statusMaxWaitMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.debug("Posting wait ended without result | txnId={} | reason={}", transactionId, ex.getClass().getSimpleName());
+        }
+    }
+
+    private void enqueue(Posting command) {
+        if (!queue.offer(command)) {
+            log.error("Posting queue full | txnId={} | capacity={}", command.transactionId, queueCapacity);
+            fail(command, new ServiceUnavailableException("Posting queue is full"));
+        }
+    }
+
+    private void run() {
+        List<Posting> batch = new ArrayList<>(maxBatch);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+
+                // Close the batch at maxBatch postings or maxWaitMs after the first one, whichever comes first
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatch) {
+                    Posting next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (!batch.isEmpty()) {
+                applyBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyBatch(List<Posting> batch) {
+        long startTime = System.nanoTime();
+
+        try {
+            List<TransactionResponseDTO> results = transactionTemplate.execute(status -> {
+                // Every account the batch touches is locked up front in one ordered statement
+                Set<Long> accountNums = new TreeSet<>();
+                batch.forEach(command -> accountNums.addAll(command.accountNums));
+                accountLockService.lockAccounts(accountNums);
+
+                List<TransactionResponseDTO> applied = new ArrayList<>(batch.size());
+                for (Posting command : batch) {
+                    applied.add(command.posting.get());
+                }
+                return applied;
+            });
+
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), results.get(i));
+            }
+
+            log.info(
+                    "Posting batch committed | size={} | duration={} ms",
+                    batch.size(),
+                    (System.nanoTime() - startTime) / 1_000_000
+            );
+        } catch (RuntimeException ex) {
+            log.warn("Posting batch failed, replaying individually | size={} | reason={}", batch.size(), ex.getMessage());
+
+            for (Posting command : batch) {
+                try {
+                    complete(command, transactionTemplate.execute(status -> {
+                        accountLockService.lockAccounts(command.accountNums);
+                        return command.posting.get();
+                    }));
+                } catch (PessimisticLockingFailureException | LedgerConflictException conflict) {
+                    retry(command, conflict);
+                } catch (RuntimeException single) {
+                    fail(command, single);
+                }
+            }
+        }
+    }
+
+    private void complete(Posting command, TransactionResponseDTO result) {
+        inFlight.remove(command.transactionId);
+        command.result.complete(result);
+    }
+
+    // A conflict is not the posting's fault, so it never FAILs the transaction: the posting goes round again, and
+    // once out of attempts its intent is left for recoverConfirmedPostings
+    private void retry(Posting command, RuntimeException ex) {
+        if (command.attempt < maxAttempts && queue.offer(command.nextAttempt())) {
+            log.warn(
+                    "Posting conflicted, requeued | txnId={} | attempt={} | reason={}",
+                    command.transactionId,
+                    command.attempt,
+                    ex.getMessage()
+            );
+            return;
+        }
+
+        log.warn(
+                "Posting deferred to recovery | txnId={} | attempts={} | reason={}",
+                command.transactionId,
+                command.attempt,
+                ex.getMessage()
+        );
+        inFlight.remove(command.transactionId);
+        command.result.completeExceptionally(ex);
+    }
+
+    private void fail(Posting command, RuntimeException ex) {
+        log.error("Posting failed | txnId={} | reason={}", command.transactionId, ex.getMessage());
+
+        try {
+            command.onFailure.accept(ex);
+        } catch (RuntimeException callbackFailure) {
+            log.error("Posting failure handler failed | txnId={} | reason={}", command.transactionId, callbackFailure.getMessage());
+        }
+
+        inFlight.remove(command.transactionId);
+        command.result.completeExceptionally(ex);
+    }
+
+    private record Posting(
+            UUID transactionId,
+            List<Long> accountNums,
+            Supplier<TransactionResponseDTO> posting,
+            Consumer<RuntimeException> onFailure,
+            CompletableFuture<TransactionResponseDTO> result,
+            int attempt
+    ) {
+
+        Posting nextAttempt() {
+            return new Posting(transactionId, accountNums, posting, onFailure, result, attempt + 1);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.model.Transaction;
+import com.ritik.customer_microservice.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Last N history rows per account, kept in Redis as a sorted set of transaction ids (scored by createdAt)
+ * plus a hash of id -> row JSON and the account's total row count. Rows are recorded after each commit
+ * that inserts or updates a Transaction, so the first history page never goes stale.
+ *
+ * A window is only written once it has been seeded from the database. Every posting bumps a per-account
+ * generation first, and a seed is dropped if the generation moved while its query ran, so a posting that
+ * commits between the seed's read and write cannot be lost.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecentTransactionWindow {
+
+    public static final Comparator<TransactionHistoryDTO> NEWEST_FIRST = Comparator
+            .comparing(TransactionHistoryDTO::getCreatedAt)
+            .thenComparing(row -> row.getTransactionId().toString())
+            .reversed();
+
+    private static final String KEY_PREFIX = "customer-ms::recent-tx::";
+
+    // KEYS: ids, rows, generation | ARGV: id, score, json, isNew, maxSize, ttlMs
+    // A new row is counted only if ZADD adds it: a seed that ran after the commit has already counted it
+    private static final DefaultRedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[3])
+            redis.call('PEXPIRE', KEYS[3], ARGV[6])
+            if redis.call('EXISTS', KEYS[2]) == 0 then return 0 end
+            local added = redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            if ARGV[4] == '1' and added == 1 then redis.call('HINCRBY', KEYS[2], '_total', 1) end
+            local excess = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[5])
+            if excess > 0 then
+                local old = redis.call('ZRANGE', KEYS[1], 0, excess - 1)
+                redis.call('ZREM', KEYS[1], unpack(old))
+                redis.call('HDEL', KEYS[2], unpack(old))
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[6])
+            redis.call('PEXPIRE', KEYS[2], ARGV[6])
+            return 1
+            """, Long.class);
+
+    // KEYS: ids, rows, generation | ARGV: expectedGeneration, ttlMs, total, then (id, score, json) triples
+    private static final DefaultRedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            local generation = redis.call('GET', KEYS[3]) or '0'
+            if generation ~= ARGV[1] then return 0 end
+            redis.call('DEL', KEYS[1], KEYS[2])
+            redis.call('HSET', KEYS[2], '_total', ARGV[3])
+            for i = 4, #ARGV, 3 do
+                redis.call('ZADD', KEYS[1], ARGV[i + 1], ARGV[i])
+                redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 2])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // KEYS: ids, rows | returns nil when not seeded, else total followed by row JSON
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> READ_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then return false end
+            local result = { redis.call('HGET', KEYS[2], '_total') }
+            for _, id in ipairs(redis.call('ZREVRANGE', KEYS[1], 0, -1)) do
+                result[#result + 1] = redis.call('HGET', KEYS[2], id)
+            end
+            return result
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${transaction.window.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.window.size:50}")
+    private int windowSize;
+
+    @Value("${transaction.window.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    public record WindowPage(List<TransactionHistoryDTO> rows, long total) {
+    }
+
+    public boolean covers(int pageSize) {
+        return enabled && pageSize <= windowSize;
+    }
+
+    // Empty when Redis is unavailable: callers fall back to the database
+    public Optional<WindowPage> load(Long accountNum, UUID accountId) {
+        try {
+            Optional<WindowPage> window = read(accountNum);
+            return window.isPresent() ? window : Optional.of(seed(accountNum, accountId));
+        } catch (DataAccessException ex) {
+            log.warn("Recent transaction window unavailable | accountNum={} | reason={}", accountNum, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void recordAfterCommit(Transaction transaction, boolean newRow) {
+        if (!enabled) {
+            return;
+        }
+
+        Long accountNum = transaction.getAccountNum();
+        TransactionHistoryDTO row = new TransactionHistoryDTO(
+                transaction.getTransactionId(),
+                transaction.getTransactionType(),
+                transaction.getOperationType(),
+                transaction.getAmount(),
+                transaction.getClosingBalance(),
+                transaction.getTransactionStatus(),
+                transaction.getCreatedAt()
+        );
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(accountNum, row, newRow);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(accountNum, row, newRow);
+            }
+        });
+    }
+
+    void record(Long accountNum, TransactionHistoryDTO row, boolean newRow) {
+        try {
+            redisTemplate.execute(
+                    RECORD_SCRIPT,
+                    keys(accountNum),
+                    row.getTransactionId().toString(),
+                    score(row),
+                    write(row),
+                    newRow ? "1" : "0",
+                    String.valueOf(windowSize),
+                    String.valueOf(ttlMillis())
+            );
+        } catch (DataAccessException ex) {
+            // The generation bump may not have landed either, so drop the window rather than risk serving it stale
+            log.error("Recent transaction window not updated | accountNum={} | txnId={} | reason={}",
+                    accountNum, row.getTransactionId(), ex.getMessage());
+            evict(accountNum);
+        }
+    }
+
+    private Optional<WindowPage> read(Long accountNum) {
+        List<?> result = redisTemplate.execute(READ_SCRIPT, keys(accountNum).subList(0, 2));
+
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long total = Long.parseLong((String) result.get(0));
+        List<TransactionHistoryDTO> rows = new ArrayList<>(result.size() - 1);
+        for (Object json : result.subList(1, result.size())) {
+            rows.add(readRow((String) json));
+        }
+        rows.sort(NEWEST_FIRST);
+
+        return Optional.of(new WindowPage(rows, total));
+    }
+
+    private WindowPage seed(Long accountNum, UUID accountId) {
+        String generation = redisTemplate.opsForValue().get(keys(accountNum).get(2));
+
+        List<TransactionHistoryDTO> rows =
+                transactionRepository.findHistoryFirstPage(List.of(accountId), PageRequest.of(0, windowSize));
+        long total = transactionRepository.countByAccount_AccountId(accountId);
+
+        List<String> args = new ArrayList<>(3 + rows.size() * 3);
+        args.add(generation == null ? "0" : generation);
+        args.add(String.valueOf(ttlMillis()));
+        args.add(String.valueOf(total));
+        for (TransactionHistoryDTO row : rows) {
+            args.add(row.getTransactionId().toString());
+            args.add(score(row));
+            args.add(write(row));
+        }
+
+        Long seeded = redisTemplate.execute(SEED_SCRIPT, keys(accountNum), args.toArray());
+        log.debug("Recent transaction window seeded | accountNum={} | rows={} | applied={}", accountNum, rows.size(), seeded);
+
+        return new WindowPage(rows, total);
+    }
+
+    private void evict(Long accountNum) {
+        try {
+            redisTemplate.delete(keys(accountNum));
+        } catch (DataAccessException ex) {
+            log.error("Recent transaction window not evicted | accountNum={} | reason={}", accountNum, ex.getMessage());
+        }
+    }
+
+    // Hash tag keeps an account's keys in one cluster slot for the scripts
+    private List<String> keys(Long accountNum) {
+        String base = KEY_PREFIX + "{" + accountNum + "}";
+        return List.of(base, base + "::rows", base + "::gen");
+    }
+
+    private long ttlMillis() {
+        return ttlMinutes * 60_000;
+    }
+
+    // Epoch microseconds: exact in a double and matches the DATETIME(6) precision of created_at
+    private String score(TransactionHistoryDTO row) {
+        return String.valueOf(ChronoUnit.MICROS.between(
+                Instant.EPOCH, row.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    private String write(TransactionHistoryDTO row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("History row could not be serialized", ex);
+        }
+    }
+
+    private TransactionHistoryDTO readRow(String json) {
+        try {
+            return objectMapper.readValue(json, TransactionHistoryDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("History row could not be read", ex);
+        }
+    }
+}
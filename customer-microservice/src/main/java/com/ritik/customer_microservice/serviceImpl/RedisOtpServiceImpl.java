@@ -0,0 +1,201 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.OtpAttemptsExceededException;
+import com.ritik.customer_microservice.exception.ServiceUnavailableException;
+import com.ritik.customer_microservice.service.OtpService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// OTP state lives in one Redis hash per transaction and expires with the code, so nothing is left to clean up.
+// Verification is a single script: the attempt check, the code comparison, the attempt increment and the
+// invalidation cannot interleave with a concurrent guess. A correct code is only used up by consumeOtp.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis", matchIfMissing = true)
+public class RedisOtpServiceImpl implements OtpService {
+
+    private static final String KEY_PREFIX = "customer-ms::otp::";
+
+    private static final long VERIFIED = 1;
+    private static final long NOT_FOUND = 0;
+    private static final long INVALID = -1;
+    private static final long ATTEMPTS_EXCEEDED = -2;
+
+    // ARGV: email, code, attempts, ttl millis
+    private static final DefaultRedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'email', ARGV[1], 'code', ARGV[2], 'attempts', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """, Long.class);
+
+    // ARGV: email, code, max attempts. Same rules as the database implementation: a key that already used up
+    // its attempts is rejected even for the right code. A correct code stays until consumeOtp claims it.
+    private static final DefaultRedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>("""
+            local otp = redis.call('HMGET', KEYS[1], 'email', 'code', 'attempts', 'consumed')
+            if not otp[1] or otp[1] ~= ARGV[1] or otp[4] then
+                return 0
+            end
+            if tonumber(otp[3]) >= tonumber(ARGV[3]) then
+                redis.call('DEL', KEYS[1])
+                return -2
+            end
+            if otp[2] == ARGV[2] then
+                return 1
+            end
+            redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            return -1
+            """, Long.class);
+
+    // ARGV: email. Claims the code for one transaction; the key is deleted once that transaction commits.
+    private static final DefaultRedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>("""
+            local otp = redis.call('HMGET', KEYS[1], 'email', 'consumed')
+            if not otp[1] or otp[1] ~= ARGV[1] or otp[2] then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'consumed', '1')
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${otp.validity-minutes:5}")
+    private long validityMinutes;
+
+    @Value("${otp.max-attempts:3}")
+    private int maxAttempts;
+
+    public String generateOtp() {
+        log.debug("Generating OTP");
+        return String.valueOf(random.nextInt(9000) + 1000);
+    }
+
+    @Override
+    public void sendOtp(String email, UUID transactionId) {
+
+        log.info("Sending OTP | email={} | transactionId={}", email, transactionId);
+        String otp = generateOtp();
+
+        try {
+            redisTemplate.execute(ISSUE_SCRIPT, List.of(key(transactionId)),
+                    email, otp, "0", String.valueOf(validityMinutes * 60_000));
+        } catch (DataAccessException ex) {
+            log.error("OTP not stored | transactionId={} | reason={}", transactionId, ex.getMessage());
+            throw new ServiceUnavailableException("OTP service is currently unavailable. Please try again later");
+        }
+
+        log.debug("OTP stored | transactionId={} | validityMinutes={}", transactionId, validityMinutes);
+
+        // Delivered by OtpDeliveryProducer once the initiating transaction commits
+        eventPublisher.publishEvent(new OtpDeliveryEvent(transactionId, email, otp, validityMinutes,
+                Instant.now().plus(Duration.ofMinutes(validityMinutes))));
+
+        log.info("OTP delivery queued | email={} | transactionId={}", email, transactionId);
+    }
+
+    @Override
+    public boolean verifyOtp(String email, UUID transactionId, String otp) {
+
+        log.info("Verifying OTP | email={} | transactionId={}", email, transactionId);
+
+        Long result;
+        try {
+            result = redisTemplate.execute(VERIFY_SCRIPT, List.of(key(transactionId)),
+                    email, otp == null ? "" : otp, String.valueOf(maxAttempts));
+        } catch (DataAccessException ex) {
+            log.error("OTP not verified | transactionId={} | reason={}", transactionId, ex.getMessage());
+            throw new ServiceUnavailableException("OTP service is currently unavailable. Please try again later");
+        }
+
+        long outcome = result == null ? NOT_FOUND : result;
+
+        if (outcome == VERIFIED) {
+            log.info("OTP verified successfully | transactionId={}", transactionId);
+            return true;
+        }
+
+        if (outcome == INVALID) {
+            log.warn("Invalid OTP attempt | transactionId={}", transactionId);
+            throw new BadRequestException("Invalid OTP");
+        }
+
+        if (outcome == ATTEMPTS_EXCEEDED) {
+            log.error("OTP attempts exceeded | transactionId={} | maxAttempts={}", transactionId, maxAttempts);
+            throw new OtpAttemptsExceededException("Too many invalid attempts. OTP invalidated.", transactionId, email);
+        }
+
+        // Expired keys are gone, so an expired code and a used one look the same
+        log.warn("OTP verification failed - expired, not found or already used | email={} | transactionId={}",
+                email, transactionId);
+        throw new BadRequestException("OTP expired or already used");
+    }
+
+    @Override
+    public void consumeOtp(String email, UUID transactionId) {
+
+        String key = key(transactionId);
+
+        Long claimed;
+        try {
+            claimed = redisTemplate.execute(CONSUME_SCRIPT, List.of(key), email);
+        } catch (DataAccessException ex) {
+            log.error("OTP not consumed | transactionId={} | reason={}", transactionId, ex.getMessage());
+            throw new ServiceUnavailableException("OTP service is currently unavailable. Please try again later");
+        }
+
+        if (claimed == null || claimed != VERIFIED) {
+            log.warn("OTP consume failed - expired or already used | email={} | transactionId={}", email, transactionId);
+            throw new BadRequestException("OTP expired or already used");
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(key, true);
+            return;
+        }
+
+        // A rolled-back posting hands the code back, so the customer's retry of the confirm still verifies
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(key, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void release(String key, boolean used) {
+        try {
+            if (used) {
+                redisTemplate.delete(key);
+            } else {
+                redisTemplate.opsForHash().delete(key, "consumed");
+            }
+        } catch (DataAccessException ex) {
+            // A claimed code left behind only blocks reuse until its TTL runs out
+            log.error("OTP release failed | key={} | used={} | reason={}", key, used, ex.getMessage());
+        }
+    }
+
+    private String key(UUID transactionId) {
+        return KEY_PREFIX + transactionId;
+    }
+}
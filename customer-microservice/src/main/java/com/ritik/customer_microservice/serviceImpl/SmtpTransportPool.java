@@ -0,0 +1,256 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Keeps up to pool-size connected (and, when configured, STARTTLS'd and authenticated) SMTP sessions open, so a
+// message costs one MAIL/RCPT/DATA exchange instead of a new connection and handshake. JavaMailSenderImpl opens
+// and closes a transport on every send call.
+@Slf4j
+@Service
+public class SmtpTransportPool {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${mail.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mail.pool.size:4}")
+    private int poolSize;
+
+    @Value("${mail.pool.borrow-timeout-ms:5000}")
+    private long borrowTimeoutMs;
+
+    // A session idle longer than this is probed with NOOP before use; servers drop idle clients after a while
+    @Value("${mail.pool.validate-after-idle-ms:30000}")
+    private long validateAfterIdleMs;
+
+    private final BlockingQueue<PooledTransport> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public SmtpTransportPool(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled()) {
+            log.info("SMTP transport pool ready | size={} | host={}", poolSize, sender().getHost());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        closed = true;
+
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // Only JavaMailSenderImpl exposes the session and credentials needed to hold connections open
+    public boolean enabled() {
+        return enabled && mailSender instanceof JavaMailSenderImpl;
+    }
+
+    public void send(SimpleMailMessage message) {
+        send(List.of(message));
+    }
+
+    // All messages go over one session, back to back. Failures are collected per message rather than aborting
+    // the rest, and reported together the way JavaMailSenderImpl does.
+    public void send(List<SimpleMailMessage> messages) {
+
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        PooledTransport pooled = borrow();
+
+        try {
+            for (SimpleMailMessage message : messages) {
+                try {
+                    MimeMessage mime = toMime(message);
+
+                    // Left empty by a failed reconnect on the previous message
+                    if (pooled == null) {
+                        pooled = connect();
+                    }
+
+                    try {
+                        pooled.transport.sendMessage(mime, mime.getAllRecipients());
+
+                    } catch (MessagingException ex) {
+                        // Rejected addresses on a live session: retrying will not help. Angus also reports a dropped
+                        // connection as SendFailedException, hence the liveness check.
+                        if (ex instanceof SendFailedException && pooled.transport.isConnected()) {
+                            throw ex;
+                        }
+
+                        // On a reused session this is usually the server having dropped it; retried once on a new one
+                        log.warn("SMTP send failed on pooled session, reconnecting | reason={}", ex.getMessage());
+                        discard(pooled);
+                        pooled = null;
+
+                        pooled = connect();
+                        try {
+                            pooled.transport.sendMessage(mime, mime.getAllRecipients());
+                        } catch (MessagingException retryEx) {
+                            pooled.broken = !(retryEx instanceof SendFailedException && pooled.transport.isConnected());
+                            throw retryEx;
+                        }
+                    }
+
+                } catch (MessagingException ex) {
+                    failures.put(message, ex);
+                }
+            }
+        } finally {
+            release(pooled);
+        }
+
+        if (!failures.isEmpty()) {
+            throw new MailSendException(failures);
+        }
+    }
+
+    private PooledTransport borrow() {
+
+        PooledTransport pooled = idle.poll();
+
+        if (pooled == null && open.incrementAndGet() <= poolSize) {
+            try {
+                return connectCounted();
+            } catch (MessagingException ex) {
+                open.decrementAndGet();
+                throw new MailSendException("Could not open SMTP session", ex);
+            }
+        }
+
+        if (pooled == null) {
+            open.decrementAndGet();
+            try {
+                pooled = idle.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Interrupted while waiting for an SMTP session", ex);
+            }
+            if (pooled == null) {
+                throw new MailSendException("No SMTP session available within " + borrowTimeoutMs + " ms");
+            }
+        }
+
+        if (System.currentTimeMillis() - pooled.lastUsed > validateAfterIdleMs && !pooled.transport.isConnected()) {
+            log.info("Pooled SMTP session went stale, reconnecting");
+            discard(pooled);
+            try {
+                pooled = connect();
+            } catch (MessagingException ex) {
+                throw new MailSendException("Could not reopen SMTP session", ex);
+            }
+        }
+
+        return pooled;
+    }
+
+    private void release(PooledTransport pooled) {
+        if (pooled == null) {
+            return;
+        }
+
+        // State is tracked locally; isConnected() would cost a NOOP round trip on every send. Liveness is
+        // probed in borrow() only after the idle threshold.
+        if (closed || pooled.broken) {
+            discard(pooled);
+            return;
+        }
+
+        pooled.lastUsed = System.currentTimeMillis();
+        idle.offer(pooled);
+    }
+
+    // Replaces a discarded session without changing the open count
+    private PooledTransport connect() throws MessagingException {
+        open.incrementAndGet();
+        try {
+            return connectCounted();
+        } catch (MessagingException ex) {
+            open.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    private PooledTransport connectCounted() throws MessagingException {
+        JavaMailSenderImpl sender = sender();
+
+        Session session = sender.getSession();
+
+        // Resolved the same way JavaMailSenderImpl does
+        String protocol = sender.getProtocol();
+        if (protocol == null) {
+            protocol = session.getProperty("mail.transport.protocol");
+        }
+        if (protocol == null) {
+            protocol = JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        }
+
+        Transport transport = session.getTransport(protocol);
+        transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+
+        log.debug("SMTP session opened | host={} | open={}", sender.getHost(), open.get());
+
+        return new PooledTransport(transport);
+    }
+
+    private void discard(PooledTransport pooled) {
+        open.decrementAndGet();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException ex) {
+            log.debug("Ignoring error while closing SMTP session | reason={}", ex.getMessage());
+        }
+    }
+
+    private MimeMessage toMime(SimpleMailMessage message) throws MessagingException {
+        MimeMessage mime = sender().createMimeMessage();
+        message.copyTo(new MimeMailMessage(mime));
+        mime.saveChanges();
+        return mime;
+    }
+
+    private JavaMailSenderImpl sender() {
+        return (JavaMailSenderImpl) mailSender;
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean broken;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.enums.StatementFormat;
+import com.ritik.customer_microservice.exception.AccountNotFoundException;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.CustomerNotFoundException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.model.Customer;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import com.ritik.customer_microservice.repository.CustomerRepository;
+import com.ritik.customer_microservice.repository.TransactionArchiveRepository;
+import com.ritik.customer_microservice.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementExportService {
+
+    private static final String CSV_HEADER =
+            "transactionId,createdAt,transactionType,operationType,amount,closingBalance,transactionStatus";
+
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionArchiveService transactionArchiveService;
+    private final ColdSegmentStore coldSegmentStore;
+    private final ObjectMapper objectMapper;
+
+    @Value("${statement.export.max-range-days:366}")
+    private long maxRangeDays;
+
+    @Value("${statement.export.flush-every:500}")
+    private int flushEvery;
+
+    // Validated before the response is committed so errors still come back as JSON
+    public UUID resolveAccountId(String email, Long accountNum, LocalDate from, LocalDate to) {
+
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Statement start date must not be after end date");
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new BadRequestException("Statement range must not exceed " + maxRangeDays + " days");
+        }
+
+        Customer customer = customerRepository.findByEmail(email).orElseThrow(() -> {
+            log.warn("Customer not found | email={}", email);
+            return new CustomerNotFoundException("Customer not found");
+        });
+
+        Account account = accountRepository.findByAccountNumAndCustomer_CustomerId(accountNum, customer.getCustomerId())
+                .orElseThrow(() -> {
+                    log.warn("Account not found | accountNum={} | customerId={}", accountNum, customer.getCustomerId());
+                    return new AccountNotFoundException("Account not found");
+                });
+
+        return account.getAccountId();
+    }
+
+    @Transactional(readOnly = true)
+    public long writeStatement(UUID accountId, LocalDate from, LocalDate to, StatementFormat format, OutputStream out) {
+
+        long startTime = System.currentTimeMillis();
+        long rows = 0;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        try (Stream<TransactionHistoryDTO> statement = openStatement(accountId, from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            if (format == StatementFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            Iterator<TransactionHistoryDTO> iterator = statement.iterator();
+            while (iterator.hasNext()) {
+                TransactionHistoryDTO row = iterator.next();
+
+                if (format == StatementFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+
+                // Push bytes to the client as we go so neither side holds the whole statement
+                if (++rows % flushEvery == 0) {
+                    writer.flush();
+                }
+            }
+
+            writer.flush();
+        } catch (IOException ex) {
+            log.warn("Statement export aborted | accountId={} | rowsWritten={}", accountId, rows, ex);
+            throw new UncheckedIOException(ex);
+        }
+
+        log.info(
+                "Statement exported | accountId={} | from={} | to={} | format={} | rows={} | duration={} ms",
+                accountId,
+                from,
+                to,
+                format,
+                rows,
+                System.currentTimeMillis() - startTime
+        );
+
+        return rows;
+    }
+
+    // Ranges reaching before the hot tier also read the archive table and cold segments. Archival moves a
+    // contiguous oldest-first run of months, so every archived row is older than every month left in
+    // `transactions`, except the month being moved, which is briefly in both. The cold sources are read and
+    // closed before the hot cursor opens: each is a streaming result set, and Connector/J allows one open per
+    // connection. Hot rows not after the last cold row are the copies of that month and are skipped.
+    private Stream<TransactionHistoryDTO> openStatement(UUID accountId, LocalDateTime from, LocalDateTime to) {
+
+        LocalDateTime hotTierStart = transactionArchiveService.hotTierStart();
+        if (!from.isBefore(hotTierStart)) {
+            return transactionRepository.streamStatement(accountId, from, to);
+        }
+
+        LocalDateTime coldTo = to.isBefore(hotTierStart) ? to : hotTierStart;
+
+        // Segment files are not database cursors, so they can be merged with the archive cursor
+        Stream<TransactionHistoryDTO> segments = coldSegmentStore.statement(accountId, from, coldTo);
+        Stream<TransactionHistoryDTO> cold = merge(
+                segments, transactionArchiveRepository.streamStatement(accountId, from, coldTo));
+
+        TieredIterator tiered = new TieredIterator(
+                cold, () -> transactionRepository.streamStatement(accountId, from, to));
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tiered, Spliterator.ORDERED), false)
+                .onClose(tiered::close);
+    }
+
+    private static Stream<TransactionHistoryDTO> merge(Stream<TransactionHistoryDTO> left, Stream<TransactionHistoryDTO> right) {
+        Iterator<TransactionHistoryDTO> merged = new MergingIterator(left.iterator(), right.iterator());
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(left::close)
+                .onClose(right::close);
+    }
+
+    // Same order as MySQL's ORDER BY created_at, transaction_id: BINARY(16) ids compare as unsigned bytes
+    private static final Comparator<TransactionHistoryDTO> OLDEST_FIRST = Comparator
+            .comparing(TransactionHistoryDTO::getCreatedAt)
+            .thenComparing(TransactionHistoryDTO::getTransactionId, StatementExportService::compareUnsigned);
+
+    private static int compareUnsigned(UUID left, UUID right) {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private void writeCsv(Writer writer, TransactionHistoryDTO row) throws IOException {
+        // Every column is an id, enum, number or timestamp, so no quoting is needed
+        writer.write(String.valueOf(row.getTransactionId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getCreatedAt()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getTransactionType()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getOperationType()));
+        writer.write(',');
+        writer.write(row.getAmount() == null ? "" : row.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(row.getClosingBalance() == null ? "" : row.getClosingBalance().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(row.getTransactionStatus()));
+        writer.write('\n');
+    }
+
+    private static final class MergingIterator implements Iterator<TransactionHistoryDTO> {
+
+        private final Iterator<TransactionHistoryDTO> left;
+        private final Iterator<TransactionHistoryDTO> right;
+        private TransactionHistoryDTO nextLeft;
+        private TransactionHistoryDTO nextRight;
+
+        private MergingIterator(Iterator<TransactionHistoryDTO> left, Iterator<TransactionHistoryDTO> right) {
+            this.left = left;
+            this.right = right;
+            this.nextLeft = left.hasNext() ? left.next() : null;
+            this.nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLeft != null || nextRight != null;
+        }
+
+        @Override
+        public TransactionHistoryDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (nextRight == null) {
+                return advanceLeft();
+            }
+            if (nextLeft == null) {
+                return advanceRight();
+            }
+
+            if (nextLeft.getTransactionId().equals(nextRight.getTransactionId())) {
+                advanceRight();
+                return advanceLeft();
+            }
+
+            return OLDEST_FIRST.compare(nextLeft, nextRight) <= 0 ? advanceLeft() : advanceRight();
+        }
+
+        private TransactionHistoryDTO advanceLeft() {
+            TransactionHistoryDTO current = nextLeft;
+            nextLeft = left.hasNext() ? left.next() : null;
+            return current;
+        }
+
+        private TransactionHistoryDTO advanceRight() {
+            TransactionHistoryDTO current = nextRight;
+            nextRight = right.hasNext() ? right.next() : null;
+            return current;
+        }
+    }
+
+    // Drains and closes the cold stream, then opens the hot one
+    private static final class TieredIterator implements Iterator<TransactionHistoryDTO> {
+
+        private final Stream<TransactionHistoryDTO> cold;
+        private final Iterator<TransactionHistoryDTO> coldRows;
+        private final Supplier<Stream<TransactionHistoryDTO>> hotOpener;
+        private Stream<TransactionHistoryDTO> hot;
+        private Iterator<TransactionHistoryDTO> hotRows;
+        private TransactionHistoryDTO lastCold;
+        private TransactionHistoryDTO next;
+
+        private TieredIterator(Stream<TransactionHistoryDTO> cold, Supplier<Stream<TransactionHistoryDTO>> hotOpener) {
+            this.cold = cold;
+            this.coldRows = cold.iterator();
+            this.hotOpener = hotOpener;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            if (hotRows == null) {
+                if (coldRows.hasNext()) {
+                    next = coldRows.next();
+                    lastCold = next;
+                    return true;
+                }
+
+                cold.close();
+                hot = hotOpener.get();
+                hotRows = hot.iterator();
+            }
+
+            while (hotRows.hasNext()) {
+                TransactionHistoryDTO row = hotRows.next();
+                if (lastCold == null || OLDEST_FIRST.compare(row, lastCold) > 0) {
+                    next = row;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public TransactionHistoryDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TransactionHistoryDTO current = next;
+            next = null;
+            return current;
+        }
+
+        private void close() {
+            cold.close();
+            if (hot != null) {
+                hot.close();
+            }
+        }
+    }
+}
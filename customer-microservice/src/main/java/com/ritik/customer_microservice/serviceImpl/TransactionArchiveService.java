@@ -0,0 +1,267 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Keeps `transactions` range-partitioned by month on created_at and moves months older than the hot tier into
+// the compressed `transactions_archive` table, or into cold segment files when those are enabled. Everything here is MySQL DDL run by TransactionPartitionMaintainer.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+
+    static final String TABLE = "transactions";
+    static final String ARCHIVE_TABLE = "transactions_archive";
+    static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    // Explicit list: the archive is created from ArchivedTransaction, so its column order may differ
+    private static final String COLUMNS = "transaction_id, account_id, account_num, bank_id, transaction_type, "
+            + "operation_type, amount, closing_balance, transaction_status, transaction_reference_id, "
+            + "counterparty_account_num, created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ColdSegmentStore coldSegmentStore;
+
+    @Value("${transaction.partition.hot-months:12}")
+    private int hotMonths;
+
+    @Value("${transaction.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${transaction.archive.key-block-size:8}")
+    private int keyBlockSize;
+
+    // Converting a table that already holds rows is a full table copy (ALTER ... PARTITION BY) that blocks
+    // postings for its duration, so it only runs when explicitly allowed, in a maintenance window
+    @Value("${transaction.partition.migrate-existing:false}")
+    private boolean migrateExisting;
+
+    // Rows at or after this instant are never archived; history reads are bounded by it
+    public LocalDateTime hotTierStart() {
+        return YearMonth.now().minusMonths(hotMonths).atDay(1).atStartOfDay();
+    }
+
+    public boolean isPartitioned() {
+        return !partitionNames(TABLE).isEmpty();
+    }
+
+    // One-off conversion of a table created unpartitioned (fresh schema or pre-partitioning data).
+    // MySQL requires the partition key in every unique key, so the primary key becomes (transaction_id, created_at).
+    // On an empty table this is instant. On a populated one MySQL rebuilds the whole table and holds a lock that
+    // blocks inserts and updates until it finishes (minutes per tens of millions of rows), so it is skipped
+    // unless transaction.partition.migrate-existing is set.
+    public boolean ensurePartitioned() {
+
+        if (isPartitioned()) {
+            return false;
+        }
+
+        Boolean populated = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + TABLE + ")", Boolean.class);
+        if (Boolean.TRUE.equals(populated) && !migrateExisting) {
+            log.warn("Transactions table not partitioned | reason=HAS_ROWS | "
+                    + "set transaction.partition.migrate-existing=true during a maintenance window to convert it");
+            return false;
+        }
+
+        List<String> foreignKeys = jdbcTemplate.queryForList("""
+                SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+                WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = ?
+                """, String.class, TABLE);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY `" + foreignKey + "`");
+        }
+
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM " + TABLE, LocalDateTime.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest);
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(lastPlannedMonth()); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add(maxDefinition());
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE
+                + " DROP PRIMARY KEY, ADD PRIMARY KEY (transaction_id, created_at)"
+                + " PARTITION BY RANGE COLUMNS(created_at) (" + String.join(", ", definitions) + ")");
+
+        log.info("Transactions table partitioned | firstMonth={} | partitions={}", first, definitions.size());
+        return true;
+    }
+
+    // pmax stays empty as long as we keep ahead of the clock, so splitting it moves no rows
+    public int addFuturePartitions() {
+
+        YearMonth newest = partitionNames(TABLE).stream()
+                .filter(name -> !MAX_PARTITION.equals(name))
+                .map(TransactionArchiveService::monthOf)
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.now().minusMonths(1));
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = newest.plusMonths(1); !month.isAfter(lastPlannedMonth()); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+
+        if (definitions.isEmpty()) {
+            return 0;
+        }
+
+        definitions.add(maxDefinition());
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+
+        log.info("Transaction partitions added | count={} | through={}", definitions.size() - 1, lastPlannedMonth());
+        return definitions.size() - 1;
+    }
+
+    // Oldest first, stopping at the first month that cannot go yet so the archive always covers a contiguous prefix.
+    // Copy-then-drop: a crash in between leaves the month in both tables, and INSERT IGNORE makes the retry safe.
+    public int archiveClosedPartitions() {
+
+        ensureArchiveCompressed();
+
+        YearMonth hotStart = YearMonth.from(hotTierStart());
+        int archived = 0;
+
+        for (String partition : partitionNames(TABLE)) {
+            if (MAX_PARTITION.equals(partition) || !monthOf(partition).isBefore(hotStart)) {
+                break;
+            }
+
+            Long pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + TABLE + " PARTITION (" + partition + ") WHERE transaction_status = ?",
+                    Long.class,
+                    TransactionStatus.PENDING.name()
+            );
+            if (pending != null && pending > 0) {
+                log.warn("Transaction partition not archived | partition={} | reason=PENDING_ROWS | pending={}", partition, pending);
+                break;
+            }
+
+            long startTime = System.currentTimeMillis();
+            long copied;
+
+            if (coldSegmentStore.enabled()) {
+                YearMonth month = monthOf(partition);
+                copied = coldSegmentStore.contains(month) ? 0 : writeSegment(partition);
+
+                // The partition goes in a later run, once every instance has rescanned the shared directory;
+                // until then readers keep serving the month from MySQL
+                if (!coldSegmentStore.visibleToAllReaders(month)) {
+                    log.info("Transaction partition kept until its segment is visible | partition={} | rows={}",
+                            partition, copied);
+                    break;
+                }
+            } else {
+                copied = jdbcTemplate.update("INSERT IGNORE INTO " + ARCHIVE_TABLE + " (" + COLUMNS + ") SELECT "
+                        + COLUMNS + " FROM " + TABLE + " PARTITION (" + partition + ")");
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+            archived++;
+
+            log.info(
+                    "Transaction partition archived | partition={} | rows={} | duration={} ms",
+                    partition,
+                    copied,
+                    System.currentTimeMillis() - startTime
+            );
+        }
+
+        return archived;
+    }
+
+    // Streams the partition in segment order straight into a cold segment file; rewriting after a crash is
+    // harmless because the partition is only dropped once the file is durable and visible to every instance
+    private long writeSegment(String partition) {
+        try (ColdSegmentStore.SegmentWriter writer = coldSegmentStore.writer(monthOf(partition))) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT " + COLUMNS + " FROM " + TABLE + " PARTITION (" + partition + ")"
+                                + " ORDER BY account_id, created_at, transaction_id",
+                        ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY
+                );
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (RowCallbackHandler) rs -> writer.append(uuid(rs.getBytes("account_id")), new TransactionHistoryDTO(
+                    uuid(rs.getBytes("transaction_id")),
+                    TransactionType.valueOf(rs.getString("transaction_type")),
+                    OperationType.valueOf(rs.getString("operation_type")),
+                    rs.getBigDecimal("amount"),
+                    rs.getBigDecimal("closing_balance"),
+                    TransactionStatus.valueOf(rs.getString("transaction_status")),
+                    rs.getObject("created_at", LocalDateTime.class)
+            )));
+            return writer.commit();
+        }
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private void ensureArchiveCompressed() {
+        List<String> rowFormat = jdbcTemplate.queryForList("""
+                SELECT ROW_FORMAT FROM information_schema.TABLES
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?
+                """, String.class, ARCHIVE_TABLE);
+
+        if (!rowFormat.isEmpty() && !"Compressed".equalsIgnoreCase(rowFormat.get(0))) {
+            jdbcTemplate.execute("ALTER TABLE " + ARCHIVE_TABLE
+                    + " ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=" + keyBlockSize);
+            log.info("Transaction archive compressed | keyBlockSize={}", keyBlockSize);
+        }
+    }
+
+    private List<String> partitionNames(String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """, String.class, table);
+    }
+
+    private YearMonth lastPlannedMonth() {
+        return YearMonth.now().plusMonths(monthsAhead);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month);
+    }
+
+    static YearMonth monthOf(String partitionName) {
+        return YearMonth.parse(partitionName, PARTITION_NAME);
+    }
+
+    private static String definition(YearMonth month) {
+        return "PARTITION " + partitionName(month)
+                + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+
+    private static String maxDefinition() {
+        return "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)";
+    }
+}
@@ -2,58 +2,229 @@ package com.ritik.customer_microservice.serviceImpl;
 
 import com.ritik.customer_microservice.dto.event.TransactionEvent;
 import com.ritik.customer_microservice.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionConsumerImpl {
 
+    public static final String SUBJECT = "Transaction Update";
+
     private final EmailService emailService;
     private final TransactionEmailTemplateService emailTemplateService;
+    private final NotificationDigestService notificationDigestService;
+    private final NotificationDedupeService notificationDedupeService;
+    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Shared by every listener thread; bounds the number of concurrent SMTP sends for the instance
+    @Value("${transaction.notification.email-threads:8}")
+    private int emailThreads;
+
+    @Value("${transaction.notification.email-queue:500}")
+    private int emailQueue;
+
+    @Value("${transaction.notification.batch-timeout-ms:60000}")
+    private long batchTimeoutMs;
+
+    private ThreadPoolExecutor emailExecutor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+
+        // A full queue runs the send on the listener thread, which slows polling instead of dropping mail
+        emailExecutor = new ThreadPoolExecutor(
+                emailThreads,
+                emailThreads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(emailQueue),
+                task -> {
+                    Thread thread = new Thread(task, "transaction-email-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (emailExecutor != null) {
+            emailExecutor.shutdown();
+        }
+    }
 
     @KafkaListener(
-            topics = "transaction-events",
-            groupId = "transaction-email-group"
+            topics = TransactionProducerImpl.TRANSACTION_TOPIC,
+            groupId = "transaction-email-group",
+            containerFactory = "transactionBatchListenerContainerFactory"
     )
     public void transactionConsumer(
-            TransactionEvent event,
+            List<TransactionEvent> events,
             Acknowledgment acknowledgment
     ) {
 
-        log.info(
-                "Transaction event received | transactionId={} | operation={} | status={} | email={}",
-                event.getTransactionId(),
-                event.getOperationType(),
-                event.getStatus(),
-                event.getEmail()
-        );
+        long startTime = System.currentTimeMillis();
 
-        try {
-            String subject = "Transaction Update";
+        log.info("Transaction event batch received | size={}", events.size());
 
-            String body = emailTemplateService.buildEmailBody(event);
+        // Redelivered after a rebalance or a partial failure: already mailed, nothing to render or send
+        List<Boolean> delivered = notificationDedupeService.delivered(events);
+        int duplicates = 0;
 
-            emailService.sendMail(event.getEmail(), subject, body);
-            acknowledgment.acknowledge();
+        // Set when the batch gives up on its sends: queued ones that have not started yet then never mail, since
+        // their records are redelivered
+        AtomicBoolean abandoned = new AtomicBoolean();
 
-            log.info("Transaction email sent & offset acknowledged | transactionId={}", event.getTransactionId());
+        List<CompletableFuture<Void>> sends = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            TransactionEvent event = events.get(i);
 
-        } catch (Exception ex) {
+            if (delivered.get(i)) {
+                sends.add(CompletableFuture.completedFuture(null));
+                duplicates++;
+                continue;
+            }
 
-            log.error(
-                    "Failed to process transaction event | transactionId={} | reason={}",
-                    event.getTransactionId(),
-                    ex.getMessage(),
-                    ex
-            );
+            sends.add(CompletableFuture.runAsync(() -> {
+                if (!abandoned.get()) {
+                    send(event);
+                }
+            }, emailExecutor));
+        }
 
-            throw ex;
+        if (duplicates > 0) {
+            meterRegistry.counter("notification.dedupe.skipped").increment(duplicates);
         }
+
+        long deadline = startTime + batchTimeoutMs;
+
+        // A failed email goes to the retry topic instead of blocking the partition on redelivery. A send still
+        // running at the deadline has not failed and may yet mail, so it is never forwarded: the batch is
+        // redelivered from there, and the dedupe check skips whatever finished mailing in the meantime.
+        List<CompletableFuture<?>> forwards = new ArrayList<>();
+        List<Integer> forwardedIndexes = new ArrayList<>();
+        int redeliverFrom = -1;
+
+        for (int i = 0; i < sends.size(); i++) {
+            TransactionEvent event = events.get(i);
+
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+
+            } catch (InterruptedException ex) {
+                abandoned.set(true);
+                Thread.currentThread().interrupt();
+                throw new BatchListenerFailedException("Interrupted while sending transaction emails", ex, i);
+
+            } catch (TimeoutException ex) {
+                abandoned.set(true);
+                redeliverFrom = i;
+
+                log.warn(
+                        "Transaction email batch timed out, redelivering | transactionId={} | batchIndex={} | timeoutMs={}",
+                        event.getTransactionId(),
+                        i,
+                        batchTimeoutMs
+                );
+                break;
+
+            } catch (ExecutionException ex) {
+                log.warn(
+                        "Transaction email failed, forwarding to retry topic | transactionId={} | batchIndex={} | reason={}",
+                        event.getTransactionId(),
+                        i,
+                        ex.getCause().getMessage()
+                );
+
+                forwards.add(kafkaTemplate.send(
+                        TransactionEmailRetryConsumer.RETRY_TOPIC,
+                        event.getTransactionId().toString(),
+                        event
+                ));
+                forwardedIndexes.add(i);
+            }
+        }
+
+        // Only a broker failure blocks: the batch is redelivered from the first record that could not be forwarded
+        long forwardDeadline = System.currentTimeMillis() + batchTimeoutMs;
+
+        for (int f = 0; f < forwards.size(); f++) {
+            int index = forwardedIndexes.get(f);
+
+            try {
+                forwards.get(f).get(Math.max(0, forwardDeadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new BatchListenerFailedException("Interrupted while forwarding to retry topic", ex, index);
+            } catch (ExecutionException | TimeoutException ex) {
+                throw new BatchListenerFailedException("Could not forward transaction email to retry topic", ex, index);
+            }
+        }
+
+        if (!forwards.isEmpty()) {
+            meterRegistry.counter("notification.retry.forwarded").increment(forwards.size());
+        }
+
+        // Records before the index are committed by the error handler, so every forward above had to land first
+        if (redeliverFrom >= 0) {
+            meterRegistry.counter("notification.batch.timeout").increment();
+            throw new BatchListenerFailedException("Transaction emails still sending at batch timeout", redeliverFrom);
+        }
+
+        acknowledgment.acknowledge();
+
+        log.info(
+                "Transaction email batch acknowledged | size={} | duplicates={} | forwarded={} | duration={} ms",
+                events.size(),
+                duplicates,
+                forwards.size(),
+                System.currentTimeMillis() - startTime
+        );
     }
-}
 
+    private void send(TransactionEvent event) {
+
+        // Sent later as part of the customer's digest by NotificationDigestFlusher
+        if (notificationDigestService.coalesces(event) && notificationDigestService.buffer(event)) {
+            return;
+        }
+
+        log.debug(
+                "Sending transaction email | transactionId={} | operation={} | status={} | email={}",
+                event.getTransactionId(),
+                event.getOperationType(),
+                event.getStatus(),
+                event.getEmail()
+        );
+
+        String body = emailTemplateService.buildEmailBody(event);
+
+        emailService.sendMail(event.getEmail(), SUBJECT, body);
+        notificationDedupeService.markDelivered(event);
+    }
+}
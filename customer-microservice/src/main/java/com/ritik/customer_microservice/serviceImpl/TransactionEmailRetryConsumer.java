@@ -0,0 +1,93 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.mail.MailParseException;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+
+// Second chance for transaction emails the batch listener could not send. Failures here move through
+// transaction-email-retry-retry-0..n with exponentially growing delays and end on transaction-email-retry-dlt,
+// so a bad address or an SMTP outage never holds up a partition of transaction-events.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionEmailRetryConsumer {
+
+    public static final String RETRY_TOPIC = "transaction-email-retry";
+
+    private final EmailService emailService;
+    private final TransactionEmailTemplateService emailTemplateService;
+    private final NotificationDedupeService notificationDedupeService;
+    private final MeterRegistry meterRegistry;
+
+    // A malformed message will never go out, so it skips the remaining tiers
+    @RetryableTopic(
+            attempts = "${transaction.notification.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${transaction.notification.retry.delay-ms:10000}",
+                    multiplierExpression = "${transaction.notification.retry.multiplier:3}",
+                    maxDelayExpression = "${transaction.notification.retry.max-delay-ms:600000}"
+            ),
+            numPartitions = "${transaction.notification.retry.partitions:3}",
+            replicationFactor = "1",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            exclude = MailParseException.class,
+            traversingCauses = "true",
+            listenerContainerFactory = "transactionRetryListenerContainerFactory"
+    )
+    @KafkaListener(
+            topics = RETRY_TOPIC,
+            groupId = "transaction-email-retry-group"
+    )
+    public void retry(
+            TransactionEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+
+        if (notificationDedupeService.isDelivered(event)) {
+            meterRegistry.counter("notification.dedupe.skipped").increment();
+            log.info("Retry skipped, already delivered | transactionId={} | topic={}", event.getTransactionId(), topic);
+            return;
+        }
+
+        meterRegistry.counter("notification.retry.attempts", "topic", topic).increment();
+
+        log.info(
+                "Retrying transaction email | transactionId={} | topic={} | email={}",
+                event.getTransactionId(),
+                topic,
+                event.getEmail()
+        );
+
+        emailService.sendMail(event.getEmail(), TransactionConsumerImpl.SUBJECT, emailTemplateService.buildEmailBody(event));
+        notificationDedupeService.markDelivered(event);
+
+        log.info("Transaction email sent on retry | transactionId={} | topic={}", event.getTransactionId(), topic);
+    }
+
+    @DltHandler
+    public void deadLetter(
+            TransactionEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+
+        meterRegistry.counter("notification.dlt").increment();
+
+        log.error(
+                "Transaction email dead-lettered | transactionId={} | topic={} | email={}",
+                event.getTransactionId(),
+                topic,
+                event.getEmail()
+        );
+    }
+}
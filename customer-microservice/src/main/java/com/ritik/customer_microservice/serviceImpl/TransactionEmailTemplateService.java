@@ -2,9 +2,13 @@ package com.ritik.customer_microservice.serviceImpl;
 
 import com.ritik.customer_microservice.dto.event.TransactionEvent;
 import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 
 @Slf4j
 @Service
@@ -40,6 +44,43 @@ public class TransactionEmailTemplateService {
         }
     }
 
+    // One email for everything buffered for a customer during the digest window
+    public String buildDigestBody(List<TransactionEvent> events) {
+
+        if (events.size() == 1) {
+            return buildEmailBody(events.get(0));
+        }
+
+        log.debug("Building transaction digest template | events={}", events.size());
+
+        BigDecimal credited = BigDecimal.ZERO;
+        BigDecimal debited = BigDecimal.ZERO;
+        StringBuilder lines = new StringBuilder();
+
+        for (TransactionEvent event : events) {
+            lines.append("\n- ").append(digestLine(event));
+
+            if (event.getStatus() == TransactionStatus.SUCCESS && event.getAmount() != null) {
+                if (event.getTransactionType() == TransactionType.CREDIT) {
+                    credited = credited.add(event.getAmount());
+                } else {
+                    debited = debited.add(event.getAmount());
+                }
+            }
+        }
+
+        return "You have " + events.size() + " transaction updates.\n"
+                + "Total credited: ₹" + credited + "\n"
+                + "Total debited: ₹" + debited + "\n"
+                + lines;
+    }
+
+    private String digestLine(TransactionEvent event) {
+        return event.getOperationType() + " " + event.getStatus()
+                + " | ₹" + event.getAmount()
+                + " | Transaction ID: " + event.getTransactionId();
+    }
+
     private String withdrawMessage(TransactionEvent event) {
 
         log.debug(
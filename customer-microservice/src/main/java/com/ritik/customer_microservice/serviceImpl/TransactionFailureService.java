@@ -21,25 +21,43 @@ public class TransactionFailureService {
 
     private final TransactionRepository transactionRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheGenerationService cacheGenerationService;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void failTransactionDueToOtp(UUID transactionId, String email) {
         log.warn("Failing transaction due to OTP attempts exceeded | transactionId={} | email={}",transactionId,email);
 
+        failTransaction(transactionId, email, "OTP ATTEMPT EXCEEDED");
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void failTransaction(UUID transactionId, String email, String reason) {
         Transaction tx = transactionRepository
                 .findByTransactionId(transactionId)
                 .orElseThrow(() -> {
                     log.error("Transaction not found while marking FAILED | transactionId={}", transactionId);
                     return new TransactionNotFoundException("Transaction not found");
                 });
+
+        if (tx.getTransactionStatus() != TransactionStatus.PENDING) {
+            log.warn(
+                    "Transaction not marked as FAILED, no longer pending | transactionId={} | status={}",
+                    transactionId,
+                    tx.getTransactionStatus()
+            );
+            return;
+        }
+
         tx.setTransactionStatus(TransactionStatus.FAILED);
         transactionRepository.save(tx);
+        cacheGenerationService.invalidate(email, tx.getAccountNum(), null);
 
         log.info(
-                "Transaction marked as FAILED | transactionId={} | operation={} | amount={}",
+                "Transaction marked as FAILED | transactionId={} | operation={} | amount={} | reason={}",
                 transactionId,
                 tx.getOperationType(),
-                tx.getAmount()
+                tx.getAmount(),
+                reason
         );
 
         applicationEventPublisher.publishEvent(new TransactionEvent(
@@ -49,7 +67,7 @@ public class TransactionFailureService {
                 tx.getOperationType(),
                 tx.getTransactionType(),
                 TransactionStatus.FAILED,
-                "OTP ATTEMPT EXCEEDED"
+                reason
         ));
 
 
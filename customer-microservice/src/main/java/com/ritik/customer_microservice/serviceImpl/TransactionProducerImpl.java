@@ -1,9 +1,12 @@
 package com.ritik.customer_microservice.serviceImpl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.model.OutboxEvent;
+import com.ritik.customer_microservice.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -13,22 +16,32 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @RequiredArgsConstructor
 public class TransactionProducerImpl {
 
-    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    public static final String TRANSACTION_TOPIC = "transaction-events";
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    // Written in the publishing transaction so the event commits or rolls back with it; OutboxRelay sends it to Kafka
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void publish(TransactionEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(TRANSACTION_TOPIC);
+        outboxEvent.setEventKey(event.getTransactionId().toString());
+
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Transaction event could not be serialized", ex);
+        }
+
+        outboxEventRepository.save(outboxEvent);
+
         log.info(
-                "Publishing transaction event to Kafka | transactionId={} | operation={} | status={}",
+                "Transaction event written to outbox | transactionId={} | operation={} | status={}",
                 event.getTransactionId(),
                 event.getOperationType(),
                 event.getStatus()
         );
-
-        kafkaTemplate.send(
-                "transaction-events",
-                event.getTransactionId().toString(),
-                event
-        );
     }
 }
-
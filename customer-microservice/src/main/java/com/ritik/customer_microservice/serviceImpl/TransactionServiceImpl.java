@@ -8,17 +8,26 @@ import com.ritik.customer_microservice.enums.TransactionType;
 import com.ritik.customer_microservice.exception.*;
 import com.ritik.customer_microservice.model.Account;
 import com.ritik.customer_microservice.model.Customer;
+import com.ritik.customer_microservice.model.PostingIntent;
 import com.ritik.customer_microservice.model.Transaction;
 import com.ritik.customer_microservice.repository.AccountRepository;
 import com.ritik.customer_microservice.repository.CustomerRepository;
+import com.ritik.customer_microservice.repository.OffsetPageRequest;
+import com.ritik.customer_microservice.repository.PostingIntentRepository;
+import com.ritik.customer_microservice.repository.TransactionArchiveRepository;
 import com.ritik.customer_microservice.repository.TransactionRepository;
+import com.ritik.customer_microservice.repository.TransactionSearchCriteria;
+import com.ritik.customer_microservice.service.LedgerService;
 import com.ritik.customer_microservice.service.OtpService;
 import com.ritik.customer_microservice.service.TransactionService;
+import com.ritik.customer_microservice.wrapper.CursorPageResponse;
+import com.ritik.customer_microservice.wrapper.HistoryCursor;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
@@ -26,13 +35,19 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -55,16 +70,49 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final ModelMapper modelMapper;
 
-    private void evictBalanceCache(String email, Long accountNum) {
+    private final LedgerService ledgerService;
+
+    private final AccountLockService accountLockService;
+
+    private final AccountSequencer accountSequencer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PostingEngine postingEngine;
+
+    private final TransactionFailureService transactionFailureService;
+
+    private final HotAccountService hotAccountService;
+
+    private final RecentTransactionWindow recentTransactionWindow;
+
+    private final CacheGenerationService cacheGenerationService;
+
+    private final TransactionArchiveService transactionArchiveService;
+
+    private final ColdSegmentStore coldSegmentStore;
+
+    private final TransactionArchiveRepository transactionArchiveRepository;
+
+    private final PostingIntentRepository postingIntentRepository;
+
+    @Value("${ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
+    @Value("${transaction.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
+    @Value("${account.lock.max-attempts:3}")
+    private int lockMaxAttempts;
+
+    private void evictBalanceCache(String email, Account account) {
         Cache checkBalanceCache = cacheManager.getCache("checkBalance");
         if (checkBalanceCache != null) {
-            checkBalanceCache.evict(List.of(email, accountNum));
+            checkBalanceCache.evict(List.of(email, account.getAccountNum()));
         }
 
-        Cache bankCustomersCache = cacheManager.getCache("bankCustomers");
-        if (bankCustomersCache != null) {
-            bankCustomersCache.clear();
-        }
+        // accountInfo, transactionHistory and bankCustomers keys embed these generations
+        cacheGenerationService.invalidate(email, account.getAccountNum(), account.getBankId());
     }
 
     private Transaction toEntityForDeposit(DepositRequestDTO dto, Account account) {
@@ -142,10 +190,6 @@ public class TransactionServiceImpl implements TransactionService {
         return modelMapper.map(transaction, TransactionResponseDTO.class);
     }
 
-    private TransactionHistoryDTO toTransactionHistoryDto(Transaction transaction) {
-        return modelMapper.map(transaction, TransactionHistoryDTO.class);
-    }
-
     private Customer checkCustomer(String email){
         return customerRepository.findByEmail(email).orElseThrow(() -> {
             log.warn("Customer not found | email={}", email);
@@ -161,8 +205,14 @@ public class TransactionServiceImpl implements TransactionService {
                 });
     }
 
+    private BigDecimal availableBalance(Account account) {
+        if (ledgerEnabled) {
+            return ledgerService.currentBalance(account.getAccountId());
+        }
+        return account.isHotAccount() ? hotAccountService.balance(account) : account.getAmount();
+    }
+
     @Override
-    @Transactional
     public TransactionResponseDTO depositMoney(String email, DepositRequestDTO depositRequestDTO){
         log.info(
                 "Deposit request received | email={} | accountNum={} | amount={}",
@@ -180,31 +230,76 @@ public class TransactionServiceImpl implements TransactionService {
             throw new InvalidAmountException("Deposit amount must be greater than zero");
         }
 
-        Customer customer = checkCustomer(email);
-        log.debug(
-                "Attempting to acquire account lock | accountNum={} | customerId={}",
-                depositRequestDTO.getAccountNum(),
-                customer.getCustomerId()
-        );
-        Account account = accountRepository.lockAccount(
-                depositRequestDTO.getAccountNum(),
-                customer.getCustomerId()
-        ).orElseThrow(() -> {
-            log.warn(
-                    "Deposit failed | reason=ACCOUNT_NOT_FOUND | email={} | accountNum={}",
-                    email,
-                    depositRequestDTO.getAccountNum()
+        // Hot accounts are applied on their sequencer lane and committed together with the lane's other deposits
+        if (accountSequencer.isSequenced(depositRequestDTO.getAccountNum())) {
+            log.debug("Deposit routed to sequencer lane | accountNum={}", depositRequestDTO.getAccountNum());
+            return accountSequencer.submit(
+                    depositRequestDTO.getAccountNum(),
+                    () -> applyDeposit(email, depositRequestDTO)
             );
-            return new AccountNotFoundException("Account not found.");
-        });
+        }
 
-        BigDecimal oldBalance = account.getAmount();
-        BigDecimal newBalance = oldBalance.add(depositRequestDTO.getAmount());
+        // Ledger postings append without locking, so a concurrent append on the same account is retried here
+        return conflictRetry().execute(context -> transactionTemplate.execute(status -> applyDeposit(email, depositRequestDTO)));
+    }
+
+    private TransactionResponseDTO applyDeposit(String email, DepositRequestDTO depositRequestDTO) {
+        Customer customer = checkCustomer(email);
 
-        account.setAmount(newBalance);
+        Account account;
+        Transaction transaction;
+        BigDecimal oldBalance;
+        BigDecimal newBalance;
 
-        Transaction transaction = toEntityForDeposit(depositRequestDTO, account);
-        transactionRepository.save(transaction);
+        if (ledgerEnabled) {
+            account = checkAccount(depositRequestDTO.getAccountNum(), customer.getCustomerId());
+
+            transaction = toEntityForDeposit(depositRequestDTO, account);
+            transactionRepository.save(transaction);
+
+            newBalance = ledgerService.post(
+                    account.getAccountId(),
+                    depositRequestDTO.getAmount(),
+                    transaction.getTransactionId()
+            );
+            oldBalance = newBalance.subtract(depositRequestDTO.getAmount());
+            transaction.setClosingBalance(newBalance);
+        } else {
+            account = accountRepository.findByAccountNumAndCustomer_CustomerId(
+                    depositRequestDTO.getAccountNum(),
+                    customer.getCustomerId()
+            ).orElseThrow(() -> {
+                log.warn(
+                        "Deposit failed | reason=ACCOUNT_NOT_FOUND | email={} | accountNum={}",
+                        email,
+                        depositRequestDTO.getAccountNum()
+                );
+                return new AccountNotFoundException("Account not found.");
+            });
+
+            // Routed on the row itself. The flag only turns on under the row's exclusive lock, with empty buckets,
+            // so a credit racing enable() on the plain path still lands in the balance and reports it correctly.
+            if (account.isHotAccount()) {
+                // credit() share-locks the accounts row before its bucket, the order a consolidating debit uses
+                transaction = toEntityForDeposit(depositRequestDTO, account);
+                transactionRepository.save(transaction);
+
+                hotAccountService.credit(account, depositRequestDTO.getAmount());
+
+                newBalance = hotAccountService.balance(account);
+                oldBalance = newBalance.subtract(depositRequestDTO.getAmount());
+                transaction.setClosingBalance(newBalance);
+            } else {
+                // Single UPDATE: the row lock is taken here and the loaded account's amount is never written back
+                newBalance = accountRepository.credit(account.getAccountNum(), depositRequestDTO.getAmount())
+                        .orElseThrow(() -> new AccountNotFoundException("Account not found."));
+                oldBalance = newBalance.subtract(depositRequestDTO.getAmount());
+
+                transaction = toEntityForDeposit(depositRequestDTO, account);
+                transaction.setClosingBalance(newBalance);
+                transactionRepository.save(transaction);
+            }
+        }
 
         log.info(
                 "Deposit successful | txnId={} | accountNum={} | oldBalance={} | newBalance={}",
@@ -227,7 +322,7 @@ public class TransactionServiceImpl implements TransactionService {
 
         eventPublisher.publishEvent(event);
 
-        evictBalanceCache(email, depositRequestDTO.getAccountNum());
+        evictBalanceCache(email, account);
 
         log.debug("Balance cache evicted | email={} | accountNum={}", email, depositRequestDTO.getAccountNum());
         return toDto(transaction);
@@ -267,13 +362,15 @@ public class TransactionServiceImpl implements TransactionService {
             throw new WrongPinException("Wrong pin");
         }
 
-        if (account.getAmount().compareTo(withdrawRequestDTO.getAmount()) < 0) {
+        BigDecimal balance = availableBalance(account);
+
+        if (balance.compareTo(withdrawRequestDTO.getAmount()) < 0) {
             log.warn(
                     "Withdraw failed | reason=INSUFFICIENT_BALANCE | email={} " +
                             "| accountNum={} | balance={} | requestedAmount={}",
                     email,
                     withdrawRequestDTO.getAccountNum(),
-                    account.getAmount(),
+                    balance,
                     withdrawRequestDTO.getAmount()
             );
             throw new InsufficientBalanceException("Insufficient balance");
@@ -283,6 +380,9 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setTransactionStatus(TransactionStatus.PENDING);
         transactionRepository.save(transaction);
 
+        // A new PENDING row shifts history pages; balances are unchanged so the bank generation stays
+        cacheGenerationService.invalidate(email, account.getAccountNum(), null);
+
         log.info(
                 "Withdraw transaction created | txnId={} | status=PENDING | accountNum={}",
                 transaction.getTransactionId(),
@@ -299,7 +399,9 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Cacheable(
             value = "transactionHistory",
-            key = "{#email, #accountNum, #page, #size}",
+            key = "{#email, #accountNum, #page, #size, @cacheGenerationService.of(#email, #accountNum)}",
+            // The first page comes from the always-fresh recent transaction window instead
+            condition = "#page > 0 || !@recentTransactionWindow.covers(#size)",
             unless = "#result==null"
     )
     public PageResponse<TransactionHistoryDTO> transactionHistory(
@@ -324,29 +426,43 @@ public class TransactionServiceImpl implements TransactionService {
 
         Customer customer = checkCustomer(email);
 
-        Page<Transaction> transactions;
+        List<Account> accounts;
 
         if (accountNum != null) {
             log.debug("Fetching transaction history for specific account | accountNum={}", accountNum);
 
-            Account account = checkAccount(accountNum, customer.getCustomerId());
-
-            transactions = transactionRepository.findByAccount_AccountId(account.getAccountId(), pageable);
+            accounts = List.of(checkAccount(accountNum, customer.getCustomerId()));
 
         }else{
             log.debug("Fetching transaction history for all customer accounts | email={}", email);
-            List<Account> accounts = accountRepository.findByCustomer_CustomerId(customer.getCustomerId());
+            accounts = accountRepository.findByCustomer_CustomerId(customer.getCustomerId());
 
             if (accounts.isEmpty()) {
                 log.warn("Transaction history failed | reason=NO_ACCOUNTS | email={}", email);
                 throw new AccountNotFoundException("No accounts found for customer");
             }
+        }
 
-            List<UUID> accountIds = accounts.stream().map(Account::getAccountId).toList();
+        if (page == 0 && recentTransactionWindow.covers(size)) {
+            Optional<PageResponse<TransactionHistoryDTO>> firstPage = firstPageFromWindow(email, accounts, size);
+            if (firstPage.isPresent()) {
+                return firstPage.get();
+            }
+        }
 
-            transactions = transactionRepository.findByAccount_AccountIdIn(accountIds, pageable);
+        Page<TransactionHistoryDTO> transactions;
+        LocalDateTime hotTierStart = transactionArchiveService.hotTierStart();
 
+        if (accountNum != null) {
+            transactions = transactionRepository.findHistoryByAccountId(
+                    accounts.get(0).getAccountId(), hotTierStart, pageable);
+        } else {
+            List<UUID> accountIds = accounts.stream().map(Account::getAccountId).toList();
+
+            transactions = transactionRepository.findHistoryByAccountIdIn(accountIds, hotTierStart, pageable);
         }
+        transactions = appendColdRows(transactions, accounts, hotTierStart, pageable);
+
         if (transactions.isEmpty()) {
             log.warn("No transactions found | email={} | accountNum={}", email, accountNum);
             throw new TransactionNotFoundException("Transactions not found");
@@ -360,15 +476,8 @@ public class TransactionServiceImpl implements TransactionService {
                 transactions.getTotalPages()
         );
 
-
-        List<TransactionHistoryDTO> response = transactions
-                .getContent()
-                .stream()
-                .map(this::toTransactionHistoryDto)
-                .toList();
-
         return new PageResponse<>(
-                response,
+                transactions.getContent(),
                 transactions.getNumber(),
                 transactions.getTotalPages(),
                 transactions.getSize(),
@@ -376,6 +485,308 @@ public class TransactionServiceImpl implements TransactionService {
         );
     }
 
+    // History tiers, newest first: the hot months of `transactions`, closed months still waiting there for
+    // archival, the cold segments, then transactions_archive. Each only holds months older than the one before
+    // it: segments take over from the archive table once enabled, and segment and archive reads are cut off
+    // below the oldest row still in `transactions`. A page that fits inside the hot rows never touches the older
+    // tiers, so its total only counts hot rows; pages that reach the older tiers count those too.
+    private Page<TransactionHistoryDTO> appendColdRows(
+            Page<TransactionHistoryDTO> hot,
+            List<Account> accounts,
+            LocalDateTime hotTierStart,
+            Pageable pageable
+    ) {
+
+        if (pageable.getOffset() + pageable.getPageSize() < hot.getTotalElements()) {
+            return hot;
+        }
+
+        List<UUID> accountIds = accounts.stream().map(Account::getAccountId).toList();
+
+        long unarchivedTotal = transactionRepository.countHistoryBefore(accountIds, hotTierStart);
+        LocalDateTime archiveBefore = archiveBoundary(accountIds);
+        long segmentTotal = coldSegmentStore.isEmpty() ? 0 : coldSegmentStore.count(accountIds, archiveBefore);
+        long archiveTotal = transactionArchiveRepository.countByAccountIdInAndCreatedAtLessThan(accountIds, archiveBefore);
+
+        if (unarchivedTotal + segmentTotal + archiveTotal == 0) {
+            return hot;
+        }
+
+        List<TransactionHistoryDTO> content = new ArrayList<>(hot.getContent());
+        long olderOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+
+        int missing = pageable.getPageSize() - content.size();
+        if (missing > 0 && unarchivedTotal > olderOffset) {
+            content.addAll(transactionRepository.findHistoryBefore(
+                    accountIds, hotTierStart, new OffsetPageRequest(olderOffset, missing)));
+        }
+
+        long coldOffset = Math.max(0, olderOffset - unarchivedTotal);
+
+        missing = pageable.getPageSize() - content.size();
+        if (missing > 0 && segmentTotal > coldOffset) {
+            coldSegmentStore.newestFirst(accountIds, null, archiveBefore).skip(coldOffset).limit(missing).forEach(content::add);
+        }
+
+        missing = pageable.getPageSize() - content.size();
+        if (missing > 0 && archiveTotal > 0) {
+            long archiveOffset = Math.max(0, coldOffset - segmentTotal);
+            content.addAll(transactionArchiveRepository.findHistory(
+                    accountIds, archiveBefore, new OffsetPageRequest(archiveOffset, missing)));
+        }
+
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + unarchivedTotal + segmentTotal + archiveTotal);
+    }
+
+    // A month is copied into the archive before its partition is dropped, so for a while it is in both tables
+    private LocalDateTime archiveBoundary(List<UUID> accountIds) {
+        LocalDateTime oldestHot = transactionRepository.findOldestCreatedAt(accountIds);
+        return oldestHot == null ? transactionArchiveService.hotTierStart() : oldestHot;
+    }
+
+    // Each window holds its account's newest rows, so the newest `size` across accounts are all among them
+    private Optional<PageResponse<TransactionHistoryDTO>> firstPageFromWindow(String email, List<Account> accounts, int size) {
+
+        List<TransactionHistoryDTO> rows = new ArrayList<>();
+        long total = 0;
+
+        for (Account account : accounts) {
+            Optional<RecentTransactionWindow.WindowPage> window =
+                    recentTransactionWindow.load(account.getAccountNum(), account.getAccountId());
+            if (window.isEmpty()) {
+                return Optional.empty();
+            }
+            rows.addAll(window.get().rows());
+            total += window.get().total();
+        }
+
+        // Windows only hold rows still in `transactions`. A full first page never looks further, like a hot-only
+        // page from the database; a short one has to be topped up from the older tiers if they hold anything.
+        if (rows.size() < size) {
+            List<UUID> accountIds = accounts.stream().map(Account::getAccountId).toList();
+            LocalDateTime archiveBefore = archiveBoundary(accountIds);
+            long coldTotal = (coldSegmentStore.isEmpty() ? 0 : coldSegmentStore.count(accountIds, archiveBefore))
+                    + transactionArchiveRepository.countByAccountIdInAndCreatedAtLessThan(accountIds, archiveBefore);
+            if (coldTotal > 0) {
+                return Optional.empty();
+            }
+        }
+
+        if (rows.isEmpty()) {
+            log.warn("No transactions found | email={} | accounts={}", email, accounts.size());
+            throw new TransactionNotFoundException("Transactions not found");
+        }
+
+        rows.sort(RecentTransactionWindow.NEWEST_FIRST);
+        List<TransactionHistoryDTO> firstPage = rows.subList(0, Math.min(size, rows.size()));
+
+        log.info("Transaction history served from window | email={} | returnedCount={} | total={}", email, firstPage.size(), total);
+
+        return Optional.of(new PageResponse<>(
+                firstPage,
+                0,
+                (int) ((total + size - 1) / size),
+                size,
+                total <= size
+        ));
+    }
+
+    @Override
+    public CursorPageResponse<TransactionHistoryDTO> transactionHistoryByCursor(
+            String email,
+            Long accountNum,
+            String cursor,
+            int size
+    ) {
+
+        log.info(
+                "Transaction history cursor request | email={} | accountNum={} | hasCursor={} | size={}",
+                email,
+                accountNum,
+                cursor != null,
+                size
+        );
+
+        if (size < 1 || size > maxHistoryPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxHistoryPageSize);
+        }
+
+        List<UUID> accountIds = resolveAccountIds(email, accountNum);
+
+        // One extra row tells whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<TransactionHistoryDTO> transactions;
+
+        HistoryCursor position = cursor == null ? null : HistoryCursor.decode(cursor);
+
+        if (position == null) {
+            transactions = transactionRepository.findHistoryFirstPage(accountIds, limit);
+        } else {
+            transactions = transactionRepository.findHistoryAfter(
+                    accountIds,
+                    position.createdAt(),
+                    position.transactionId(),
+                    limit
+            );
+        }
+
+        // `transactions` ran out: keep going into the segments and then the archive table. Each tier only holds
+        // rows older than the one before it (see appendColdRows), so the same cursor positions all three.
+        if (transactions.size() <= size) {
+            transactions = new ArrayList<>(transactions);
+            LocalDateTime archiveBefore = archiveBoundary(accountIds);
+
+            if (!coldSegmentStore.isEmpty()) {
+                coldSegmentStore.newestFirst(accountIds, position, archiveBefore)
+                        .limit(size + 1 - transactions.size())
+                        .forEach(transactions::add);
+            }
+
+            if (transactions.size() <= size) {
+                Pageable archiveLimit = PageRequest.of(0, size + 1 - transactions.size());
+
+                transactions.addAll(position == null
+                        ? transactionArchiveRepository.findHistory(accountIds, archiveBefore, archiveLimit)
+                        : transactionArchiveRepository.findHistoryAfter(
+                                accountIds,
+                                archiveBefore,
+                                position.createdAt(),
+                                position.transactionId(),
+                                archiveLimit
+                        ));
+            }
+        }
+
+        if (position == null && transactions.isEmpty()) {
+            log.warn("No transactions found | email={} | accountNum={}", email, accountNum);
+            throw new TransactionNotFoundException("Transactions not found");
+        }
+
+        boolean last = transactions.size() <= size;
+        List<TransactionHistoryDTO> page = last ? transactions : transactions.subList(0, size);
+
+        String nextCursor = null;
+        if (!last) {
+            TransactionHistoryDTO tail = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(tail.getCreatedAt(), tail.getTransactionId()).encode();
+        }
+
+        log.info("Transaction history cursor fetched | email={} | returnedCount={} | last={}", email, page.size(), last);
+
+        return new CursorPageResponse<>(
+                page,
+                nextCursor,
+                size,
+                last
+        );
+    }
+
+    @Override
+    public CursorPageResponse<TransactionHistoryDTO> searchTransactions(String email, TransactionSearchRequestDTO request) {
+
+        log.info(
+                "Transaction search request | email={} | accountNum={} | from={} | to={} | operationType={} | status={} | hasCursor={}",
+                email,
+                request.getAccountNum(),
+                request.getFrom(),
+                request.getTo(),
+                request.getOperationType(),
+                request.getTransactionStatus(),
+                request.getCursor() != null
+        );
+
+        int size = request.getSize();
+        if (size < 1 || size > maxHistoryPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxHistoryPageSize);
+        }
+
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new BadRequestException("Search start date must not be after end date");
+        }
+
+        if (request.getMinAmount() != null && request.getMaxAmount() != null
+                && request.getMinAmount().compareTo(request.getMaxAmount()) > 0) {
+            throw new BadRequestException("Minimum amount must not exceed maximum amount");
+        }
+
+        // Search covers the hot tier only. An explicit range reaching further back is refused rather than
+        // silently cut short; history pages and statements do reach the archived months.
+        LocalDateTime hotTierStart = transactionArchiveService.hotTierStart();
+        if (request.getFrom() != null && request.getFrom().atStartOfDay().isBefore(hotTierStart)) {
+            throw new BadRequestException("Search start date must not be before " + hotTierStart.toLocalDate()
+                    + "; use transaction history or a statement for older transactions");
+        }
+
+        List<UUID> accountIds = resolveAccountIds(email, request.getAccountNum());
+
+        LocalDateTime from = request.getFrom() == null ? hotTierStart : request.getFrom().atStartOfDay();
+
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria(
+                accountIds,
+                from,
+                request.getTo() == null ? null : request.getTo().plusDays(1).atStartOfDay(),
+                request.getMinAmount(),
+                request.getMaxAmount(),
+                request.getOperationType(),
+                request.getTransactionStatus(),
+                request.getCounterpartyAccountNum()
+        );
+
+        HistoryCursor position = request.getCursor() == null ? null : HistoryCursor.decode(request.getCursor());
+
+        long startTime = System.currentTimeMillis();
+
+        List<TransactionHistoryDTO> transactions = transactionRepository.search(
+                criteria,
+                position == null ? null : position.createdAt(),
+                position == null ? null : position.transactionId(),
+                size + 1
+        );
+
+        boolean last = transactions.size() <= size;
+        List<TransactionHistoryDTO> page = last ? transactions : transactions.subList(0, size);
+
+        String nextCursor = null;
+        if (!last) {
+            TransactionHistoryDTO tail = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(tail.getCreatedAt(), tail.getTransactionId()).encode();
+        }
+
+        log.info(
+                "Transaction search completed | email={} | returnedCount={} | last={} | duration={} ms",
+                email,
+                page.size(),
+                last,
+                System.currentTimeMillis() - startTime
+        );
+
+        return new CursorPageResponse<>(
+                page,
+                nextCursor,
+                size,
+                last
+        );
+    }
+
+    private List<UUID> resolveAccountIds(String email, Long accountNum) {
+
+        Customer customer = checkCustomer(email);
+
+        if (accountNum != null) {
+            return List.of(checkAccount(accountNum, customer.getCustomerId()).getAccountId());
+        }
+
+        List<Account> accounts = accountRepository.findByCustomer_CustomerId(customer.getCustomerId());
+
+        if (accounts.isEmpty()) {
+            log.warn("Transaction history failed | reason=NO_ACCOUNTS | email={}", email);
+            throw new AccountNotFoundException("No accounts found for customer");
+        }
+
+        return accounts.stream().map(Account::getAccountId).toList();
+    }
+
     @Override
     @Transactional
     public TransferResponseDTO transferMoney(String email, TransferRequestDTO transferRequestDTO){
@@ -427,12 +838,14 @@ public class TransactionServiceImpl implements TransactionService {
             throw new WrongPinException("Wrong PIN");
         }
 
-        if (senderAccount.getAmount().compareTo(transferRequestDTO.getAmount()) < 0) {
+        BigDecimal senderBalance = availableBalance(senderAccount);
+
+        if (senderBalance.compareTo(transferRequestDTO.getAmount()) < 0) {
             log.warn(
                     "Transfer failed | reason=INSUFFICIENT_BALANCE | email={} | fromAccount={} | balance={} | requestedAmount={}",
                     email,
                     transferRequestDTO.getFromAccountNum(),
-                    senderAccount.getAmount(),
+                    senderBalance,
                     transferRequestDTO.getAmount()
             );
             throw new InsufficientBalanceException("Insufficient balance");
@@ -444,6 +857,8 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction debitTxn = toEntityForTransferDebit(transferRequestDTO,senderAccount, transactionRefId);
         transactionRepository.save(debitTxn);
 
+        cacheGenerationService.invalidate(email, senderAccount.getAccountNum(), null);
+
         log.info(
                 "Debit transaction created | txnId={} | refId={} | fromAccount={} | amount={} | status=PENDING",
                 debitTxn.getTransactionId(),
@@ -463,23 +878,129 @@ public class TransactionServiceImpl implements TransactionService {
                 .fromAccountNum(transferRequestDTO.getFromAccountNum())
                 .toAccountNum(transferRequestDTO.getToAccountNum())
                 .amount(transferRequestDTO.getAmount())
-                .senderClosingBalance(senderAccount.getAmount())
+                .senderClosingBalance(senderBalance)
                 .timestamp(LocalDateTime.now())
                 .build();
 
     }
 
     @Override
-    @Transactional
     public TransactionResponseDTO transactionConfirm(String email, ConfirmRequestDTO dto) {
         log.info("Transaction confirmation request | email={} | txnId={}", email, dto.getTransactionId());
 
+        // Checked and verified once, outside the retried posting below, so a retry never counts as another guess.
+        // Verifying does not use the code up: the posting consumes it in its own transaction, and a posting that
+        // rolls back or runs out of retries leaves it valid for the customer's next confirm.
+        transactionTemplate.execute(status -> lockConfirmable(email, dto.getTransactionId()));
+
+        log.debug("Verifying OTP | txnId={} | email={}", dto.getTransactionId(), email);
+
+        otpService.verifyOtp(email, dto.getTransactionId(), dto.getOTP());
+
+        return conflictRetry().execute(context -> transactionTemplate.execute(status -> {
+            // Checked again under the lock: the sweeper or a concurrent confirm may have moved it on meanwhile
+            Transaction debitTx = lockConfirmable(email, dto.getTransactionId());
+            otpService.consumeOtp(email, debitTx.getTransactionId());
+
+            if (postingEngine.isEnabled()) {
+                // The intent commits with this transaction, before the client gets its PENDING response. A crash
+                // before the queued posting runs leaves the row PENDING until recoverConfirmedPostings re-queues
+                // it, so status polls see PENDING for up to the recovery delay and then the posted result.
+                postingIntentRepository.save(new PostingIntent(debitTx.getTransactionId(), email));
+                submitPosting(debitTx, email);
+
+                log.info("Transaction accepted for posting | txnId={} | email={}", debitTx.getTransactionId(), email);
+                return toDto(debitTx);
+            }
+
+            // Same up-front ordered locks as a posting batch, under the bounded wait: a busy account fails the
+            // attempt with a lock timeout (409 once retries run out) instead of queueing behind the row
+            if (!ledgerEnabled) {
+                accountLockService.lockAccounts(postingAccountNums(debitTx));
+            }
+
+            return applyConfirmation(debitTx, email);
+        }));
+    }
+
+    private void submitPosting(Transaction debitTx, String email) {
+        UUID transactionId = debitTx.getTransactionId();
+
+        postingEngine.submit(
+                transactionId,
+                postingAccountNums(debitTx),
+                () -> postConfirmedTransaction(transactionId, email),
+                ex -> transactionFailureService.failTransaction(transactionId, email, ex.getMessage())
+        );
+    }
+
+    // Re-queues confirmed postings whose intent outlived the queue, e.g. after a crash between the confirm and its
+    // batch. Posting only applies a PENDING row, so re-queueing one that is still in flight is harmless.
+    public int recoverConfirmedPostings(LocalDateTime before, int limit) {
+        List<PostingIntent> stale = postingIntentRepository.findStale(before, limit);
+
+        for (PostingIntent intent : stale) {
+            try {
+                conflictRetry().execute(context -> transactionTemplate.execute(status -> recoverPosting(intent)));
+            } catch (PessimisticLockingFailureException | LedgerConflictException ex) {
+                log.warn("Posting recovery deferred | txnId={} | reason={}", intent.getTransactionId(), ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.error("Posting recovery failed | txnId={} | reason={}", intent.getTransactionId(), ex.getMessage());
+
+                // The intent stays until the next run finds the row FAILED and drops it
+                try {
+                    transactionFailureService.failTransaction(intent.getTransactionId(), intent.getEmail(), ex.getMessage());
+                } catch (RuntimeException failure) {
+                    log.error("Posting recovery failure handler failed | txnId={} | reason={}",
+                            intent.getTransactionId(), failure.getMessage());
+                }
+            }
+        }
+
+        return stale.size();
+    }
+
+    private TransactionResponseDTO recoverPosting(PostingIntent intent) {
+        UUID transactionId = intent.getTransactionId();
+        Transaction debitTx = transactionRepository.lockByTransactionId(transactionId).orElse(null);
+
+        if (debitTx == null || debitTx.getTransactionStatus() != TransactionStatus.PENDING) {
+            postingIntentRepository.deleteByTransactionId(transactionId);
+            return null;
+        }
+
+        log.warn("Recovering confirmed posting | txnId={} | confirmedAt={}", transactionId, intent.getCreatedAt());
+
+        if (postingEngine.isEnabled()) {
+            submitPosting(debitTx, intent.getEmail());
+            return toDto(debitTx);
+        }
+
+        // The engine has since been switched off: post inline, under the same locks as a synchronous confirm
+        if (!ledgerEnabled) {
+            accountLockService.lockAccounts(postingAccountNums(debitTx));
+        }
+
+        postingIntentRepository.deleteByTransactionId(transactionId);
+        return applyConfirmation(debitTx, intent.getEmail());
+    }
+
+    // Lock timeouts and deadlocks roll the attempt back and run it again in a new transaction
+    private RetryTemplate conflictRetry() {
+        return RetryTemplate.builder()
+                .maxAttempts(lockMaxAttempts)
+                .exponentialBackoff(50, 2, 30_000, true)
+                .retryOn(List.of(PessimisticLockingFailureException.class, LedgerConflictException.class))
+                .build();
+    }
+
+    private Transaction lockConfirmable(String email, UUID transactionId) {
         Transaction debitTx = transactionRepository
-                .lockByTransactionId(dto.getTransactionId())
+                .lockByTransactionId(transactionId)
                 .orElseThrow(() -> {
                     log.warn(
                             "Transaction confirmation failed | reason=TXN_NOT_FOUND | txnId={}",
-                            dto.getTransactionId()
+                            transactionId
                     );
                     return new TransactionNotFoundException("Transaction not found");
                 });
@@ -502,75 +1023,114 @@ public class TransactionServiceImpl implements TransactionService {
             );
             throw new UnauthorizedException("Unauthorized");
         }
-        log.debug("Verifying OTP | txnId={} | email={}", debitTx.getTransactionId(), email);
 
-        otpService.verifyOtp(email, dto.getTransactionId(), dto.getOTP());
+        return debitTx;
+    }
 
-        Account sender = accountRepository.lockAccountById(debitTx.getAccount().getAccountId());
+    @Override
+    public TransactionResponseDTO transactionStatus(String email, UUID transactionId, long waitMs) {
+        log.info("Transaction status request | email={} | txnId={} | waitMs={}", email, transactionId, waitMs);
+
+        // Wait before touching the database so a long-poll never holds a connection
+        postingEngine.awaitPosting(transactionId, waitMs);
+
+        return transactionTemplate.execute(status -> {
+            Transaction transaction = transactionRepository
+                    .findByTransactionId(transactionId)
+                    .orElseThrow(() -> {
+                        log.warn("Transaction status failed | reason=TXN_NOT_FOUND | txnId={}", transactionId);
+                        return new TransactionNotFoundException("Transaction not found");
+                    });
+
+            if (!transaction.getAccount().getCustomer().getEmail().equals(email)) {
+                log.warn("Unauthorized transaction status attempt | txnId={} | email={}", transactionId, email);
+                throw new UnauthorizedException("Unauthorized");
+            }
 
-        if (sender.getAmount().compareTo(debitTx.getAmount()) < 0) {
-            log.error(
-                    "Insufficient balance at confirmation | txnId={} | accountNum={} | balance={} | required={}",
-                    debitTx.getTransactionId(),
-                    sender.getAccountNum(),
-                    sender.getAmount(),
-                    debitTx.getAmount()
+            return toDto(transaction);
+        });
+    }
+
+    // A hot receiver is credited through its balance buckets, so its accounts row is left unlocked. The flag is read
+    // from the row: it only turns on under the row's exclusive lock, so once seen off, locking the row keeps it off.
+    private List<Long> postingAccountNums(Transaction debitTx) {
+        List<Long> accountNums = new ArrayList<>();
+        accountNums.add(debitTx.getAccountNum());
+        if (debitTx.getOperationType() == OperationType.TRANSFER
+                && !hotAccountService.isHot(debitTx.getCounterpartyAccountNum())) {
+            accountNums.add(debitTx.getCounterpartyAccountNum());
+        }
+        return accountNums;
+    }
+
+    // Runs inside a posting engine batch, which already holds the locks on every account involved
+    private TransactionResponseDTO postConfirmedTransaction(UUID transactionId, String email) {
+        Transaction debitTx = transactionRepository
+                .lockByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
+
+        // Posted or skipped, this batch settles the intent
+        postingIntentRepository.deleteByTransactionId(transactionId);
+
+        if (debitTx.getTransactionStatus() != TransactionStatus.PENDING) {
+            log.warn(
+                    "Posting skipped, transaction no longer pending | txnId={} | status={}",
+                    transactionId,
+                    debitTx.getTransactionStatus()
             );
-            throw new InsufficientBalanceException("Insufficient balance at confirmation");
+            return toDto(debitTx);
+        }
+
+        return applyConfirmation(debitTx, email);
+    }
+
+    private TransactionResponseDTO applyConfirmation(Transaction debitTx, String email) {
+        Account sender = debitTx.getAccount();
+        Account receiver = null;
+        Transaction creditTx = null;
+
+        if (debitTx.getOperationType() == OperationType.TRANSFER) {
+            log.debug("Processing transfer credit leg | refId={}", debitTx.getTransactionReferenceId());
+
+            receiver = accountRepository.findByAccountNum(debitTx.getCounterpartyAccountNum())
+                    .orElseThrow(() -> {
+                        log.error(
+                                "Receiver account missing at confirmation | txnId={} | toAccount={}",
+                                debitTx.getTransactionId(),
+                                debitTx.getCounterpartyAccountNum()
+                        );
+                        return new AccountNotFoundException("Receiver account not found");
+                    });
+        }
+
+        // Legs run in ascending accountNum order, the same order AccountLockService locks in,
+        // so two opposite transfers can never wait on each other
+        if (receiver != null && receiver.getAccountNum() < sender.getAccountNum()) {
+            creditTx = applyCreditLeg(debitTx, receiver);
         }
 
-        BigDecimal oldSenderBalance = sender.getAmount();
-        BigDecimal newSenderBalance = oldSenderBalance.subtract(debitTx.getAmount());
+        BigDecimal newSenderBalance = applyDebitLeg(debitTx, sender);
 
-        sender.setAmount(newSenderBalance);
+        if (receiver != null && creditTx == null) {
+            creditTx = applyCreditLeg(debitTx, receiver);
+        }
 
         debitTx.setTransactionStatus(TransactionStatus.SUCCESS);
         debitTx.setClosingBalance(newSenderBalance);
 
-        accountRepository.save(sender);
         transactionRepository.save(debitTx);
 
         log.info(
                 "Debit transaction confirmed | txnId={} | accountNum={} | oldBalance={} | newBalance={}",
                 debitTx.getTransactionId(),
                 sender.getAccountNum(),
-                oldSenderBalance,
+                newSenderBalance.add(debitTx.getAmount()),
                 newSenderBalance
         );
 
-        evictBalanceCache(sender.getCustomer().getEmail(), sender.getAccountNum());
+        evictBalanceCache(sender.getCustomer().getEmail(), sender);
 
-        if (debitTx.getOperationType() == OperationType.TRANSFER) {
-
-            log.debug("Processing transfer credit leg | refId={}", debitTx.getTransactionReferenceId());
-
-            Account receiver = accountRepository.lockByAccountNum(debitTx.getCounterpartyAccountNum());
-
-            BigDecimal oldReceiverBalance = receiver.getAmount();
-            BigDecimal newReceiverBalance = oldReceiverBalance.add(debitTx.getAmount());
-
-            receiver.setAmount(newReceiverBalance);
-
-            Transaction creditTx = toEntityForTransferCredit(
-                    new TransferRequestDTO(
-                            debitTx.getCounterpartyAccountNum(),
-                            debitTx.getAccountNum(),
-                            debitTx.getAmount()
-                    ),
-                    receiver,
-                    debitTx.getTransactionReferenceId()
-            );
-
-            accountRepository.save(receiver);
-            transactionRepository.save(creditTx);
-
-            log.info(
-                    "Credit transaction completed | creditTxnId={} | accountNum={} | oldBalance={} | newBalance={}",
-                    creditTx.getTransactionId(),
-                    receiver.getAccountNum(),
-                    oldReceiverBalance,
-                    newReceiverBalance
-            );
+        if (receiver != null) {
 
             eventPublisher.publishEvent(new TransactionEvent(
                     debitTx.getTransactionId(),
@@ -592,7 +1152,7 @@ public class TransactionServiceImpl implements TransactionService {
                     null
             ));
 
-            evictBalanceCache(receiver.getCustomer().getEmail(), receiver.getAccountNum());
+            evictBalanceCache(receiver.getCustomer().getEmail(), receiver);
 
         } else if (debitTx.getOperationType() == OperationType.WITHDRAW) {
 
@@ -615,4 +1175,69 @@ public class TransactionServiceImpl implements TransactionService {
 
         return toDto(debitTx);
     }
+
+    private BigDecimal applyDebitLeg(Transaction debitTx, Account sender) {
+        if (ledgerEnabled) {
+            return ledgerService.post(sender.getAccountId(), debitTx.getAmount().negate(), debitTx.getTransactionId());
+        }
+
+        if (sender.isHotAccount()) {
+            return hotAccountService.debit(sender, debitTx.getAmount());
+        }
+
+        return accountRepository.debitIfSufficient(sender.getAccountNum(), debitTx.getAmount())
+                .orElseThrow(() -> {
+                    log.error(
+                            "Insufficient balance at confirmation | txnId={} | accountNum={} | required={}",
+                            debitTx.getTransactionId(),
+                            sender.getAccountNum(),
+                            debitTx.getAmount()
+                    );
+                    return new InsufficientBalanceException("Insufficient balance at confirmation");
+                });
+    }
+
+    private Transaction applyCreditLeg(Transaction debitTx, Account receiver) {
+        TransferRequestDTO creditRequest = new TransferRequestDTO(
+                debitTx.getCounterpartyAccountNum(),
+                debitTx.getAccountNum(),
+                debitTx.getAmount()
+        );
+
+        Transaction creditTx = toEntityForTransferCredit(creditRequest, receiver, debitTx.getTransactionReferenceId());
+        BigDecimal newReceiverBalance;
+
+        if (ledgerEnabled) {
+            transactionRepository.save(creditTx);
+
+            newReceiverBalance = ledgerService.post(
+                    receiver.getAccountId(),
+                    debitTx.getAmount(),
+                    creditTx.getTransactionId()
+            );
+        } else if (receiver.isHotAccount()) {
+            // credit() share-locks the accounts row before its bucket, the order a consolidating debit uses
+            transactionRepository.save(creditTx);
+
+            hotAccountService.credit(receiver, debitTx.getAmount());
+            newReceiverBalance = hotAccountService.balance(receiver);
+        } else {
+            newReceiverBalance = accountRepository.credit(receiver.getAccountNum(), debitTx.getAmount())
+                    .orElseThrow(() -> new AccountNotFoundException("Receiver account not found"));
+
+            transactionRepository.save(creditTx);
+        }
+
+        creditTx.setClosingBalance(newReceiverBalance);
+
+        log.info(
+                "Credit transaction completed | creditTxnId={} | accountNum={} | oldBalance={} | newBalance={}",
+                creditTx.getTransactionId(),
+                receiver.getAccountNum(),
+                newReceiverBalance.subtract(debitTx.getAmount()),
+                newReceiverBalance
+        );
+
+        return creditTx;
+    }
 }
@@ -0,0 +1,25 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.model.Transaction;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Resolved through Hibernate's Spring bean container, so every Transaction insert or update feeds the window
+@Component
+@RequiredArgsConstructor
+public class TransactionWindowListener {
+
+    private final RecentTransactionWindow recentTransactionWindow;
+
+    @PostPersist
+    public void onInsert(Transaction transaction) {
+        recentTransactionWindow.recordAfterCommit(transaction, true);
+    }
+
+    @PostUpdate
+    public void onUpdate(Transaction transaction) {
+        recentTransactionWindow.recordAfterCommit(transaction, false);
+    }
+}
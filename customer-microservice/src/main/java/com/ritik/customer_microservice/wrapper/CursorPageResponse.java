@@ -0,0 +1,18 @@
+package com.ritik.customer_microservice.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> data;
+    private String nextCursor;
+    private int size;
+    private boolean last;
+}
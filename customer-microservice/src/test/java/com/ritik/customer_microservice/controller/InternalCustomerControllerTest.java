@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ritik.customer_microservice.config.JwtFilter;
 import com.ritik.customer_microservice.config.MethodSecurityConfig;
 import com.ritik.customer_microservice.dto.customerDTO.CustomerBalanceDTO;
+import com.ritik.customer_microservice.service.AccountService;
 import com.ritik.customer_microservice.service.CustomerService;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 import com.ritik.customer_microservice.serviceImpl.TransactionFailureService;
@@ -45,6 +46,9 @@ class InternalCustomerControllerTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private AccountService accountService;
+
     @Test
     @WithMockUser(roles = "SERVICE")
     void shouldReturnCustomersSuccessfully() throws Exception {
@@ -9,7 +9,10 @@ import com.ritik.customer_microservice.enums.TransactionType;
 import com.ritik.customer_microservice.service.AccountService;
 import com.ritik.customer_microservice.service.OtpService;
 import com.ritik.customer_microservice.service.TransactionService;
+import com.ritik.customer_microservice.wrapper.CursorPageResponse;
 import com.ritik.customer_microservice.wrapper.PageResponse;
+import com.ritik.customer_microservice.serviceImpl.IdempotencyService;
+import com.ritik.customer_microservice.serviceImpl.StatementExportService;
 import com.ritik.customer_microservice.serviceImpl.TransactionFailureService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +27,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -55,6 +59,12 @@ class TransactionControllerTest {
     @MockBean
     private TransactionFailureService transactionFailureService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private StatementExportService statementExportService;
+
 
     private DepositRequestDTO depositRequestDTO;
     private TransactionResponseDTO transactionResponseDTO;
@@ -64,6 +74,10 @@ class TransactionControllerTest {
     @BeforeEach
     void setup() {
 
+        Mockito.when(idempotencyService.execute(
+                        Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+
         depositRequestDTO = new DepositRequestDTO();
         depositRequestDTO.setAccountNum(12345678901L);
         depositRequestDTO.setAmount(BigDecimal.valueOf(5000));
@@ -171,6 +185,50 @@ class TransactionControllerTest {
         Mockito.verify(transactionService).transactionHistory("jd@gmail.com", null,0,5);
     }
 
+    @Test
+    @WithMockCustomer()
+    void shouldReturnTransactionHistoryByCursorSuccessfully() throws Exception {
+
+        TransactionHistoryDTO historyDTO = new TransactionHistoryDTO();
+        historyDTO.setTransactionType(TransactionType.CREDIT);
+        historyDTO.setAmount(BigDecimal.valueOf(2500));
+
+        Mockito.when(transactionService.transactionHistoryByCursor("jd@gmail.com", null, "abc", 5))
+                .thenReturn(new CursorPageResponse<>(List.of(historyDTO), "def", 5, false));
+
+        mockMvc.perform(get("/api/customers/transactions/transactionHistory/cursor")
+                        .param("cursor", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].transactionType").value("CREDIT"))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+
+        Mockito.verify(transactionService).transactionHistoryByCursor("jd@gmail.com", null, "abc", 5);
+    }
+
+    @Test
+    @WithMockCustomer()
+    void shouldSearchTransactionsWithFilters() throws Exception {
+
+        TransactionHistoryDTO historyDTO = new TransactionHistoryDTO();
+        historyDTO.setTransactionType(TransactionType.DEBIT);
+        historyDTO.setAmount(BigDecimal.valueOf(750));
+
+        Mockito.when(transactionService.searchTransactions(
+                        Mockito.eq("jd@gmail.com"),
+                        Mockito.argThat(request -> request.getCounterpartyAccountNum() == 987654321L
+                                && request.getMinAmount().compareTo(BigDecimal.valueOf(500)) == 0)))
+                .thenReturn(new CursorPageResponse<>(List.of(historyDTO), null, 20, true));
+
+        mockMvc.perform(get("/api/customers/transactions/search")
+                        .param("counterpartyAccountNum", "987654321")
+                        .param("minAmount", "500")
+                        .param("operationType", "TRANSFER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].amount").value(750))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
     @Test
     @WithMockCustomer()
     void shouldTransferMoneySuccessfully() throws Exception {
@@ -242,4 +300,21 @@ class TransactionControllerTest {
 
         Mockito.verify(transactionService, Mockito.never()).transactionConfirm(Mockito.any(), Mockito.any());
     }
+
+    @Test
+    @WithMockCustomer()
+    void shouldReturnTransactionStatus() throws Exception {
+        UUID transactionId = UUID.randomUUID();
+        transactionResponseDTO.setTransactionStatus(TransactionStatus.PENDING);
+
+        Mockito.when(transactionService.transactionStatus("jd@gmail.com", transactionId, 2000L))
+                .thenReturn(transactionResponseDTO);
+
+        mockMvc.perform(get("/api/customers/transactions/{transactionId}/status", transactionId)
+                        .param("waitMs", "2000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionStatus").value("PENDING"));
+
+        Mockito.verify(transactionService).transactionStatus("jd@gmail.com", transactionId, 2000L);
+    }
 }
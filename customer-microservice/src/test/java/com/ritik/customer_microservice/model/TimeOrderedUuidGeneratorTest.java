@@ -0,0 +1,42 @@
+package com.ritik.customer_microservice.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+class TimeOrderedUuidGeneratorTest {
+
+    private static byte[] binary16(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Test
+    void shouldGenerateVersion7WithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidGenerator.next();
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        Assertions.assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void shouldSortInGenerationOrderAsMysqlBinary() {
+        byte[] previous = binary16(TimeOrderedUuidGenerator.next());
+
+        // Well past 4096 ids so several milliseconds see a counter overflow
+        for (int i = 0; i < 100_000; i++) {
+            byte[] current = binary16(TimeOrderedUuidGenerator.next());
+            Assertions.assertTrue(Arrays.compareUnsigned(previous, current) < 0, "id " + i + " out of order");
+            previous = current;
+        }
+    }
+}
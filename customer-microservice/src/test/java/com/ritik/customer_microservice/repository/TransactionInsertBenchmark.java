@@ -0,0 +1,92 @@
+package com.ritik.customer_microservice.repository;
+
+import com.ritik.customer_microservice.model.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Not picked up by surefire's default includes, and needs a disposable MySQL schema. Run with:
+//   mvn test -Dtest=TransactionInsertBenchmark -Dbenchmark.jdbc.url=jdbc:mysql://localhost:3306/bench \
+//       -Dbenchmark.jdbc.user=root -Dbenchmark.jdbc.password=... -Dbenchmark.rows=50000000
+// Loads a copy of the transactions row shape keyed by random v4 and by time-ordered v7 ids and prints sustained
+// inserts/sec per window, so the drop-off once the random-keyed index outgrows the buffer pool is visible.
+class TransactionInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final String url = System.getProperty("benchmark.jdbc.url");
+    private final String user = System.getProperty("benchmark.jdbc.user", "root");
+    private final String password = System.getProperty("benchmark.jdbc.password", "");
+    private final long rows = Long.getLong("benchmark.rows", 20_000_000L);
+    private final long window = Long.getLong("benchmark.window", 1_000_000L);
+
+    @Test
+    void compareRandomWithTimeOrderedKeys() throws Exception {
+        Assumptions.assumeTrue(url != null, "benchmark.jdbc.url not set");
+
+        load("bench_tx_random", UUID::randomUUID);
+        load("bench_tx_time_ordered", TimeOrderedUuidGenerator::next);
+    }
+
+    private void load(String table, Supplier<UUID> ids) throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true", user, password)) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("DROP TABLE IF EXISTS " + table);
+                ddl.execute("CREATE TABLE " + table + " ("
+                        + "transaction_id BINARY(16) PRIMARY KEY,"
+                        + "account_id BINARY(16) NOT NULL,"
+                        + "amount DECIMAL(19,2) NOT NULL,"
+                        + "transaction_type VARCHAR(20) NOT NULL,"
+                        + "transaction_status VARCHAR(20) NOT NULL,"
+                        + "created_at DATETIME(6) NOT NULL,"
+                        + "KEY idx_account_created (account_id, created_at))");
+            }
+
+            connection.setAutoCommit(false);
+            byte[] accountId = binary16(UUID.randomUUID());
+
+            System.out.printf("%n%s%n%-14s %14s%n", table, "rows", "inserts/s");
+
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                    + " VALUES (?, ?, 100.00, 'CREDIT', 'SUCCESS', NOW(6))")) {
+
+                long windowStart = System.nanoTime();
+
+                for (long i = 1; i <= rows; i++) {
+                    insert.setBytes(1, binary16(ids.get()));
+                    insert.setBytes(2, accountId);
+                    insert.addBatch();
+
+                    if (i % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+
+                    if (i % window == 0) {
+                        long now = System.nanoTime();
+                        System.out.printf("%-14d %14.0f%n", i, window * 1e9 / (now - windowStart));
+                        windowStart = now;
+                    }
+                }
+
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    private static byte[] binary16(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
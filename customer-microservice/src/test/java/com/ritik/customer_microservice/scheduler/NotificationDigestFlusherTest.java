@@ -0,0 +1,150 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.service.EmailService;
+import com.ritik.customer_microservice.serviceImpl.NotificationDedupeService;
+import com.ritik.customer_microservice.serviceImpl.NotificationDigestService;
+import com.ritik.customer_microservice.serviceImpl.TransactionEmailRetryConsumer;
+import com.ritik.customer_microservice.serviceImpl.TransactionEmailTemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestFlusherTest {
+
+    @Mock
+    private NotificationDigestService notificationDigestService;
+
+    @Mock
+    private TransactionEmailTemplateService emailTemplateService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private NotificationDedupeService notificationDedupeService;
+
+    @Mock
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationDigestFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        flusher = new NotificationDigestFlusher(notificationDigestService, emailTemplateService, emailService,
+                notificationDedupeService, kafkaTemplate, meterRegistry);
+        ReflectionTestUtils.setField(flusher, "enabled", true);
+        ReflectionTestUtils.setField(flusher, "flushBatch", 50);
+        ReflectionTestUtils.setField(flusher, "forwardTimeoutMs", 1000L);
+    }
+
+    private TransactionEvent event() {
+        return new TransactionEvent(UUID.randomUUID(), "a@x.com", BigDecimal.TEN, OperationType.TRANSFER,
+                TransactionType.CREDIT, TransactionStatus.SUCCESS, "ok");
+    }
+
+    @Test
+    void shouldSendOneDigestPerCustomer() {
+        List<TransactionEvent> events = List.of(event(), event(), event());
+        Mockito.when(notificationDigestService.drainDue(50))
+                .thenReturn(List.of(new NotificationDigestService.Digest("a@x.com", events)));
+        Mockito.when(emailTemplateService.buildDigestBody(events)).thenReturn("digest");
+
+        flusher.flush();
+
+        Mockito.verify(emailService).sendMails(List.of(message("a@x.com", "Transaction Summary", "digest")));
+        Mockito.verify(notificationDedupeService).markDelivered(events);
+        Mockito.verify(notificationDigestService).complete(new NotificationDigestService.Digest("a@x.com", events));
+        Assertions.assertEquals(3.0, meterRegistry.counter("notification.digest.events").count());
+    }
+
+    @Test
+    void shouldForwardEventsToRetryTopicWhenDigestFails() {
+        TransactionEvent first = event();
+        TransactionEvent second = event();
+        Mockito.when(notificationDigestService.drainDue(50))
+                .thenReturn(List.of(new NotificationDigestService.Digest("a@x.com", List.of(first, second))));
+        Mockito.when(emailTemplateService.buildDigestBody(Mockito.anyList())).thenReturn("digest");
+        Mockito.doThrow(new MailSendException("smtp down"))
+                .when(emailService).sendMails(Mockito.anyList());
+        Mockito.when(kafkaTemplate.send(Mockito.eq(TransactionEmailRetryConsumer.RETRY_TOPIC), Mockito.anyString(),
+                        Mockito.any(TransactionEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        flusher.flush();
+
+        Mockito.verify(kafkaTemplate).send(TransactionEmailRetryConsumer.RETRY_TOPIC, first.getTransactionId().toString(), first);
+        Mockito.verify(kafkaTemplate).send(TransactionEmailRetryConsumer.RETRY_TOPIC, second.getTransactionId().toString(), second);
+        Mockito.verify(notificationDigestService).complete(Mockito.any());
+        Mockito.verifyNoInteractions(notificationDedupeService);
+    }
+
+    @Test
+    void shouldRequeueDigestWhenEventsCannotBeForwarded() {
+        NotificationDigestService.Digest digest = new NotificationDigestService.Digest("a@x.com", List.of(event()));
+        Mockito.when(notificationDigestService.drainDue(50)).thenReturn(List.of(digest));
+        Mockito.when(emailTemplateService.buildDigestBody(Mockito.anyList())).thenReturn("digest");
+        Mockito.doThrow(new MailSendException("smtp down"))
+                .when(emailService).sendMails(Mockito.anyList());
+        Mockito.when(kafkaTemplate.send(Mockito.eq(TransactionEmailRetryConsumer.RETRY_TOPIC), Mockito.anyString(),
+                        Mockito.any(TransactionEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        flusher.flush();
+
+        Mockito.verify(notificationDigestService).requeue(digest);
+        Mockito.verify(notificationDigestService, Mockito.never()).complete(Mockito.any());
+    }
+
+    @Test
+    void shouldForwardOnlyDigestsWhoseMessageFailed() {
+        TransactionEvent sent = event();
+        TransactionEvent rejected = new TransactionEvent(UUID.randomUUID(), "b@x.com", BigDecimal.TEN,
+                OperationType.TRANSFER, TransactionType.CREDIT, TransactionStatus.SUCCESS, "ok");
+        Mockito.when(notificationDigestService.drainDue(50)).thenReturn(List.of(
+                new NotificationDigestService.Digest("a@x.com", List.of(sent)),
+                new NotificationDigestService.Digest("b@x.com", List.of(rejected))));
+        Mockito.when(emailTemplateService.buildDigestBody(Mockito.anyList())).thenReturn("body");
+        Mockito.doThrow(new MailSendException(Map.of(message("b@x.com", "Transaction Update", "body"),
+                        new RuntimeException("mailbox unavailable"))))
+                .when(emailService).sendMails(Mockito.anyList());
+        Mockito.when(kafkaTemplate.send(TransactionEmailRetryConsumer.RETRY_TOPIC,
+                        rejected.getTransactionId().toString(), rejected))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        flusher.flush();
+
+        Mockito.verify(notificationDedupeService).markDelivered(List.of(sent));
+        Mockito.verify(kafkaTemplate, Mockito.never()).send(TransactionEmailRetryConsumer.RETRY_TOPIC,
+                sent.getTransactionId().toString(), sent);
+    }
+
+    private SimpleMailMessage message(String to, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(body);
+        return message;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.model.OutboxEvent;
+import com.ritik.customer_microservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 3);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+        relay.registerMetrics();
+
+        Mockito.lenient().when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Mockito.lenient().when(outboxEventRepository.findOldestUnpublishedCreatedAt()).thenReturn(Optional.empty());
+    }
+
+    private OutboxEvent outboxEvent(long id) throws Exception {
+        TransactionEvent event = new TransactionEvent(
+                UUID.randomUUID(), "test@gmail.com", BigDecimal.valueOf(id), OperationType.DEPOSIT,
+                TransactionType.CREDIT, TransactionStatus.SUCCESS, "Deposit successful");
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setOutboxId(id);
+        outboxEvent.setTopic("transaction-events");
+        outboxEvent.setEventKey(event.getTransactionId().toString());
+        outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        return outboxEvent;
+    }
+
+    private CompletableFuture<SendResult<String, TransactionEvent>> acked(long offset) {
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("transaction-events", 0), offset, 0, 0L, 0, 0);
+        return CompletableFuture.completedFuture(new SendResult<>(new ProducerRecord<>("transaction-events", null), metadata));
+    }
+
+    @Test
+    void shouldSendBatchInOrderAndMarkPublished() throws Exception {
+        OutboxEvent first = outboxEvent(1);
+        OutboxEvent second = outboxEvent(2);
+        Mockito.when(outboxEventRepository.lockUnpublishedBatch(Mockito.eq(3), Mockito.any(LocalDateTime.class))).thenReturn(List.of(first, second));
+        Mockito.when(kafkaTemplate.send(Mockito.eq("transaction-events"), Mockito.anyString(), Mockito.any(TransactionEvent.class)))
+                .thenReturn(acked(10), acked(11));
+
+        relay.relay();
+
+        InOrder inOrder = Mockito.inOrder(kafkaTemplate, outboxEventRepository);
+        inOrder.verify(outboxEventRepository).claim(Mockito.eq(List.of(1L, 2L)), Mockito.any(LocalDateTime.class));
+        inOrder.verify(kafkaTemplate).send(Mockito.eq("transaction-events"), Mockito.eq(first.getEventKey()), Mockito.any(TransactionEvent.class));
+        inOrder.verify(kafkaTemplate).send(Mockito.eq("transaction-events"), Mockito.eq(second.getEventKey()), Mockito.any(TransactionEvent.class));
+        inOrder.verify(kafkaTemplate).flush();
+        inOrder.verify(outboxEventRepository).markPublished(Mockito.eq(List.of(1L, 2L)), Mockito.any(LocalDateTime.class));
+
+        Assertions.assertEquals(2.0, meterRegistry.counter("outbox.published").count());
+        Assertions.assertEquals(11.0, meterRegistry.get("outbox.partition.offset").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStopAtFirstFailedSendAndKeepRestUnpublished() throws Exception {
+        Mockito.when(outboxEventRepository.lockUnpublishedBatch(Mockito.eq(3), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(outboxEvent(1), outboxEvent(2), outboxEvent(3)));
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(TransactionEvent.class)))
+                .thenReturn(acked(10), CompletableFuture.failedFuture(new RuntimeException("broker down")), acked(12));
+
+        relay.relay();
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(outboxEventRepository).markPublished(ids.capture(), Mockito.any(LocalDateTime.class));
+        Assertions.assertEquals(List.of(1L), ids.getValue());
+        Mockito.verify(outboxEventRepository).releaseClaims(List.of(2L, 3L));
+        Assertions.assertEquals(1.0, meterRegistry.counter("outbox.send.failed").count());
+    }
+
+    @Test
+    void shouldDeadLetterUnreadablePayloadAndSendTheRest() throws Exception {
+        OutboxEvent unreadable = outboxEvent(2);
+        unreadable.setPayload("{not json");
+        Mockito.when(outboxEventRepository.lockUnpublishedBatch(Mockito.eq(3), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(outboxEvent(1), unreadable));
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(TransactionEvent.class)))
+                .thenReturn(acked(10));
+
+        relay.relay();
+
+        Mockito.verify(kafkaTemplate, Mockito.times(1)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(TransactionEvent.class));
+        Mockito.verify(outboxEventRepository).markPublished(Mockito.eq(List.of(1L)), Mockito.any(LocalDateTime.class));
+        Mockito.verify(outboxEventRepository).markDeadLettered(Mockito.eq(List.of(2L)), Mockito.any(LocalDateTime.class));
+        Mockito.verify(outboxEventRepository, Mockito.never()).releaseClaims(Mockito.any());
+        Assertions.assertEquals(1.0, meterRegistry.counter("outbox.dead.lettered").count());
+    }
+
+    @Test
+    void shouldKeepDrainingWhileBatchesAreFull() throws Exception {
+        Mockito.when(outboxEventRepository.lockUnpublishedBatch(Mockito.eq(3), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(outboxEvent(1), outboxEvent(2), outboxEvent(3)))
+                .thenReturn(List.of(outboxEvent(4)));
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(TransactionEvent.class)))
+                .thenReturn(acked(1), acked(2), acked(3), acked(4));
+
+        relay.relay();
+
+        Mockito.verify(outboxEventRepository, Mockito.times(2)).lockUnpublishedBatch(Mockito.eq(3), Mockito.any(LocalDateTime.class));
+        Mockito.verify(outboxEventRepository, Mockito.times(2)).markPublished(Mockito.any(), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldDoNothingWhenOutboxIsEmpty() {
+        Mockito.when(outboxEventRepository.lockUnpublishedBatch(Mockito.eq(3), Mockito.any(LocalDateTime.class))).thenReturn(List.of());
+
+        relay.relay();
+
+        Mockito.verifyNoInteractions(kafkaTemplate);
+        Mockito.verify(outboxEventRepository, Mockito.never()).markPublished(Mockito.any(), Mockito.any());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ritik.customer_microservice.scheduler;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.model.Transaction;
+import com.ritik.customer_microservice.repository.TransactionRepository;
+import com.ritik.customer_microservice.serviceImpl.CacheGenerationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class PendingTransactionSweeperTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheGenerationService cacheGenerationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Captor
+    private ArgumentCaptor<List<UUID>> ownerIds;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PendingTransactionSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new PendingTransactionSweeper(transactionRepository, eventPublisher, cacheGenerationService,
+                transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "expiryMinutes", 15L);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        ReflectionTestUtils.setField(sweeper, "maxBatchesPerRun", 5);
+
+        Mockito.lenient().when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private Transaction pending(long accountNum) {
+        Transaction tx = new Transaction();
+        tx.setTransactionId(UUID.randomUUID());
+        tx.setAccountNum(accountNum);
+        tx.setAmount(BigDecimal.TEN);
+        tx.setOperationType(OperationType.WITHDRAW);
+        tx.setTransactionType(TransactionType.DEBIT);
+        tx.setTransactionStatus(TransactionStatus.PENDING);
+        tx.setCreatedAt(LocalDateTime.now().minusHours(1));
+        return tx;
+    }
+
+    private List<Object[]> owners(List<Transaction> txs) {
+        List<Object[]> rows = new ArrayList<>();
+        txs.forEach(tx -> rows.add(new Object[]{tx.getTransactionId(), "a@x.com"}));
+        return rows;
+    }
+
+    @Test
+    void shouldFailClaimedRowsBatchByBatchUntilShortBatch() {
+        List<Transaction> first = List.of(pending(111L), pending(111L));
+        List<Transaction> second = List.of(pending(222L));
+
+        Mockito.when(transactionRepository.lockExpiredPending(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(first)
+                .thenReturn(second);
+        Mockito.when(transactionRepository.findOwnerEmails(ownerIds.capture()))
+                .thenReturn(owners(first))
+                .thenReturn(owners(second));
+
+        sweeper.sweep();
+
+        Mockito.verify(transactionRepository, Mockito.times(2)).lockExpiredPending(Mockito.any(), Mockito.eq(2));
+        Assertions.assertEquals(List.of(first.get(0).getTransactionId(), first.get(1).getTransactionId()),
+                ownerIds.getAllValues().get(0));
+        Assertions.assertEquals(List.of(second.get(0).getTransactionId()), ownerIds.getAllValues().get(1));
+        first.forEach(tx -> Assertions.assertEquals(TransactionStatus.FAILED, tx.getTransactionStatus()));
+        Assertions.assertEquals(TransactionStatus.FAILED, second.get(0).getTransactionStatus());
+
+        ArgumentCaptor<TransactionEvent> events = ArgumentCaptor.forClass(TransactionEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(events.capture());
+        events.getAllValues().forEach(event -> {
+            Assertions.assertEquals(TransactionStatus.FAILED, event.getStatus());
+            Assertions.assertEquals("a@x.com", event.getEmail());
+        });
+
+        // One invalidation per account per batch
+        Mockito.verify(cacheGenerationService).invalidate("a@x.com", 111L, null);
+        Mockito.verify(cacheGenerationService).invalidate("a@x.com", 222L, null);
+        Assertions.assertEquals(3.0, meterRegistry.counter("transaction.pending.expired").count());
+    }
+
+    @Test
+    void shouldStopAfterMaxBatchesPerRun() {
+        ReflectionTestUtils.setField(sweeper, "maxBatchesPerRun", 2);
+
+        Mockito.when(transactionRepository.lockExpiredPending(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenAnswer(invocation -> List.of(pending(111L), pending(111L)));
+        Mockito.when(transactionRepository.findOwnerEmails(Mockito.anyList())).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        Mockito.verify(transactionTemplate, Mockito.times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        ReflectionTestUtils.setField(sweeper, "enabled", false);
+
+        sweeper.sweep();
+
+        Mockito.verifyNoInteractions(transactionRepository, transactionTemplate, eventPublisher);
+    }
+}
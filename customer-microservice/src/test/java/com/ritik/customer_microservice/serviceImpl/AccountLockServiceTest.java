@@ -0,0 +1,100 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.AccountNotFoundException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLockServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private AccountLockService accountLockService;
+
+    private Account account(Long accountNum) {
+        Account account = new Account();
+        account.setAccountNum(accountNum);
+        return account;
+    }
+
+    @Test
+    void shouldLockAccountsInAscendingAccountNumOrder() {
+        Account low = account(100L);
+        Account high = account(900L);
+
+        Mockito.when(accountRepository.lockAllByAccountNumInOrder(List.of(100L, 900L)))
+                .thenReturn(List.of(low, high));
+
+        Map<Long, Account> forward = accountLockService.lockAccounts(List.of(100L, 900L));
+        Map<Long, Account> reverse = accountLockService.lockAccounts(List.of(900L, 100L));
+
+        Assertions.assertSame(high, forward.get(900L));
+        Assertions.assertSame(low, reverse.get(100L));
+        Mockito.verify(accountRepository, Mockito.times(2)).lockAllByAccountNumInOrder(List.of(100L, 900L));
+    }
+
+    @Test
+    void shouldIgnoreNullAndDuplicateAccountNums() {
+        Mockito.when(accountRepository.lockAllByAccountNumInOrder(List.of(100L)))
+                .thenReturn(List.of(account(100L)));
+
+        Map<Long, Account> locked = accountLockService.lockAccounts(Arrays.asList(100L, null, 100L));
+
+        Assertions.assertEquals(1, locked.size());
+    }
+
+    @Test
+    void shouldRestoreSessionLockWaitTimeoutAfterLocking() {
+        ReflectionTestUtils.setField(accountLockService, "lockWaitTimeoutSeconds", 3);
+        Mockito.when(accountRepository.getLockWaitTimeout()).thenReturn(50);
+        Mockito.when(accountRepository.lockAllByAccountNumInOrder(List.of(100L)))
+                .thenReturn(List.of(account(100L)));
+
+        accountLockService.lockAccounts(List.of(100L));
+
+        InOrder order = Mockito.inOrder(accountRepository);
+        order.verify(accountRepository).setLockWaitTimeout(3);
+        order.verify(accountRepository).lockAllByAccountNumInOrder(List.of(100L));
+        order.verify(accountRepository).setLockWaitTimeout(50);
+    }
+
+    @Test
+    void shouldRestoreSessionLockWaitTimeoutWhenWaitTimesOut() {
+        ReflectionTestUtils.setField(accountLockService, "lockWaitTimeoutSeconds", 3);
+        Mockito.when(accountRepository.getLockWaitTimeout()).thenReturn(50);
+        Mockito.when(accountRepository.lockAllByAccountNumInOrder(List.of(100L)))
+                .thenThrow(new PessimisticLockingFailureException("Lock wait timeout exceeded"));
+
+        Assertions.assertThrows(PessimisticLockingFailureException.class,
+                () -> accountLockService.lockAccounts(List.of(100L)));
+
+        Mockito.verify(accountRepository).setLockWaitTimeout(50);
+    }
+
+    @Test
+    void shouldThrowWhenAnyAccountIsMissing() {
+        Mockito.when(accountRepository.lockAllByAccountNumInOrder(List.of(100L, 900L)))
+                .thenReturn(List.of(account(100L)));
+
+        Assertions.assertThrows(
+                AccountNotFoundException.class,
+                () -> accountLockService.lockAccounts(List.of(900L, 100L))
+        );
+    }
+}
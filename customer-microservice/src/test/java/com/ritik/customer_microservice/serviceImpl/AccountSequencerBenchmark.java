@@ -0,0 +1,116 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Not picked up by surefire's default includes. Run with:
+//   mvn test -Dtest=AccountSequencerBenchmark
+// A MySQL commit on a hot row is simulated with a fixed fsync-like delay so the two write paths can be compared
+// without a database: lock-per-request pays one commit per deposit, the sequencer pays one commit per batch.
+class AccountSequencerBenchmark {
+
+    private static final long COMMIT_MICROS = 2_000;
+    private static final int OPS_PER_CLIENT = 200;
+    private static final long HOT_ACCOUNT = 123456789L;
+
+    @Test
+    void compareLockPerRequestWithSequencer() throws Exception {
+        System.out.printf("%-8s %20s %20s%n", "clients", "lock-per-request/s", "sequencer/s");
+
+        for (int clients : new int[]{1, 4, 16, 64}) {
+            double locked = lockPerRequest(clients);
+            double sequenced = sequenced(clients);
+            System.out.printf("%-8d %20.0f %20.0f%n", clients, locked, sequenced);
+        }
+    }
+
+    private double lockPerRequest(int clients) throws Exception {
+        ReentrantLock rowLock = new ReentrantLock(true);
+        long[] balance = {0};
+
+        return run(clients, () -> {
+            rowLock.lock();
+            try {
+                balance[0]++;
+                simulateCommit();
+            } finally {
+                rowLock.unlock();
+            }
+        });
+    }
+
+    private double sequenced(int clients) throws Exception {
+        AccountSequencer sequencer = new AccountSequencer(new SlowCommitTransactionManager());
+        ReflectionTestUtils.setField(sequencer, "enabled", true);
+        ReflectionTestUtils.setField(sequencer, "laneCount", 8);
+        ReflectionTestUtils.setField(sequencer, "maxBatch", 64);
+        ReflectionTestUtils.setField(sequencer, "queueCapacity", 10_000);
+        ReflectionTestUtils.setField(sequencer, "hotAccounts", Set.of());
+        sequencer.start();
+
+        long[] balance = {0};
+        try {
+            return run(clients, () -> sequencer.submit(HOT_ACCOUNT, () -> balance[0]++));
+        } finally {
+            sequencer.stop();
+        }
+    }
+
+    private double run(int clients, Runnable deposit) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < OPS_PER_CLIENT; j++) {
+                    deposit.run();
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        executor.shutdown();
+
+        return clients * OPS_PER_CLIENT / (elapsed / 1_000_000_000.0);
+    }
+
+    private static void simulateCommit() {
+        LockSupport.parkNanos(COMMIT_MICROS * 1_000);
+    }
+
+    private static final class SlowCommitTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            simulateCommit();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.InvalidAmountException;
+import com.ritik.customer_microservice.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountSequencerTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountSequencer accountSequencer;
+
+    private AccountSequencer start(int lanes, int queueCapacity, Set<Long> hotAccounts) {
+        accountSequencer = new AccountSequencer(transactionManager);
+        ReflectionTestUtils.setField(accountSequencer, "enabled", true);
+        ReflectionTestUtils.setField(accountSequencer, "laneCount", lanes);
+        ReflectionTestUtils.setField(accountSequencer, "maxBatch", 64);
+        ReflectionTestUtils.setField(accountSequencer, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(accountSequencer, "hotAccounts", hotAccounts);
+        ReflectionTestUtils.setField(accountSequencer, "resultTimeoutMs", 5000L);
+        accountSequencer.start();
+        return accountSequencer;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (accountSequencer != null) {
+            accountSequencer.stop();
+        }
+    }
+
+    @Test
+    void shouldNotSequenceWhenDisabled() {
+        AccountSequencer disabled = new AccountSequencer(transactionManager);
+        disabled.start();
+
+        Assertions.assertFalse(disabled.isSequenced(123L));
+    }
+
+    @Test
+    void shouldOnlySequenceConfiguredHotAccounts() {
+        start(2, 10, Set.of(123L));
+
+        Assertions.assertTrue(accountSequencer.isSequenced(123L));
+        Assertions.assertFalse(accountSequencer.isSequenced(456L));
+    }
+
+    @Test
+    void shouldApplyMutationsForOneAccountOneAtATime() throws Exception {
+        start(4, 1000, Set.of());
+
+        int clients = 16;
+        int perClient = 50;
+        int[] balance = {0};
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < perClient; j++) {
+                    // Non-atomic on purpose: a lost update means two writers ran concurrently
+                    accountSequencer.submit(123L, () -> balance[0]++);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(clients * perClient, balance[0]);
+    }
+
+    @Test
+    void shouldIsolateFailedMutationFromRestOfBatch() throws Exception {
+        start(1, 100, Set.of());
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<String> first = executor.submit(() -> accountSequencer.submit(1L, () -> {
+            blocking.countDown();
+            await(release);
+            return "first";
+        }));
+        blocking.await(5, TimeUnit.SECONDS);
+
+        // These three queue up behind the blocked command and are drained as one batch
+        Future<String> good = executor.submit(() -> accountSequencer.submit(1L, () -> "good"));
+        Future<String> bad = executor.submit(() -> accountSequencer.<String>submit(1L, () -> {
+            throw new InvalidAmountException("bad amount");
+        }));
+        Future<String> alsoGood = executor.submit(() -> accountSequencer.submit(1L, () -> "also-good"));
+        Thread.sleep(100);
+        release.countDown();
+
+        Assertions.assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("good", good.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("also-good", alsoGood.get(5, TimeUnit.SECONDS));
+
+        ExecutionException ex = Assertions.assertThrows(ExecutionException.class,
+                () -> bad.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(InvalidAmountException.class, ex.getCause());
+
+        Mockito.verify(transactionManager, Mockito.atLeastOnce()).rollback(Mockito.any());
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRejectWhenLaneQueueIsFull() throws Exception {
+        start(1, 1, Set.of());
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<Object> running = executor.submit(() -> accountSequencer.submit(1L, () -> {
+            blocking.countDown();
+            await(release);
+            return null;
+        }));
+        blocking.await(5, TimeUnit.SECONDS);
+
+        Future<Object> queued = executor.submit(() -> accountSequencer.submit(1L, () -> null));
+        Thread.sleep(100);
+
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> accountSequencer.submit(1L, () -> null));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRejectSubmissionsAfterStop() {
+        start(1, 10, Set.of());
+        accountSequencer.stop();
+
+        Assertions.assertFalse(accountSequencer.isSequenced(1L));
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> accountSequencer.submit(1L, () -> "late"));
+    }
+
+    @Test
+    void shouldFailPendingCommandsWhenLaneDiesOnError() throws Exception {
+        start(1, 100, Set.of());
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<Object> dying = executor.submit(() -> accountSequencer.submit(1L, () -> {
+            blocking.countDown();
+            await(release);
+            throw new StackOverflowError("lane killer");
+        }));
+        blocking.await(5, TimeUnit.SECONDS);
+
+        Future<String> queued = executor.submit(() -> accountSequencer.submit(1L, () -> "queued"));
+        Thread.sleep(100);
+        release.countDown();
+
+        ExecutionException dyingEx = Assertions.assertThrows(ExecutionException.class,
+                () -> dying.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(ServiceUnavailableException.class, dyingEx.getCause());
+
+        ExecutionException queuedEx = Assertions.assertThrows(ExecutionException.class,
+                () -> queued.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(ServiceUnavailableException.class, queuedEx.getCause());
+
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> accountSequencer.submit(1L, () -> "after"));
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldSkipCommandAbandonedAfterTimeout() throws Exception {
+        start(1, 100, Set.of());
+        ReflectionTestUtils.setField(accountSequencer, "resultTimeoutMs", 200L);
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        boolean[] applied = {false};
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<Object> running = executor.submit(() -> accountSequencer.submit(1L, () -> {
+            blocking.countDown();
+            await(release);
+            return null;
+        }));
+        blocking.await(5, TimeUnit.SECONDS);
+
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> accountSequencer.submit(1L, () -> applied[0] = true));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("next", accountSequencer.submit(1L, () -> "next"));
+        Assertions.assertFalse(applied[0]);
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldWaitForOutcomeOfCommandAlreadyRunningAtTimeout() {
+        start(1, 100, Set.of());
+        ReflectionTestUtils.setField(accountSequencer, "resultTimeoutMs", 100L);
+
+        String result = accountSequencer.submit(1L, () -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "committed";
+        });
+
+        Assertions.assertEquals("committed", result);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
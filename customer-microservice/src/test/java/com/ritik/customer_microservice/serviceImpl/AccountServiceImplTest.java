@@ -46,6 +46,12 @@ class AccountServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private HotAccountService hotAccountService;
+
+    @Mock
+    private CacheGenerationService cacheGenerationService;
+
 
     @InjectMocks
     private AccountServiceImpl accountService;
@@ -192,6 +198,27 @@ class AccountServiceImplTest {
         Mockito.verify(accountRepository, Mockito.never()).save(Mockito.any());
     }
 
+    @Test
+    void shouldIncludeBalanceBucketsWhenCheckingHotAccountBalance() {
+        // Arrange
+        String email = "test@gmail.com";
+        account.setHotAccount(true);
+        account.setBucketCount(4);
+
+        Mockito.when(customerRepository.findByEmail(email)).thenReturn(Optional.of(customer));
+
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(
+                1234567890L, customer.getCustomerId())).thenReturn(Optional.of(account));
+
+        Mockito.when(hotAccountService.balance(account)).thenReturn(BigDecimal.valueOf(750));
+
+        // Act
+        AccountBalanceDTO response = accountService.checkBalance(email, 1234567890L);
+
+        // Assert
+        Assertions.assertEquals(BigDecimal.valueOf(750), response.getAccountBalance());
+    }
+
     @Test
     void shouldThrowExceptionWhenCustomerNotFoundDuringCheckBalance() {
 
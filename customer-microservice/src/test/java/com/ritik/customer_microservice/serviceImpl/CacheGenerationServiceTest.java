@@ -0,0 +1,81 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class CacheGenerationServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private CacheGenerationService cacheGenerationService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReadAccountGenerationOrCustomerGenerationForAllAccounts() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.get("customer-ms::gen::account::123456789")).thenReturn("7");
+
+        Assertions.assertEquals("7", cacheGenerationService.of("test@gmail.com", 123456789L));
+        Assertions.assertEquals("0", cacheGenerationService.of("test@gmail.com", null));
+
+        Mockito.verify(valueOperations).get("customer-ms::gen::customer::test@gmail.com");
+    }
+
+    @Test
+    void shouldMissCacheWhenGenerationUnavailable() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.get(Mockito.anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertNotEquals(cacheGenerationService.bank(1L), cacheGenerationService.bank(1L));
+    }
+
+    @Test
+    void shouldBumpEveryScopeAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheGenerationService.invalidate("test@gmail.com", 123456789L, 1L);
+
+        Mockito.verifyNoInteractions(redisTemplate);
+
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        Mockito.verify(valueOperations).increment("customer-ms::gen::customer::test@gmail.com");
+        Mockito.verify(valueOperations).increment("customer-ms::gen::account::123456789");
+        Mockito.verify(valueOperations).increment("customer-ms::gen::bank::1");
+    }
+
+    @Test
+    void shouldStillBumpRemainingScopesWhenOneFails() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.increment("customer-ms::gen::customer::test@gmail.com"))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        cacheGenerationService.invalidate("test@gmail.com", 123456789L, null);
+
+        Mockito.verify(valueOperations).increment("customer-ms::gen::account::123456789");
+    }
+}
@@ -0,0 +1,205 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.wrapper.HistoryCursor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+class ColdSegmentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final UUID firstAccount = UUID.fromString("00000000-0000-7000-8000-000000000001");
+    private final UUID secondAccount = UUID.fromString("f0000000-0000-7000-8000-000000000002");
+
+    private ColdSegmentStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+    }
+
+    private ColdSegmentStore newStore() {
+        return newStore(1L << 30);
+    }
+
+    private ColdSegmentStore newStore(long mapWindowBytes) {
+        ColdSegmentStore segmentStore = new ColdSegmentStore();
+        ReflectionTestUtils.setField(segmentStore, "enabled", true);
+        ReflectionTestUtils.setField(segmentStore, "directory", directory.toString());
+        ReflectionTestUtils.setField(segmentStore, "shared", true);
+        ReflectionTestUtils.setField(segmentStore, "refreshMs", 60_000L);
+        ReflectionTestUtils.setField(segmentStore, "blockRows", 2);
+        ReflectionTestUtils.setField(segmentStore, "mapWindowBytes", mapWindowBytes);
+        segmentStore.loadSegments();
+        return segmentStore;
+    }
+
+    private TransactionHistoryDTO row(int day, String amount) {
+        return new TransactionHistoryDTO(
+                UUID.randomUUID(),
+                TransactionType.CREDIT,
+                OperationType.DEPOSIT,
+                new BigDecimal(amount),
+                day % 2 == 0 ? null : new BigDecimal("1000.50"),
+                TransactionStatus.SUCCESS,
+                LocalDateTime.of(2025, 3, day, 10, 15, 30, 123_456_000)
+        );
+    }
+
+    private List<TransactionHistoryDTO> writeMarch() {
+        List<TransactionHistoryDTO> first = List.of(row(1, "10.00"), row(4, "20.00"), row(9, "30.00"), row(20, "40.00"));
+        try (ColdSegmentStore.SegmentWriter writer = store.writer(YearMonth.of(2025, 3))) {
+            first.forEach(row -> writer.append(firstAccount, row));
+            writer.append(secondAccount, row(5, "99.99"));
+            Assertions.assertEquals(5, writer.commit());
+        }
+        return first;
+    }
+
+    @Test
+    void shouldReadAccountRangeAcrossBlocks() {
+        List<TransactionHistoryDTO> written = writeMarch();
+
+        List<TransactionHistoryDTO> rows = store.statement(
+                firstAccount, LocalDateTime.of(2025, 3, 4, 0, 0), LocalDateTime.of(2025, 3, 20, 0, 0)).toList();
+
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals(written.get(1).getTransactionId(), rows.get(0).getTransactionId());
+        Assertions.assertEquals(written.get(1).getCreatedAt(), rows.get(0).getCreatedAt());
+        Assertions.assertNull(rows.get(0).getClosingBalance());
+        Assertions.assertEquals(new BigDecimal("30.00"), rows.get(1).getAmount());
+        Assertions.assertEquals(new BigDecimal("1000.50"), rows.get(1).getClosingBalance());
+        Assertions.assertEquals(5, store.count(List.of(firstAccount, secondAccount), LocalDateTime.MAX));
+    }
+
+    @Test
+    void shouldPageNewestFirstAcrossAccountsFromCursor() {
+        List<TransactionHistoryDTO> written = writeMarch();
+
+        List<TransactionHistoryDTO> newest = store.newestFirst(List.of(firstAccount, secondAccount), null, LocalDateTime.MAX).toList();
+
+        Assertions.assertEquals(5, newest.size());
+        Assertions.assertEquals(written.get(3).getTransactionId(), newest.get(0).getTransactionId());
+        Assertions.assertEquals(new BigDecimal("99.99"), newest.get(2).getAmount());
+
+        TransactionHistoryDTO tail = newest.get(1);
+        List<TransactionHistoryDTO> next = store.newestFirst(
+                List.of(firstAccount), new HistoryCursor(tail.getCreatedAt(), tail.getTransactionId()), LocalDateTime.MAX).toList();
+
+        Assertions.assertEquals(List.of(written.get(1).getTransactionId(), written.get(0).getTransactionId()),
+                next.stream().map(TransactionHistoryDTO::getTransactionId).toList());
+    }
+
+    @Test
+    void shouldReloadCommittedSegmentsAndIgnoreAbandonedWrites() throws Exception {
+        writeMarch();
+        try (ColdSegmentStore.SegmentWriter writer = store.writer(YearMonth.of(2025, 4))) {
+            writer.append(firstAccount, row(2, "5.00"));
+        }
+
+        ColdSegmentStore reloaded = newStore();
+
+        Assertions.assertEquals(4, reloaded.count(List.of(firstAccount), LocalDateTime.MAX));
+        Assertions.assertFalse(Files.exists(directory.resolve("transactions-202504.seg.tmp")));
+        Assertions.assertFalse(Files.exists(directory.resolve("transactions-202504.seg")));
+    }
+
+    @Test
+    void shouldSkipMonthsStillInTransactionsTable() {
+        writeMarch();
+
+        Assertions.assertEquals(0, store.count(List.of(firstAccount), LocalDateTime.of(2025, 3, 15, 0, 0)));
+        Assertions.assertEquals(4, store.count(List.of(firstAccount), LocalDateTime.of(2025, 4, 1, 0, 0)));
+        Assertions.assertEquals(0, store.newestFirst(List.of(firstAccount), null, LocalDateTime.of(2025, 3, 1, 0, 0)).count());
+    }
+
+    @Test
+    void shouldPickUpSegmentsWrittenByAnotherInstance() {
+        ColdSegmentStore other = newStore();
+        writeMarch();
+
+        Assertions.assertTrue(other.isEmpty());
+
+        other.refresh();
+
+        Assertions.assertEquals(4, other.count(List.of(firstAccount), LocalDateTime.MAX));
+        Assertions.assertFalse(store.visibleToAllReaders(YearMonth.of(2025, 3)));
+    }
+
+    @Test
+    void shouldReadSegmentMappedInWindows() {
+        writeMarch();
+
+        ColdSegmentStore windowed = newStore(64);
+
+        Assertions.assertEquals(5, windowed.count(List.of(firstAccount, secondAccount), LocalDateTime.MAX));
+        Assertions.assertEquals(4, windowed.statement(
+                firstAccount, LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0)).count());
+    }
+
+    @Test
+    void shouldSkipUnreadableSegmentFilesAndLoadTheRest() throws Exception {
+        writeMarch();
+        Files.write(directory.resolve("transactions-202504.seg"), new byte[]{1, 2, 3});
+        Files.write(directory.resolve("transactions-bogus.seg"), new byte[64]);
+
+        ColdSegmentStore reloaded = newStore();
+
+        Assertions.assertTrue(reloaded.contains(YearMonth.of(2025, 3)));
+        Assertions.assertFalse(reloaded.contains(YearMonth.of(2025, 4)));
+        Assertions.assertEquals(4, reloaded.count(List.of(firstAccount), LocalDateTime.MAX));
+    }
+
+    @Test
+    void shouldFailOnTruncatedBlockInsteadOfSpinning() throws Exception {
+        writeMarch();
+        Path file = directory.resolve("transactions-202503.seg");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer footer = ByteBuffer.allocate(8);
+            channel.read(footer, channel.size() - 16);
+            long indexOffset = footer.flip().getLong();
+            // First block's compressed length: one byte cannot inflate to the block's rows
+            channel.write(ByteBuffer.allocate(4).putInt(1).flip(), indexOffset + 40);
+        }
+
+        ColdSegmentStore reloaded = newStore();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> Assertions.assertThrows(UncheckedIOException.class,
+                () -> reloaded.statement(firstAccount, LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0)).toList()));
+    }
+
+    @Test
+    void shouldRefuseToStartWithoutSharedDirectory() {
+        ColdSegmentStore local = new ColdSegmentStore();
+        ReflectionTestUtils.setField(local, "enabled", true);
+        ReflectionTestUtils.setField(local, "directory", directory.toString());
+
+        Assertions.assertThrows(IllegalStateException.class, local::loadSegments);
+
+        ReflectionTestUtils.setField(local, "shared", true);
+        ReflectionTestUtils.setField(local, "directory", "");
+
+        Assertions.assertThrows(IllegalStateException.class, local::loadSegments);
+    }
+}
@@ -9,12 +9,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.util.List;
+
 @ExtendWith(MockitoExtension.class)
 class EmailServiceImplTest {
 
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private SmtpTransportPool smtpTransportPool;
+
     @InjectMocks
     private EmailServiceImpl emailService;
 
@@ -32,4 +37,24 @@ class EmailServiceImplTest {
         Mockito.verify(mailSender).send(Mockito.any(SimpleMailMessage.class));
     }
 
+    @Test
+    void shouldSendThroughPoolWhenEnabled() {
+        Mockito.when(smtpTransportPool.enabled()).thenReturn(true);
+
+        emailService.sendMail("test@gmail.com", "Test Subject", "Test email body");
+
+        Mockito.verify(smtpTransportPool).send(Mockito.any(SimpleMailMessage.class));
+        Mockito.verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void shouldSendBatchOverOnePooledSession() {
+        Mockito.when(smtpTransportPool.enabled()).thenReturn(true);
+        List<SimpleMailMessage> messages = List.of(new SimpleMailMessage(), new SimpleMailMessage());
+
+        emailService.sendMails(messages);
+
+        Mockito.verify(smtpTransportPool).send(messages);
+        Mockito.verifyNoInteractions(mailSender);
+    }
 }
@@ -0,0 +1,179 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.InsufficientBalanceException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.model.AccountBalanceBucket;
+import com.ritik.customer_microservice.repository.AccountBalanceBucketRepository;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class HotAccountServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountBalanceBucketRepository bucketRepository;
+
+    @InjectMocks
+    private HotAccountService hotAccountService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hotAccountService, "maxBuckets", 64);
+
+        account = new Account();
+        account.setAccountId(UUID.randomUUID());
+        account.setAccountNum(123456789L);
+        account.setAmount(BigDecimal.valueOf(100));
+        account.setHotAccount(true);
+        account.setBucketCount(4);
+    }
+
+    private AccountBalanceBucket bucket(int bucketNo, long amount) {
+        AccountBalanceBucket bucket = new AccountBalanceBucket();
+        bucket.setAccountId(account.getAccountId());
+        bucket.setBucketNo(bucketNo);
+        bucket.setAmount(BigDecimal.valueOf(amount));
+        return bucket;
+    }
+
+    @Test
+    void shouldCreateMissingBucketsWhenEnabling() {
+        account.setHotAccount(false);
+        account.setBucketCount(0);
+
+        Mockito.when(accountRepository.lockAllByAccountNumInOrder(List.of(123456789L))).thenReturn(List.of(account));
+        Mockito.when(bucketRepository.findBucketNos(account.getAccountId())).thenReturn(List.of(0));
+
+        hotAccountService.enable(123456789L, 4);
+
+        Mockito.verify(bucketRepository, Mockito.times(3)).save(Mockito.any(AccountBalanceBucket.class));
+        Assertions.assertTrue(account.isHotAccount());
+        Assertions.assertEquals(4, account.getBucketCount());
+    }
+
+    @Test
+    void shouldReadHotFlagFromAccountRow() {
+        Mockito.when(accountRepository.findHotAccountFlag(123456789L)).thenReturn(Optional.of(true));
+        Mockito.when(accountRepository.findHotAccountFlag(987654321L)).thenReturn(Optional.empty());
+
+        Assertions.assertTrue(hotAccountService.isHot(123456789L));
+        Assertions.assertFalse(hotAccountService.isHot(987654321L));
+    }
+
+    @Test
+    void shouldRejectInvalidBucketCount() {
+        Assertions.assertThrows(BadRequestException.class, () -> hotAccountService.enable(123456789L, 0));
+
+        Mockito.verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldCreditOneBucketWithinRange() {
+        Mockito.when(accountRepository.lockShared(123456789L)).thenReturn(Optional.of(123456789L));
+        Mockito.when(bucketRepository.credit(Mockito.eq(account.getAccountId()), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(1);
+
+        hotAccountService.credit(account, BigDecimal.TEN);
+
+        Mockito.verify(bucketRepository).credit(
+                Mockito.eq(account.getAccountId()),
+                Mockito.intThat(bucketNo -> bucketNo >= 0 && bucketNo < 4),
+                Mockito.eq(BigDecimal.TEN)
+        );
+        Assertions.assertEquals(BigDecimal.valueOf(100), account.getAmount());
+
+        // Row before bucket, the order debit() locks in
+        InOrder order = Mockito.inOrder(accountRepository, bucketRepository);
+        order.verify(accountRepository).lockShared(123456789L);
+        order.verify(bucketRepository).credit(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void shouldReadBalanceFromDatabase() {
+        Mockito.when(bucketRepository.totalBalance(account.getAccountId())).thenReturn(BigDecimal.valueOf(350));
+
+        Assertions.assertEquals(BigDecimal.valueOf(350), hotAccountService.balance(account));
+    }
+
+    @Test
+    void shouldDebitAccountRowWhenItCoversTheAmount() {
+        Mockito.when(accountRepository.debitIfSufficient(123456789L, BigDecimal.valueOf(40)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(60)));
+        Mockito.when(bucketRepository.totalBalance(account.getAccountId())).thenReturn(BigDecimal.valueOf(110));
+
+        BigDecimal closing = hotAccountService.debit(account, BigDecimal.valueOf(40));
+
+        Assertions.assertEquals(BigDecimal.valueOf(110), closing);
+        Mockito.verify(bucketRepository, Mockito.never()).debitIfSufficient(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void shouldDebitSingleBucketWhenAccountRowIsShort() {
+        Mockito.when(accountRepository.debitIfSufficient(123456789L, BigDecimal.valueOf(200)))
+                .thenReturn(Optional.empty());
+        Mockito.when(bucketRepository.debitIfSufficient(Mockito.eq(account.getAccountId()), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(1);
+        Mockito.when(bucketRepository.totalBalance(account.getAccountId())).thenReturn(BigDecimal.valueOf(400));
+
+        BigDecimal closing = hotAccountService.debit(account, BigDecimal.valueOf(200));
+
+        Assertions.assertEquals(BigDecimal.valueOf(400), closing);
+        Mockito.verify(bucketRepository, Mockito.never()).lockAllByAccountId(Mockito.any());
+    }
+
+    @Test
+    void shouldConsolidateBucketsWhenNoSingleBucketCoversTheAmount() {
+        AccountBalanceBucket first = bucket(0, 150);
+        AccountBalanceBucket second = bucket(1, 150);
+
+        Mockito.when(accountRepository.debitIfSufficient(123456789L, BigDecimal.valueOf(350)))
+                .thenReturn(Optional.empty(), Optional.of(BigDecimal.valueOf(50)));
+        Mockito.when(bucketRepository.debitIfSufficient(Mockito.eq(account.getAccountId()), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(0);
+        Mockito.when(bucketRepository.lockAllByAccountId(account.getAccountId())).thenReturn(List.of(first, second));
+        Mockito.when(accountRepository.credit(123456789L, BigDecimal.valueOf(300)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(400)));
+
+        BigDecimal closing = hotAccountService.debit(account, BigDecimal.valueOf(350));
+
+        Assertions.assertEquals(BigDecimal.valueOf(50), closing);
+        Assertions.assertEquals(BigDecimal.ZERO, first.getAmount());
+        Assertions.assertEquals(BigDecimal.ZERO, second.getAmount());
+        Mockito.verify(bucketRepository, Mockito.times(4))
+                .debitIfSufficient(Mockito.eq(account.getAccountId()), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void shouldThrowWhenConsolidatedBalanceIsInsufficient() {
+        Mockito.when(accountRepository.debitIfSufficient(123456789L, BigDecimal.valueOf(500)))
+                .thenReturn(Optional.empty());
+        Mockito.when(bucketRepository.debitIfSufficient(Mockito.eq(account.getAccountId()), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(0);
+        Mockito.when(bucketRepository.lockAllByAccountId(account.getAccountId())).thenReturn(List.of(bucket(0, 100)));
+        Mockito.when(accountRepository.credit(123456789L, BigDecimal.valueOf(100)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(200)));
+
+        Assertions.assertThrows(InsufficientBalanceException.class,
+                () -> hotAccountService.debit(account, BigDecimal.valueOf(500)));
+    }
+}
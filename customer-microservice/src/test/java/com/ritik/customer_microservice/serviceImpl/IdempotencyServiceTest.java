@@ -0,0 +1,297 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionResponseDTO;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.IdempotencyConflictException;
+import com.ritik.customer_microservice.exception.InsufficientBalanceException;
+import com.ritik.customer_microservice.exception.RequestOutcomeUnknownException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyService idempotencyService;
+
+    private TransactionResponseDTO response;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTtlSeconds", 30L);
+        ReflectionTestUtils.setField(idempotencyService, "waitMs", 100L);
+        ReflectionTestUtils.setField(idempotencyService, "pollIntervalMs", 10L);
+
+        response = new TransactionResponseDTO();
+        response.setTransactionId(UUID.randomUUID());
+        response.setAmount(BigDecimal.valueOf(2000));
+        response.setTransactionStatus(TransactionStatus.SUCCESS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyService.stop();
+    }
+
+    private TransactionResponseDTO deposit() {
+        return idempotencyService.execute("test@gmail.com", "deposit", "key-1", List.of(123L, 2000),
+                TransactionResponseDTO.class, () -> {
+                    executions.incrementAndGet();
+                    return response;
+                });
+    }
+
+    private String stored(String state, Object fingerprintSource, Object body) throws Exception {
+        IdempotencyService other = new IdempotencyService(redisTemplate, objectMapper);
+        String fingerprint = ReflectionTestUtils.invokeMethod(other, "fingerprint", fingerprintSource);
+        String json = body == null ? null : objectMapper.writeValueAsString(body);
+        return objectMapper.writeValueAsString(new java.util.LinkedHashMap<>(java.util.Map.of(
+                "state", state,
+                "fingerprint", fingerprint,
+                "body", json == null ? "" : json
+        )));
+    }
+
+    @Test
+    void shouldExecuteDirectlyWithoutKey() {
+        TransactionResponseDTO result = idempotencyService.execute("test@gmail.com", "deposit", null, List.of(),
+                TransactionResponseDTO.class, () -> response);
+
+        Assertions.assertSame(response, result);
+        Mockito.verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldRejectOverlongKey() {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> idempotencyService.execute("test@gmail.com", "deposit", "x".repeat(129), List.of(),
+                        TransactionResponseDTO.class, () -> response));
+    }
+
+    @Test
+    void shouldExecuteAndStoreResponseWhenKeyIsNew() throws Exception {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+
+        TransactionResponseDTO result = deposit();
+
+        Assertions.assertSame(response, result);
+        Assertions.assertEquals(1, executions.get());
+
+        ArgumentCaptor<String> storedValue = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(valueOperations).set(
+                Mockito.eq("customer-ms::idempotency::deposit::test@gmail.com::key-1"),
+                storedValue.capture(),
+                Mockito.eq(Duration.ofHours(24))
+        );
+        Assertions.assertEquals("COMPLETED", objectMapper.readTree(storedValue.getValue()).get("state").asText());
+    }
+
+    @Test
+    void shouldReplayStoredResponseWithoutExecuting() throws Exception {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get("customer-ms::idempotency::deposit::test@gmail.com::key-1"))
+                .thenReturn(stored("COMPLETED", List.of(123L, 2000), response));
+
+        TransactionResponseDTO result = deposit();
+
+        Assertions.assertEquals(0, executions.get());
+        Assertions.assertEquals(response.getTransactionId(), result.getTransactionId());
+        Assertions.assertEquals(TransactionStatus.SUCCESS, result.getTransactionStatus());
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() throws Exception {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get(Mockito.anyString()))
+                .thenReturn(stored("COMPLETED", List.of(999L, 1), response));
+
+        Assertions.assertThrows(BadRequestException.class, this::deposit);
+        Assertions.assertEquals(0, executions.get());
+    }
+
+    @Test
+    void shouldGiveUpWaitingOnDuplicateStillInProgress() throws Exception {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get(Mockito.anyString()))
+                .thenReturn(stored("IN_PROGRESS", List.of(123L, 2000), null));
+
+        Assertions.assertThrows(IdempotencyConflictException.class, this::deposit);
+        Assertions.assertEquals(0, executions.get());
+    }
+
+    @Test
+    void shouldReleaseKeyWhenActionFails() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+
+        Assertions.assertThrows(InsufficientBalanceException.class,
+                () -> idempotencyService.execute("test@gmail.com", "deposit", "key-1", List.of(),
+                        TransactionResponseDTO.class, () -> {
+                            throw new InsufficientBalanceException("Insufficient balance");
+                        }));
+
+        Mockito.verify(redisTemplate).execute(
+                Mockito.<RedisScript<Long>>any(),
+                Mockito.eq(List.of("customer-ms::idempotency::deposit::test@gmail.com::key-1")),
+                Mockito.<Object>any()
+        );
+        Mockito.verify(valueOperations, Mockito.never()).set(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class));
+    }
+
+    @Test
+    void shouldKeepKeyClaimedWhenActionOutcomeIsUnknown() throws Exception {
+        String key = "customer-ms::idempotency::deposit::test@gmail.com::key-1";
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+
+        Assertions.assertThrows(TransactionSystemException.class,
+                () -> idempotencyService.execute("test@gmail.com", "deposit", "key-1", List.of(),
+                        TransactionResponseDTO.class, () -> {
+                            throw new TransactionSystemException("Commit failed");
+                        }));
+
+        ArgumentCaptor<String> storedValue = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(valueOperations).set(Mockito.eq(key), storedValue.capture(), Mockito.eq(Duration.ofHours(24)));
+        Assertions.assertEquals("UNRECORDED", objectMapper.readTree(storedValue.getValue()).get("state").asText());
+        Mockito.verify(redisTemplate, Mockito.never()).execute(
+                Mockito.<RedisScript<Long>>any(), Mockito.anyList(), Mockito.<Object>any());
+    }
+
+    @Test
+    void shouldNotReleaseKeyWhenSequencedCommandMayStillCommit() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+
+        Assertions.assertThrows(RequestOutcomeUnknownException.class,
+                () -> idempotencyService.execute("test@gmail.com", "deposit", "key-1", List.of(),
+                        TransactionResponseDTO.class, () -> {
+                            throw new RequestOutcomeUnknownException("Request interrupted. Please check its status.");
+                        }));
+
+        Mockito.verify(redisTemplate, Mockito.never()).execute(
+                Mockito.<RedisScript<Long>>any(), Mockito.anyList(), Mockito.<Object>any());
+    }
+
+    @Test
+    void shouldExecuteWhenStoredRecordCannotBeRead() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get(Mockito.anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertSame(response, deposit());
+        Assertions.assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldExecuteWhenStoreIsUnavailable() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertSame(response, deposit());
+        Assertions.assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldRenewClaimWhileSlowActionRuns() {
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTtlSeconds", 1L);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+
+        idempotencyService.execute("test@gmail.com", "deposit", "key-1", List.of(123L, 2000),
+                TransactionResponseDTO.class, () -> {
+                    try {
+                        Thread.sleep(800);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return response;
+                });
+
+        Mockito.verify(redisTemplate, Mockito.atLeastOnce()).execute(
+                Mockito.<RedisScript<Long>>any(),
+                Mockito.eq(List.of("customer-ms::idempotency::deposit::test@gmail.com::key-1")),
+                Mockito.any(),
+                Mockito.eq("1000")
+        );
+    }
+
+    @Test
+    void shouldMarkKeyUnrecordedWhenResponseCannotBeStored() throws Exception {
+        String key = "customer-ms::idempotency::deposit::test@gmail.com::key-1";
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+        Mockito.doThrow(new RedisConnectionFailureException("down"))
+                .doNothing()
+                .when(valueOperations).set(Mockito.eq(key), Mockito.anyString(), Mockito.eq(Duration.ofHours(24)));
+
+        Assertions.assertSame(response, deposit());
+
+        ArgumentCaptor<String> storedValue = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(valueOperations, Mockito.times(2)).set(
+                Mockito.eq(key),
+                storedValue.capture(),
+                Mockito.eq(Duration.ofHours(24))
+        );
+        Assertions.assertEquals("UNRECORDED", objectMapper.readTree(storedValue.getValue()).get("state").asText());
+    }
+
+    @Test
+    void shouldRefuseDuplicateOfUnrecordedResponseWithoutExecuting() throws Exception {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get(Mockito.anyString()))
+                .thenReturn(stored("UNRECORDED", List.of(123L, 2000), null));
+
+        Assertions.assertThrows(IdempotencyConflictException.class, this::deposit);
+        Assertions.assertEquals(0, executions.get());
+    }
+}
@@ -0,0 +1,232 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.exception.InsufficientBalanceException;
+import com.ritik.customer_microservice.exception.LedgerConflictException;
+import com.ritik.customer_microservice.model.Account;
+import com.ritik.customer_microservice.model.BalanceSnapshot;
+import com.ritik.customer_microservice.model.LedgerEntry;
+import com.ritik.customer_microservice.model.LedgerHead;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import com.ritik.customer_microservice.repository.BalanceSnapshotRepository;
+import com.ritik.customer_microservice.repository.LedgerEntryRepository;
+import com.ritik.customer_microservice.repository.LedgerHeadRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceImplTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private LedgerHeadRepository ledgerHeadRepository;
+
+    @InjectMocks
+    private LedgerServiceImpl ledgerService;
+
+    private UUID accountId;
+    private BalanceSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+
+        snapshot = new BalanceSnapshot();
+        snapshot.setAccountId(accountId);
+        snapshot.setSequence(10L);
+        snapshot.setBalance(BigDecimal.valueOf(1000));
+        snapshot.setAsOf(LocalDateTime.now().minusHours(1));
+    }
+
+    @Test
+    void shouldAppendEntryWithNextSequenceAndReturnClosingBalance() {
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.findLastSequence(accountId)).thenReturn(Optional.of(12L));
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 10L, 12L))
+                .thenReturn(BigDecimal.valueOf(250));
+
+        BigDecimal closing = ledgerService.post(accountId, BigDecimal.valueOf(500), UUID.randomUUID());
+
+        Assertions.assertEquals(BigDecimal.valueOf(1750), closing);
+
+        ArgumentCaptor<LedgerEntry> captor = ArgumentCaptor.forClass(LedgerEntry.class);
+        Mockito.verify(ledgerEntryRepository).saveAndFlush(captor.capture());
+        Assertions.assertEquals(13L, captor.getValue().getSequence());
+        Assertions.assertEquals(BigDecimal.valueOf(500), captor.getValue().getAmount());
+    }
+
+    @Test
+    void shouldRejectDebitThatOverdrawsAccount() {
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.findLastSequence(accountId)).thenReturn(Optional.of(10L));
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 10L, 10L)).thenReturn(BigDecimal.ZERO);
+
+        Assertions.assertThrows(
+                InsufficientBalanceException.class,
+                () -> ledgerService.post(accountId, BigDecimal.valueOf(-1500), UUID.randomUUID())
+        );
+
+        Mockito.verify(ledgerEntryRepository, Mockito.never()).saveAndFlush(Mockito.any());
+    }
+
+    @Test
+    void shouldTranslateSequenceCollisionToLedgerConflict() {
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.findLastSequence(accountId)).thenReturn(Optional.of(10L));
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 10L, 10L)).thenReturn(BigDecimal.ZERO);
+        Mockito.when(ledgerEntryRepository.saveAndFlush(Mockito.any(LedgerEntry.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        Assertions.assertThrows(
+                LedgerConflictException.class,
+                () -> ledgerService.post(accountId, BigDecimal.TEN, UUID.randomUUID())
+        );
+    }
+
+    @Test
+    void shouldOpenLedgerFromAccountAmountOnFirstPosting() {
+        Account account = new Account();
+        account.setAccountId(accountId);
+        account.setAmount(BigDecimal.valueOf(300));
+
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.empty());
+        Mockito.when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
+        Mockito.when(ledgerEntryRepository.findLastSequence(accountId)).thenReturn(Optional.empty());
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 0L, 0L)).thenReturn(BigDecimal.ZERO);
+
+        BigDecimal closing = ledgerService.post(accountId, BigDecimal.valueOf(200), UUID.randomUUID());
+
+        Assertions.assertEquals(BigDecimal.valueOf(500), closing);
+        Mockito.verify(balanceSnapshotRepository).saveAndFlush(Mockito.any(BalanceSnapshot.class));
+    }
+
+    @Test
+    void shouldComputeBalanceAsOfFromSnapshotAndLaterEntries() {
+        LocalDateTime asOf = LocalDateTime.now();
+
+        Mockito.when(balanceSnapshotRepository
+                        .findFirstByAccountIdAndAsOfLessThanEqualOrderBySequenceDesc(accountId, asOf))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.sumAmountAfterSequenceUntil(accountId, 10L, asOf))
+                .thenReturn(BigDecimal.valueOf(-100));
+
+        Assertions.assertEquals(BigDecimal.valueOf(900), ledgerService.balanceAsOf(accountId, asOf));
+    }
+
+    @Test
+    void shouldRollSnapshotAndRefreshAccountAmount() {
+        LedgerEntry last = new LedgerEntry();
+        last.setCreatedAt(LocalDateTime.now());
+
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.findByAccountIdAndSequence(accountId, 60L)).thenReturn(Optional.of(last));
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 10L, 60L)).thenReturn(BigDecimal.valueOf(40));
+
+        ledgerService.rollSnapshot(accountId, 60L);
+
+        ArgumentCaptor<BalanceSnapshot> captor = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        Mockito.verify(balanceSnapshotRepository).save(captor.capture());
+        Assertions.assertEquals(60L, captor.getValue().getSequence());
+        Assertions.assertEquals(BigDecimal.valueOf(1040), captor.getValue().getBalance());
+        Mockito.verify(accountRepository).updateAmount(accountId, BigDecimal.valueOf(1040));
+    }
+
+    @Test
+    void shouldPostWithoutTouchingLedgerHead() {
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.findLastSequence(accountId)).thenReturn(Optional.of(12L));
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 10L, 12L)).thenReturn(BigDecimal.ZERO);
+
+        ledgerService.post(accountId, BigDecimal.TEN, UUID.randomUUID());
+
+        Mockito.verifyNoInteractions(ledgerHeadRepository);
+    }
+
+    @Test
+    void shouldAdvanceLedgerHeadFromRecentEntries() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(2);
+        LocalDateTime firstAppendedAt = LocalDateTime.now().minusMinutes(1);
+        LedgerHead head = new LedgerHead(accountId, 10L);
+
+        Mockito.when(ledgerEntryRepository.findActivitySince(since))
+                .thenReturn(List.<Object[]>of(new Object[]{accountId, 13L, firstAppendedAt}));
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerHeadRepository.lockByAccountId(accountId)).thenReturn(Optional.of(head));
+
+        Assertions.assertEquals(1, ledgerService.refreshHeads(since));
+
+        Assertions.assertEquals(13L, head.getLastSequence());
+        Assertions.assertEquals(3L, head.getPendingEntries());
+        Assertions.assertEquals(firstAppendedAt, head.getPendingSince());
+    }
+
+    @Test
+    void shouldCreateLedgerHeadCountingEntriesSinceSnapshot() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(2);
+        LocalDateTime firstAppendedAt = LocalDateTime.now().minusMinutes(1);
+
+        Mockito.when(ledgerEntryRepository.findActivitySince(since))
+                .thenReturn(List.<Object[]>of(new Object[]{accountId, 13L, firstAppendedAt}));
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerHeadRepository.lockByAccountId(accountId)).thenReturn(Optional.empty());
+
+        ledgerService.refreshHeads(since);
+
+        ArgumentCaptor<LedgerHead> captor = ArgumentCaptor.forClass(LedgerHead.class);
+        Mockito.verify(ledgerHeadRepository).saveAndFlush(captor.capture());
+        Assertions.assertEquals(13L, captor.getValue().getLastSequence());
+        Assertions.assertEquals(3L, captor.getValue().getPendingEntries());
+        Assertions.assertEquals(firstAppendedAt, captor.getValue().getPendingSince());
+    }
+
+    @Test
+    void shouldResetLedgerHeadWhenSnapshotRolls() {
+        LedgerEntry last = new LedgerEntry();
+        last.setCreatedAt(LocalDateTime.now());
+        LedgerHead head = new LedgerHead(accountId, 10L);
+        head.setLastSequence(62L);
+        head.setPendingEntries(52L);
+        head.setPendingSince(LocalDateTime.now().minusHours(1));
+
+        Mockito.when(balanceSnapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId))
+                .thenReturn(Optional.of(snapshot));
+        Mockito.when(ledgerEntryRepository.findByAccountIdAndSequence(accountId, 60L)).thenReturn(Optional.of(last));
+        Mockito.when(ledgerEntryRepository.sumAmountBetween(accountId, 10L, 60L)).thenReturn(BigDecimal.ZERO);
+        Mockito.when(ledgerEntryRepository.findLastSequence(accountId)).thenReturn(Optional.of(62L));
+        Mockito.when(ledgerHeadRepository.lockByAccountId(accountId)).thenReturn(Optional.of(head));
+
+        ledgerService.rollSnapshot(accountId, 60L);
+
+        Assertions.assertEquals(60L, head.getSnapshotSequence());
+        Assertions.assertEquals(2L, head.getPendingEntries());
+    }
+}
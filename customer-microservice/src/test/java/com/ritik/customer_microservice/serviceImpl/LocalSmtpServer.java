@@ -0,0 +1,115 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal SMTP stand-in for tests and benchmarks. EHLO is delayed by handshakeMillis to stand in for the
+// STARTTLS and AUTH round trips a real relay costs per connection; message delivery itself is immediate.
+class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "local-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long handshakeMillis;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+    final AtomicInteger connections = new AtomicInteger();
+    final AtomicInteger delivered = new AtomicInteger();
+    final AtomicInteger noops = new AtomicInteger();
+
+    LocalSmtpServer(long handshakeMillis) throws IOException {
+        this.handshakeMillis = handshakeMillis;
+        this.serverSocket = new ServerSocket(0);
+        workers.submit(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Drops every open client connection, as a relay does with idle sessions
+    void dropConnections() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        sockets.clear();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sockets.add(socket);
+                workers.submit(() -> serve(socket));
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+
+            reply(out, "220 localhost ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+
+                switch (command) {
+                    case "EHLO", "HELO" -> {
+                        Thread.sleep(handshakeMillis);
+                        reply(out, "250 localhost");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // message body discarded
+                        }
+                        delivered.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "NOOP" -> {
+                        noops.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException | InterruptedException ex) {
+            // client went away or the server was closed
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        dropConnections();
+        workers.shutdownNow();
+    }
+}
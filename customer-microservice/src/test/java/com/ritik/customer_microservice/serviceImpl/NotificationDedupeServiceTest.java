@@ -0,0 +1,121 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDedupeServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private NotificationDedupeService dedupeService;
+
+    @BeforeEach
+    void setUp() {
+        dedupeService = new NotificationDedupeService(redisTemplate);
+        ReflectionTestUtils.setField(dedupeService, "enabled", true);
+        ReflectionTestUtils.setField(dedupeService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(dedupeService, "localCapacity", 2);
+        dedupeService.init();
+    }
+
+    private TransactionEvent event(TransactionStatus status) {
+        return new TransactionEvent(UUID.randomUUID(), "a@x.com", BigDecimal.TEN, OperationType.WITHDRAW,
+                TransactionType.DEBIT, status, "ok");
+    }
+
+    @Test
+    void shouldAnswerMarkedEventsLocallyWithoutRedis() {
+        TransactionEvent event = event(TransactionStatus.SUCCESS);
+
+        dedupeService.markDelivered(event);
+
+        Assertions.assertTrue(dedupeService.isDelivered(event));
+        Mockito.verify(redisTemplate).executePipelined(Mockito.<RedisCallback<Object>>any());
+        Mockito.verify(redisTemplate, Mockito.never()).opsForValue();
+    }
+
+    @Test
+    void shouldResolveLocalMissesWithOneMultiGet() {
+        TransactionEvent seen = event(TransactionStatus.SUCCESS);
+        TransactionEvent fresh = event(TransactionStatus.SUCCESS);
+
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.multiGet(List.of(
+                        "customer-ms::notified::" + seen.getTransactionId() + "::SUCCESS",
+                        "customer-ms::notified::" + fresh.getTransactionId() + "::SUCCESS")))
+                .thenReturn(Arrays.asList("1", null));
+
+        Assertions.assertEquals(List.of(true, false), dedupeService.delivered(List.of(seen, fresh)));
+
+        // The hit is now cached in-process
+        Assertions.assertTrue(dedupeService.isDelivered(seen));
+        Mockito.verify(valueOperations).multiGet(Mockito.anyList());
+    }
+
+    @Test
+    void shouldKeyOnStatusSoFailureAfterPendingIsStillSent() {
+        TransactionEvent pending = event(TransactionStatus.PENDING);
+        TransactionEvent failed = new TransactionEvent(pending.getTransactionId(), "a@x.com", BigDecimal.TEN,
+                OperationType.WITHDRAW, TransactionType.DEBIT, TransactionStatus.FAILED, "OTP EXPIRED");
+
+        dedupeService.markDelivered(pending);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.multiGet(Mockito.anyList())).thenReturn(Arrays.asList((String) null));
+
+        Assertions.assertFalse(dedupeService.isDelivered(failed));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyCheckedEntryLocally() {
+        TransactionEvent first = event(TransactionStatus.SUCCESS);
+        TransactionEvent second = event(TransactionStatus.SUCCESS);
+        TransactionEvent third = event(TransactionStatus.SUCCESS);
+
+        dedupeService.markDelivered(first);
+        dedupeService.markDelivered(second);
+
+        // A hit on the oldest entry makes it the most recent, so the next insert evicts the second one instead
+        Assertions.assertTrue(dedupeService.isDelivered(first));
+        dedupeService.markDelivered(third);
+
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.multiGet(Mockito.anyList())).thenReturn(Arrays.asList((String) null));
+
+        Assertions.assertTrue(dedupeService.isDelivered(first));
+        Assertions.assertFalse(dedupeService.isDelivered(second));
+        Mockito.verify(valueOperations).multiGet(List.of(
+                "customer-ms::notified::" + second.getTransactionId() + "::SUCCESS"));
+    }
+
+    @Test
+    void shouldTreatRedisOutageAsUndelivered() {
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.multiGet(Mockito.anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertFalse(dedupeService.isDelivered(event(TransactionStatus.SUCCESS)));
+    }
+}
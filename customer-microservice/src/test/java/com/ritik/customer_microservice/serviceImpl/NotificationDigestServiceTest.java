@@ -0,0 +1,172 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"unchecked", "rawtypes"})
+class NotificationDigestServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NotificationDigestService digestService;
+
+    @BeforeEach
+    void setUp() {
+        digestService = new NotificationDigestService(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(digestService, "enabled", true);
+        ReflectionTestUtils.setField(digestService, "windowSeconds", 60L);
+        ReflectionTestUtils.setField(digestService, "maxEvents", 500);
+        ReflectionTestUtils.setField(digestService, "claimLeaseMs", 300_000L);
+    }
+
+    private TransactionEvent event(TransactionStatus status) {
+        return new TransactionEvent(UUID.randomUUID(), "a@x.com", BigDecimal.TEN, OperationType.TRANSFER,
+                TransactionType.CREDIT, status, "ok");
+    }
+
+    @Test
+    void shouldLetFailureNoticesBypassDigest() {
+        Assertions.assertTrue(digestService.coalesces(event(TransactionStatus.SUCCESS)));
+        Assertions.assertFalse(digestService.coalesces(event(TransactionStatus.FAILED)));
+
+        ReflectionTestUtils.setField(digestService, "enabled", false);
+        Assertions.assertFalse(digestService.coalesces(event(TransactionStatus.SUCCESS)));
+    }
+
+    private void stubDue(Set<String> due, Set<String> abandoned) {
+        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        Mockito.when(zSetOperations.rangeByScore(Mockito.eq("customer-ms::digest::due"),
+                        Mockito.eq(0.0), Mockito.anyDouble(), Mockito.eq(0L), Mockito.eq(10L)))
+                .thenReturn(due);
+        Mockito.when(zSetOperations.rangeByScore(Mockito.eq("customer-ms::digest::claims"),
+                        Mockito.eq(0.0), Mockito.anyDouble()))
+                .thenReturn(abandoned);
+    }
+
+    @Test
+    void shouldBufferUnderCustomerHashTagAndIndexSeparately() {
+        TransactionEvent event = event(TransactionStatus.SUCCESS);
+        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenReturn(1L);
+
+        Assertions.assertTrue(digestService.buffer(event));
+
+        Mockito.verify(redisTemplate).execute(Mockito.any(RedisScript.class),
+                Mockito.eq(List.of("customer-ms::digest::{a@x.com}::events")), Mockito.any(Object[].class));
+        Mockito.verify(zSetOperations).addIfAbsent(Mockito.eq("customer-ms::digest::due"), Mockito.eq("a@x.com"), Mockito.anyDouble());
+    }
+
+    @Test
+    void shouldMakeFullBufferDueAtOnce() {
+        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenReturn(500L);
+
+        Assertions.assertTrue(digestService.buffer(event(TransactionStatus.SUCCESS)));
+
+        Mockito.verify(zSetOperations).add("customer-ms::digest::due", "a@x.com", 0);
+    }
+
+    @Test
+    void shouldReportUnbufferedWhenRedisIsUnavailable() {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertFalse(digestService.buffer(event(TransactionStatus.SUCCESS)));
+    }
+
+    @Test
+    void shouldDrainDueCustomersIntoDigests() throws Exception {
+        TransactionEvent first = event(TransactionStatus.SUCCESS);
+        TransactionEvent second = event(TransactionStatus.SUCCESS);
+
+        stubDue(new LinkedHashSet<>(Set.of("a@x.com")), Set.of());
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenReturn(List.of(objectMapper.writeValueAsString(first), objectMapper.writeValueAsString(second)));
+
+        List<NotificationDigestService.Digest> digests = digestService.drainDue(10);
+
+        Assertions.assertEquals(1, digests.size());
+        Assertions.assertEquals("a@x.com", digests.get(0).email());
+        Assertions.assertEquals(List.of(first.getTransactionId(), second.getTransactionId()),
+                digests.get(0).events().stream().map(TransactionEvent::getTransactionId).toList());
+
+        // Drained into the customer's processing list under the same hash tag, not deleted
+        Mockito.verify(redisTemplate).execute(Mockito.any(RedisScript.class), Mockito.eq(List.of(
+                        "customer-ms::digest::{a@x.com}::events",
+                        "customer-ms::digest::{a@x.com}::processing",
+                        "customer-ms::digest::{a@x.com}::owner")),
+                Mockito.any(Object[].class));
+        Mockito.verify(zSetOperations).add(Mockito.eq("customer-ms::digest::claims"),
+                Mockito.endsWith("::a@x.com"), Mockito.anyDouble());
+        Mockito.verify(zSetOperations).remove("customer-ms::digest::due", "a@x.com");
+    }
+
+    @Test
+    void shouldLeaveCustomerOwnedByAnotherFlusherForLaterFlush() {
+        stubDue(Set.of("a@x.com"), Set.of());
+
+        Assertions.assertTrue(digestService.drainDue(10).isEmpty());
+
+        Mockito.verify(zSetOperations).remove(Mockito.eq("customer-ms::digest::claims"), Mockito.<Object>any());
+        Mockito.verify(zSetOperations, Mockito.never()).remove("customer-ms::digest::due", "a@x.com");
+    }
+
+    @Test
+    void shouldReindexEventsBufferedWhileDigestWasSent() {
+        Mockito.when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenReturn(2L);
+
+        digestService.complete(new NotificationDigestService.Digest("a@x.com", List.of(event(TransactionStatus.SUCCESS))));
+
+        Mockito.verify(zSetOperations).addIfAbsent(Mockito.eq("customer-ms::digest::due"), Mockito.eq("a@x.com"), Mockito.anyDouble());
+        Mockito.verify(zSetOperations).remove(Mockito.eq("customer-ms::digest::claims"), Mockito.<Object>any());
+    }
+
+    @Test
+    void shouldRequeueClaimsLeftByDeadFlusher() {
+        stubDue(Set.of(), Set.of("dead-flusher::b@x.com"));
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenReturn(3L);
+
+        digestService.drainDue(10);
+
+        Mockito.verify(redisTemplate).execute(Mockito.any(RedisScript.class), Mockito.eq(List.of(
+                        "customer-ms::digest::{b@x.com}::processing",
+                        "customer-ms::digest::{b@x.com}::owner",
+                        "customer-ms::digest::{b@x.com}::events")),
+                Mockito.eq("dead-flusher"), Mockito.eq("600000"));
+        Mockito.verify(zSetOperations).add("customer-ms::digest::due", "b@x.com", 0);
+        Mockito.verify(zSetOperations).remove("customer-ms::digest::claims", "dead-flusher::b@x.com");
+    }
+}
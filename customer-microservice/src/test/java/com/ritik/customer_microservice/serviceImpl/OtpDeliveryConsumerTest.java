@@ -0,0 +1,43 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
+import com.ritik.customer_microservice.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class OtpDeliveryConsumerTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private OtpDeliveryConsumer otpDeliveryConsumer;
+
+    @Test
+    void shouldMailLiveOtp() {
+        otpDeliveryConsumer.deliver(new OtpDeliveryEvent(
+                UUID.randomUUID(), "test@gmail.com", "4821", 5, Instant.now().plusSeconds(240)));
+
+        Mockito.verify(emailService).sendMail(
+                "test@gmail.com",
+                "OTP Verification",
+                "Your OTP is: 4821 (valid for 5 minutes)"
+        );
+    }
+
+    @Test
+    void shouldSkipOtpThatExpiredInQueue() {
+        otpDeliveryConsumer.deliver(new OtpDeliveryEvent(
+                UUID.randomUUID(), "test@gmail.com", "4821", 5, Instant.now().minusSeconds(1)));
+
+        Mockito.verifyNoInteractions(emailService);
+    }
+}
@@ -1,10 +1,10 @@
 package com.ritik.customer_microservice.serviceImpl;
 
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
 import com.ritik.customer_microservice.exception.BadRequestException;
 import com.ritik.customer_microservice.exception.OtpAttemptsExceededException;
 import com.ritik.customer_microservice.model.OtpVerification;
 import com.ritik.customer_microservice.repository.OtpRepository;
-import com.ritik.customer_microservice.service.EmailService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -25,7 +26,7 @@ class OtpServiceImplTest {
     private OtpRepository otpRepository;
 
     @Mock
-    private EmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private OtpAttemptService otpAttemptService;
@@ -62,11 +63,8 @@ class OtpServiceImplTest {
         otpService.sendOtp(email, transactionId);
 
         Mockito.verify(otpRepository).save(Mockito.any(OtpVerification.class));
-        Mockito.verify(emailService).sendMail(
-                Mockito.eq(email),
-                Mockito.eq("OTP Verification"),
-                Mockito.contains("Your OTP is")
-        );
+        Mockito.verify(eventPublisher).publishEvent(Mockito.<OtpDeliveryEvent>argThat(event ->
+                event.getTransactionId().equals(transactionId) && event.getOtp().length() == 4));
     }
 
     @Test
@@ -75,16 +73,24 @@ class OtpServiceImplTest {
         Mockito.when(otpRepository.findByEmailAndTransactionIdAndVerifiedFalse(email, transactionId))
                 .thenReturn(Optional.of(verification));
 
-        Mockito.when(otpRepository.save(Mockito.any(OtpVerification.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         // Act
         boolean result = otpService.verifyOtp(email, transactionId, "1234");
 
         // Assert
         Assertions.assertTrue(result);
-        Assertions.assertTrue(verification.isVerified());
+        Assertions.assertFalse(verification.isVerified());
+
+        Mockito.verify(otpRepository, Mockito.never()).save(Mockito.any());
+    }
 
+    @Test
+    void shouldMarkOtpUsedWhenConsumed() {
+        Mockito.when(otpRepository.findByEmailAndTransactionIdAndVerifiedFalse(email, transactionId))
+                .thenReturn(Optional.of(verification));
+
+        otpService.consumeOtp(email, transactionId);
+
+        Assertions.assertTrue(verification.isVerified());
         Mockito.verify(otpRepository).save(verification);
     }
 
@@ -0,0 +1,196 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionResponseDTO;
+import com.ritik.customer_microservice.exception.InsufficientBalanceException;
+import com.ritik.customer_microservice.exception.LedgerConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(MockitoExtension.class)
+class PostingEngineTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountLockService accountLockService;
+
+    private PostingEngine postingEngine;
+
+    private void start(long maxWaitMs) {
+        postingEngine = new PostingEngine(transactionManager, accountLockService);
+        ReflectionTestUtils.setField(postingEngine, "enabled", true);
+        ReflectionTestUtils.setField(postingEngine, "maxBatch", 100);
+        ReflectionTestUtils.setField(postingEngine, "maxWaitMs", maxWaitMs);
+        ReflectionTestUtils.setField(postingEngine, "queueCapacity", 100);
+        ReflectionTestUtils.setField(postingEngine, "maxAttempts", 3);
+        ReflectionTestUtils.setField(postingEngine, "statusMaxWaitMs", 5000L);
+        postingEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (postingEngine != null) {
+            postingEngine.stop();
+        }
+    }
+
+    private TransactionResponseDTO response(UUID transactionId) {
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setTransactionId(transactionId);
+        return dto;
+    }
+
+    @Test
+    void shouldNotBeEnabledByDefault() {
+        PostingEngine disabled = new PostingEngine(transactionManager, accountLockService);
+        disabled.start();
+
+        Assertions.assertFalse(disabled.isEnabled());
+    }
+
+    @Test
+    void shouldCommitQueuedPostingsAsOneBatchWithOrderedLocks() throws Exception {
+        start(300);
+
+        CountDownLatch applied = new CountDownLatch(3);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        postingEngine.submit(first, List.of(900L, 100L), () -> { applied.countDown(); return response(first); }, ex -> { });
+        postingEngine.submit(second, List.of(500L), () -> { applied.countDown(); return response(second); }, ex -> { });
+        postingEngine.submit(third, List.of(100L), () -> { applied.countDown(); return response(third); }, ex -> { });
+
+        Assertions.assertTrue(applied.await(5, TimeUnit.SECONDS));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(accountLockService, Mockito.timeout(1000)).lockAccounts(captor.capture());
+        Assertions.assertEquals(List.of(100L, 500L, 900L), new ArrayList<>(captor.getValue()));
+
+        Mockito.verify(transactionManager, Mockito.timeout(1000).times(1)).commit(Mockito.any());
+    }
+
+    @Test
+    void shouldFailOnlyTheBadPostingWhenBatchFails() throws Exception {
+        start(300);
+
+        List<UUID> failed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        UUID good = UUID.randomUUID();
+        UUID bad = UUID.randomUUID();
+
+        postingEngine.submit(good, List.of(100L), () -> response(good), ex -> failed.add(good));
+        postingEngine.submit(bad, List.of(200L), () -> {
+            throw new InsufficientBalanceException("Insufficient balance at confirmation");
+        }, ex -> {
+            failed.add(bad);
+            done.countDown();
+        });
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(List.of(bad), failed);
+        Mockito.verify(accountLockService, Mockito.timeout(1000)).lockAccounts(List.of(100L));
+        Mockito.verify(accountLockService, Mockito.timeout(1000)).lockAccounts(List.of(200L));
+    }
+
+    @Test
+    void shouldRequeuePostingOnLockConflictInsteadOfFailingIt() throws Exception {
+        start(0);
+
+        AtomicInteger attempts = new AtomicInteger();
+        List<UUID> failed = new CopyOnWriteArrayList<>();
+        UUID transactionId = UUID.randomUUID();
+
+        postingEngine.submit(transactionId, List.of(100L), () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("Lock wait timeout exceeded");
+            }
+            return response(transactionId);
+        }, ex -> failed.add(transactionId));
+
+        postingEngine.awaitPosting(transactionId, 5000);
+
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    void shouldLeaveConflictingPostingToRecoveryOnceAttemptsRunOut() throws Exception {
+        start(0);
+
+        AtomicInteger attempts = new AtomicInteger();
+        List<UUID> failed = new CopyOnWriteArrayList<>();
+        UUID transactionId = UUID.randomUUID();
+
+        postingEngine.submit(transactionId, List.of(100L), () -> {
+            attempts.incrementAndGet();
+            throw new LedgerConflictException("Concurrent update on account. Please retry.");
+        }, ex -> failed.add(transactionId));
+
+        postingEngine.awaitPosting(transactionId, 5000);
+
+        // Each attempt runs once in a batch and once in the individual replay
+        Assertions.assertEquals(6, attempts.get());
+        Assertions.assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    void shouldReturnFromAwaitOncePostingCompletes() {
+        start(0);
+
+        CountDownLatch release = new CountDownLatch(1);
+        UUID transactionId = UUID.randomUUID();
+
+        postingEngine.submit(transactionId, List.of(100L), () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return response(transactionId);
+        }, ex -> { });
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+
+        long startTime = System.nanoTime();
+        postingEngine.awaitPosting(transactionId, 10_000);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        Assertions.assertTrue(waitedMs >= 150 && waitedMs < 5000);
+    }
+
+    @Test
+    void shouldReturnImmediatelyWhenPostingIsUnknown() {
+        start(0);
+
+        long startTime = System.nanoTime();
+        postingEngine.awaitPosting(UUID.randomUUID(), 10_000);
+
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) < 1000);
+    }
+}
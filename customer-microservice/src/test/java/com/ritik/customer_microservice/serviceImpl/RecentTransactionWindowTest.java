@@ -0,0 +1,142 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.model.Transaction;
+import com.ritik.customer_microservice.repository.TransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"unchecked", "rawtypes"})
+class RecentTransactionWindowTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private RecentTransactionWindow window;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        window = new RecentTransactionWindow(redisTemplate, transactionRepository, objectMapper);
+        ReflectionTestUtils.setField(window, "enabled", true);
+        ReflectionTestUtils.setField(window, "windowSize", 50);
+        ReflectionTestUtils.setField(window, "ttlMinutes", 60L);
+    }
+
+    private TransactionHistoryDTO row(int minute) {
+        return new TransactionHistoryDTO(UUID.randomUUID(), TransactionType.CREDIT, OperationType.DEPOSIT,
+                BigDecimal.TEN, BigDecimal.TEN, TransactionStatus.SUCCESS, LocalDateTime.of(2026, 1, 1, 12, minute));
+    }
+
+    @Test
+    void shouldServeSeededWindowNewestFirst() throws Exception {
+        TransactionHistoryDTO older = row(1);
+        TransactionHistoryDTO newer = row(2);
+
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList()))
+                .thenReturn(List.of("7", objectMapper.writeValueAsString(older), objectMapper.writeValueAsString(newer)));
+
+        RecentTransactionWindow.WindowPage page = window.load(123456789L, accountId).orElseThrow();
+
+        Assertions.assertEquals(7, page.total());
+        Assertions.assertEquals(List.of(newer.getTransactionId(), older.getTransactionId()),
+                page.rows().stream().map(TransactionHistoryDTO::getTransactionId).toList());
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void shouldSeedFromDatabaseWithObservedGeneration() {
+        TransactionHistoryDTO latest = row(5);
+
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList())).thenReturn(null);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.get("customer-ms::recent-tx::{123456789}::gen")).thenReturn("4");
+        Mockito.when(transactionRepository.findHistoryFirstPage(List.of(accountId), PageRequest.of(0, 50)))
+                .thenReturn(List.of(latest));
+        Mockito.when(transactionRepository.countByAccount_AccountId(accountId)).thenReturn(12L);
+
+        RecentTransactionWindow.WindowPage page = window.load(123456789L, accountId).orElseThrow();
+
+        Assertions.assertEquals(12, page.total());
+        Assertions.assertEquals(1, page.rows().size());
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(redisTemplate).execute(Mockito.any(RedisScript.class),
+                Mockito.eq(List.of(
+                        "customer-ms::recent-tx::{123456789}",
+                        "customer-ms::recent-tx::{123456789}::rows",
+                        "customer-ms::recent-tx::{123456789}::gen")),
+                args.capture());
+        Assertions.assertEquals("4", args.getValue()[0]);
+        Assertions.assertEquals("12", args.getValue()[2]);
+        Assertions.assertEquals(latest.getTransactionId().toString(), args.getValue()[3]);
+    }
+
+    @Test
+    void shouldFallBackWhenRedisIsUnavailable() {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertEquals(Optional.empty(), window.load(123456789L, accountId));
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void shouldRecordPostingAndEvictWindowWhenWriteFails() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(UUID.randomUUID());
+        transaction.setAccountNum(123456789L);
+        transaction.setTransactionStatus(TransactionStatus.SUCCESS);
+        transaction.setCreatedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        window.recordAfterCommit(transaction, true);
+
+        Mockito.verify(redisTemplate).delete(Mockito.<List<String>>argThat(keys -> keys.size() == 3));
+    }
+
+    @Test
+    void shouldCoverOnlyPagesWithinWindow() {
+        Assertions.assertTrue(window.covers(50));
+        Assertions.assertFalse(window.covers(51));
+
+        ReflectionTestUtils.setField(window, "enabled", false);
+        Assertions.assertFalse(window.covers(5));
+    }
+}
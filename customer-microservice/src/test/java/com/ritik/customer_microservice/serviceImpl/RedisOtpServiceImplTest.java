@@ -0,0 +1,180 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.OtpDeliveryEvent;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.exception.OtpAttemptsExceededException;
+import com.ritik.customer_microservice.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class RedisOtpServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @InjectMocks
+    private RedisOtpServiceImpl otpService;
+
+    private final UUID transactionId = UUID.randomUUID();
+
+    private final String email = "test@gmail.com";
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(otpService, "validityMinutes", 5L);
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 3);
+    }
+
+    private void givenVerifyResult(Long result) {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.eq(List.of("customer-ms::otp::" + transactionId)),
+                        Mockito.eq(email), Mockito.eq("1234"), Mockito.eq("3")))
+                .thenReturn(result);
+    }
+
+    @Test
+    void shouldStoreOtpWithTtlAndQueueSameCodeForDelivery() {
+        otpService.sendOtp(email, transactionId);
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(redisTemplate).execute(Mockito.any(RedisScript.class),
+                Mockito.eq(List.of("customer-ms::otp::" + transactionId)), args.capture());
+
+        Object[] values = args.getValue();
+        Assertions.assertEquals(email, values[0]);
+        Assertions.assertEquals("0", values[2]);
+        Assertions.assertEquals("300000", values[3]);
+
+        ArgumentCaptor<OtpDeliveryEvent> event = ArgumentCaptor.forClass(OtpDeliveryEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        Assertions.assertEquals(values[1], event.getValue().getOtp());
+        Assertions.assertEquals(email, event.getValue().getEmail());
+        Assertions.assertTrue(event.getValue().getExpiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void shouldVerifyCorrectOtp() {
+        givenVerifyResult(1L);
+
+        Assertions.assertTrue(otpService.verifyOtp(email, transactionId, "1234"));
+    }
+
+    @Test
+    void shouldRejectWrongOtp() {
+        givenVerifyResult(-1L);
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> otpService.verifyOtp(email, transactionId, "1234"));
+
+        Assertions.assertEquals("Invalid OTP", ex.getMessage());
+    }
+
+    @Test
+    void shouldFailTransactionWhenAttemptsExceeded() {
+        givenVerifyResult(-2L);
+
+        OtpAttemptsExceededException ex = Assertions.assertThrows(OtpAttemptsExceededException.class,
+                () -> otpService.verifyOtp(email, transactionId, "1234"));
+
+        Assertions.assertEquals(transactionId, ex.getTransactionId());
+    }
+
+    @Test
+    void shouldRejectExpiredOrUsedOtp() {
+        givenVerifyResult(0L);
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> otpService.verifyOtp(email, transactionId, "1234"));
+
+        Assertions.assertEquals("OTP expired or already used", ex.getMessage());
+    }
+
+    @Test
+    void shouldDeleteConsumedOtpOnlyAfterCommit() {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class),
+                        Mockito.eq(List.of("customer-ms::otp::" + transactionId)), Mockito.eq(email)))
+                .thenReturn(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        otpService.consumeOtp(email, transactionId);
+
+        Mockito.verify(redisTemplate, Mockito.never()).delete(Mockito.anyString());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        Mockito.verify(redisTemplate).delete("customer-ms::otp::" + transactionId);
+    }
+
+    @Test
+    void shouldReleaseOtpWhenPostingRollsBack() {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class),
+                        Mockito.eq(List.of("customer-ms::otp::" + transactionId)), Mockito.eq(email)))
+                .thenReturn(1L);
+        Mockito.when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        TransactionSynchronizationManager.initSynchronization();
+
+        otpService.consumeOtp(email, transactionId);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Mockito.verify(hashOperations).delete("customer-ms::otp::" + transactionId, "consumed");
+        Mockito.verify(redisTemplate, Mockito.never()).delete(Mockito.anyString());
+    }
+
+    @Test
+    void shouldRejectConsumingUsedOtp() {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class),
+                        Mockito.eq(List.of("customer-ms::otp::" + transactionId)), Mockito.eq(email)))
+                .thenReturn(0L);
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> otpService.consumeOtp(email, transactionId));
+
+        Assertions.assertEquals("OTP expired or already used", ex.getMessage());
+    }
+
+    @Test
+    void shouldNotQueueDeliveryWhenOtpCannotBeStored() {
+        Mockito.when(redisTemplate.execute(Mockito.any(RedisScript.class), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> otpService.sendOtp(email, transactionId));
+
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+}
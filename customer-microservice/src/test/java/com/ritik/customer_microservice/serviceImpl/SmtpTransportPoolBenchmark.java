@@ -0,0 +1,83 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Not picked up by surefire's default includes. Run with:
+//   mvn test -Dtest=SmtpTransportPoolBenchmark
+// Sends through LocalSmtpServer, which charges a fixed delay per connection for the TLS and AUTH handshake.
+// JavaMailSenderImpl pays it on every message; the pool pays it once per session.
+class SmtpTransportPoolBenchmark {
+
+    private static final long HANDSHAKE_MILLIS = 40;
+    private static final int MESSAGES_PER_SENDER = 50;
+
+    @Test
+    void comparePerMessageConnectionWithPool() throws Exception {
+        System.out.printf("%-8s %22s %22s%n", "senders", "connection-per-msg/s", "pooled/s");
+
+        for (int senders : new int[]{1, 4, 8}) {
+            try (LocalSmtpServer server = new LocalSmtpServer(HANDSHAKE_MILLIS)) {
+                JavaMailSenderImpl mailSender = sender(server);
+
+                double direct = run(senders, () -> mailSender.send(message()));
+
+                SmtpTransportPool pool = new SmtpTransportPool(mailSender);
+                ReflectionTestUtils.setField(pool, "enabled", true);
+                ReflectionTestUtils.setField(pool, "poolSize", senders);
+                ReflectionTestUtils.setField(pool, "borrowTimeoutMs", 10_000L);
+                ReflectionTestUtils.setField(pool, "validateAfterIdleMs", 30_000L);
+
+                double pooled = run(senders, () -> pool.send(message()));
+                pool.stop();
+
+                System.out.printf("%-8d %22.0f %22.0f%n", senders, direct, pooled);
+            }
+        }
+    }
+
+    private static JavaMailSenderImpl sender(LocalSmtpServer server) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(server.port());
+        return sender;
+    }
+
+    private static SimpleMailMessage message() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("bank@test.com");
+        message.setTo("user@test.com");
+        message.setSubject("OTP Verification");
+        message.setText("Your OTP is: 4821 (valid for 5 minutes)");
+        return message;
+    }
+
+    private static double run(int senders, Runnable send) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(senders);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int s = 0; s < senders; s++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < MESSAGES_PER_SENDER; i++) {
+                    send.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        executor.shutdown();
+        return senders * MESSAGES_PER_SENDER / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+class SmtpTransportPoolTest {
+
+    private LocalSmtpServer server;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new LocalSmtpServer(0);
+
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(server.port());
+
+        pool = new SmtpTransportPool(sender);
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "poolSize", 2);
+        ReflectionTestUtils.setField(pool, "borrowTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(pool, "validateAfterIdleMs", 30000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.stop();
+        server.close();
+    }
+
+    private SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("bank@test.com");
+        message.setTo("user" + i + "@test.com");
+        message.setSubject("Transaction Update");
+        message.setText("body " + i);
+        return message;
+    }
+
+    @Test
+    void shouldReuseOneSessionAcrossSends() {
+        pool.send(IntStream.range(0, 5).mapToObj(this::message).toList());
+        pool.send(message(5));
+        pool.send(message(6));
+
+        Assertions.assertEquals(7, server.delivered.get());
+        Assertions.assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    void shouldNotProbeSessionBetweenSends() {
+        IntStream.range(0, 3).forEach(i -> pool.send(message(i)));
+
+        Assertions.assertEquals(3, server.delivered.get());
+        Assertions.assertEquals(0, server.noops.get());
+    }
+
+    @Test
+    void shouldProbeSessionIdleBeyondThreshold() throws Exception {
+        ReflectionTestUtils.setField(pool, "validateAfterIdleMs", 0L);
+
+        pool.send(message(0));
+        Thread.sleep(5);
+        pool.send(message(1));
+
+        Assertions.assertEquals(2, server.delivered.get());
+        Assertions.assertEquals(1, server.noops.get());
+        Assertions.assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    void shouldReconnectWhenServerDropsSession() throws Exception {
+        pool.send(message(0));
+        server.dropConnections();
+
+        pool.send(List.of(message(1), message(2)));
+
+        Assertions.assertEquals(3, server.delivered.get());
+        Assertions.assertEquals(2, server.connections.get());
+    }
+}
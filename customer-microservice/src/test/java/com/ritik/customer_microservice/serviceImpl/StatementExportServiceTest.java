@@ -0,0 +1,246 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ritik.customer_microservice.dto.transactionDTO.TransactionHistoryDTO;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.StatementFormat;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.exception.AccountNotFoundException;
+import com.ritik.customer_microservice.exception.BadRequestException;
+import com.ritik.customer_microservice.model.Customer;
+import com.ritik.customer_microservice.repository.AccountRepository;
+import com.ritik.customer_microservice.repository.CustomerRepository;
+import com.ritik.customer_microservice.repository.TransactionArchiveRepository;
+import com.ritik.customer_microservice.repository.TransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class StatementExportServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private ColdSegmentStore coldSegmentStore;
+
+    private StatementExportService statementExportService;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final LocalDate from = LocalDate.of(2026, 1, 1);
+
+    private final LocalDate to = LocalDate.of(2026, 1, 31);
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        statementExportService = new StatementExportService(
+                customerRepository, accountRepository, transactionRepository,
+                transactionArchiveRepository, transactionArchiveService, coldSegmentStore, objectMapper);
+        Mockito.lenient().when(transactionArchiveService.hotTierStart()).thenReturn(LocalDateTime.of(2025, 10, 1, 0, 0));
+        ReflectionTestUtils.setField(statementExportService, "maxRangeDays", 366L);
+        ReflectionTestUtils.setField(statementExportService, "flushEvery", 1);
+    }
+
+    private TransactionHistoryDTO row(String amount, String closingBalance) {
+        return row(UUID.randomUUID(), amount, closingBalance, LocalDateTime.of(2026, 1, 15, 10, 30));
+    }
+
+    private TransactionHistoryDTO row(UUID transactionId, String amount, String closingBalance, LocalDateTime createdAt) {
+        return new TransactionHistoryDTO(
+                transactionId,
+                TransactionType.CREDIT,
+                OperationType.DEPOSIT,
+                new BigDecimal(amount),
+                new BigDecimal(closingBalance),
+                TransactionStatus.SUCCESS,
+                createdAt
+        );
+    }
+
+    @Test
+    void shouldStreamCsvStatementAndCloseCursor() {
+        TransactionHistoryDTO first = row("100.00", "100.00");
+        TransactionHistoryDTO second = row("50.50", "150.50");
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Mockito.when(transactionRepository.streamStatement(
+                        accountId, from.atStartOfDay(), LocalDate.of(2026, 2, 1).atStartOfDay()))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = statementExportService.writeStatement(accountId, from, to, StatementFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(2, rows);
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("transactionId,createdAt"));
+        Assertions.assertEquals(
+                first.getTransactionId() + ",2026-01-15T10:30,CREDIT,DEPOSIT,100.00,100.00,SUCCESS", lines[1]);
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldStreamNdjsonStatement() {
+        Mockito.when(transactionRepository.streamStatement(Mockito.eq(accountId), Mockito.any(), Mockito.any()))
+                .thenReturn(Stream.of(row("100.00", "100.00"), row("25.00", "125.00")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementExportService.writeStatement(accountId, from, to, StatementFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[1].contains("\"closingBalance\":125.00"));
+        Assertions.assertTrue(lines[1].contains("\"createdAt\":\"2026-01-15T10:30:00\""));
+    }
+
+    @Test
+    void shouldRejectRangeLongerThanLimit() {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> statementExportService.resolveAccountId("test@gmail.com", 123456789L, from, from.plusDays(400)));
+
+        Mockito.verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void shouldRejectStatementForAccountNotOwned() {
+        Customer customer = new Customer();
+        customer.setCustomerId(UUID.randomUUID());
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(AccountNotFoundException.class,
+                () -> statementExportService.resolveAccountId("test@gmail.com", 123456789L, from, to));
+    }
+
+    @Test
+    void shouldMergeArchivedRowsBeforeHotTierWithoutDuplicates() {
+        LocalDateTime hotTierStart = LocalDateTime.of(2026, 1, 20, 0, 0);
+        UUID copiedId = UUID.randomUUID();
+        TransactionHistoryDTO archivedOnly = row(UUID.randomUUID(), "10.00", "10.00", LocalDateTime.of(2026, 1, 2, 9, 0));
+        TransactionHistoryDTO copied = row(copiedId, "20.00", "30.00", LocalDateTime.of(2026, 1, 5, 9, 0));
+        TransactionHistoryDTO hotOnly = row(UUID.randomUUID(), "5.00", "35.00", LocalDateTime.of(2026, 1, 25, 9, 0));
+        AtomicBoolean archiveClosed = new AtomicBoolean();
+        AtomicBoolean hotClosed = new AtomicBoolean();
+
+        Mockito.when(transactionArchiveService.hotTierStart()).thenReturn(hotTierStart);
+        Mockito.when(coldSegmentStore.statement(accountId, from.atStartOfDay(), hotTierStart)).thenReturn(Stream.empty());
+        Mockito.when(transactionArchiveRepository.streamStatement(accountId, from.atStartOfDay(), hotTierStart))
+                .thenReturn(Stream.of(archivedOnly, copied).onClose(() -> archiveClosed.set(true)));
+        Mockito.when(transactionRepository.streamStatement(
+                        accountId, from.atStartOfDay(), LocalDate.of(2026, 2, 1).atStartOfDay()))
+                .thenReturn(Stream.of(row(copiedId, "20.00", "30.00", copied.getCreatedAt()), hotOnly)
+                        .onClose(() -> hotClosed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = statementExportService.writeStatement(accountId, from, to, StatementFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(3, rows);
+        Assertions.assertTrue(lines[1].startsWith(archivedOnly.getTransactionId().toString()));
+        Assertions.assertTrue(lines[2].startsWith(copiedId.toString()));
+        Assertions.assertTrue(lines[3].startsWith(hotOnly.getTransactionId().toString()));
+        Assertions.assertTrue(archiveClosed.get());
+        Assertions.assertTrue(hotClosed.get());
+    }
+
+    // Behaves like one Connector/J connection: a second streaming result set cannot open while one is active
+    private Stream<TransactionHistoryDTO> cursor(AtomicBoolean active, TransactionHistoryDTO... rows) {
+        if (!active.compareAndSet(false, true)) {
+            throw new IllegalStateException("Streaming result set is still active");
+        }
+        return Stream.of(rows).onClose(() -> active.set(false));
+    }
+
+    @Test
+    void shouldCloseArchiveCursorBeforeOpeningHotCursor() {
+        LocalDateTime hotTierStart = LocalDateTime.of(2026, 1, 20, 0, 0);
+        TransactionHistoryDTO archived = row(UUID.randomUUID(), "10.00", "10.00", LocalDateTime.of(2026, 1, 2, 9, 0));
+        TransactionHistoryDTO notYetArchived = row(UUID.randomUUID(), "5.00", "15.00", LocalDateTime.of(2026, 1, 10, 9, 0));
+        TransactionHistoryDTO hot = row(UUID.randomUUID(), "5.00", "20.00", LocalDateTime.of(2026, 1, 25, 9, 0));
+        AtomicBoolean active = new AtomicBoolean();
+
+        Mockito.when(transactionArchiveService.hotTierStart()).thenReturn(hotTierStart);
+        Mockito.when(coldSegmentStore.statement(accountId, from.atStartOfDay(), hotTierStart)).thenReturn(Stream.empty());
+        Mockito.when(transactionArchiveRepository.streamStatement(accountId, from.atStartOfDay(), hotTierStart))
+                .thenAnswer(invocation -> cursor(active, archived));
+        Mockito.when(transactionRepository.streamStatement(
+                        accountId, from.atStartOfDay(), LocalDate.of(2026, 2, 1).atStartOfDay()))
+                .thenAnswer(invocation -> cursor(active, notYetArchived, hot));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = statementExportService.writeStatement(accountId, from, to, StatementFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(3, rows);
+        Assertions.assertTrue(lines[1].startsWith(archived.getTransactionId().toString()));
+        Assertions.assertTrue(lines[2].startsWith(notYetArchived.getTransactionId().toString()));
+        Assertions.assertTrue(lines[3].startsWith(hot.getTransactionId().toString()));
+        Assertions.assertFalse(active.get());
+    }
+
+    @Test
+    void shouldBreakCreatedAtTiesInUnsignedIdOrder() {
+        LocalDateTime hotTierStart = LocalDateTime.of(2026, 1, 20, 0, 0);
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 5, 9, 0);
+        // 0x7f.. sorts before 0x80.. as MySQL bytes, although the second is negative as a signed long
+        UUID lowId = new UUID(0x7fffffffffffffffL, 0L);
+        UUID highId = new UUID(0x8000000000000000L, 0L);
+        TransactionHistoryDTO fromArchive = row(highId, "10.00", "10.00", createdAt);
+        TransactionHistoryDTO fromSegment = row(lowId, "20.00", "30.00", createdAt);
+
+        Mockito.when(transactionArchiveService.hotTierStart()).thenReturn(hotTierStart);
+        Mockito.when(coldSegmentStore.statement(accountId, from.atStartOfDay(), hotTierStart))
+                .thenReturn(Stream.of(fromSegment));
+        Mockito.when(transactionArchiveRepository.streamStatement(accountId, from.atStartOfDay(), hotTierStart))
+                .thenReturn(Stream.of(fromArchive));
+        Mockito.when(transactionRepository.streamStatement(Mockito.eq(accountId), Mockito.any(), Mockito.any()))
+                .thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementExportService.writeStatement(accountId, from, to, StatementFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertTrue(lines[1].startsWith(lowId.toString()));
+        Assertions.assertTrue(lines[2].startsWith(highId.toString()));
+    }
+}
@@ -0,0 +1,168 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ColdSegmentStore coldSegmentStore;
+
+    @InjectMocks
+    private TransactionArchiveService transactionArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionArchiveService, "hotMonths", 12);
+        ReflectionTestUtils.setField(transactionArchiveService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(transactionArchiveService, "keyBlockSize", 8);
+    }
+
+    private void givenPartitions(List<String> names) {
+        Mockito.when(jdbcTemplate.queryForList(
+                        Mockito.contains("information_schema.PARTITIONS"),
+                        Mockito.eq(String.class),
+                        Mockito.eq(TransactionArchiveService.TABLE)))
+                .thenReturn(names);
+    }
+
+    @Test
+    void shouldStartHotTierOnMonthBoundary() {
+        LocalDateTime hotTierStart = transactionArchiveService.hotTierStart();
+
+        Assertions.assertEquals(YearMonth.now().minusMonths(12).atDay(1).atStartOfDay(), hotTierStart);
+        Assertions.assertEquals("p202601", TransactionArchiveService.partitionName(YearMonth.of(2026, 1)));
+        Assertions.assertEquals(YearMonth.of(2026, 1), TransactionArchiveService.monthOf("p202601"));
+    }
+
+    @Test
+    void shouldSplitMaxPartitionForMissingMonths() {
+        YearMonth current = YearMonth.now();
+        givenPartitions(List.of(TransactionArchiveService.partitionName(current.minusMonths(1)),
+                TransactionArchiveService.partitionName(current), "pmax"));
+
+        int added = transactionArchiveService.addFuturePartitions();
+
+        ArgumentCaptor<String> ddl = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(jdbcTemplate).execute(ddl.capture());
+
+        Assertions.assertEquals(3, added);
+        Assertions.assertTrue(ddl.getValue().startsWith("ALTER TABLE transactions REORGANIZE PARTITION pmax INTO ("));
+        Assertions.assertTrue(ddl.getValue().contains("PARTITION " + TransactionArchiveService.partitionName(current.plusMonths(3))
+                + " VALUES LESS THAN ('" + current.plusMonths(4).atDay(1) + " 00:00:00')"));
+        Assertions.assertTrue(ddl.getValue().endsWith("PARTITION pmax VALUES LESS THAN (MAXVALUE))"));
+    }
+
+    @Test
+    void shouldArchiveClosedMonthsUntilPendingRowsFound() {
+        YearMonth hotStart = YearMonth.now().minusMonths(12);
+        String oldest = TransactionArchiveService.partitionName(hotStart.minusMonths(2));
+        String blocked = TransactionArchiveService.partitionName(hotStart.minusMonths(1));
+        String hot = TransactionArchiveService.partitionName(hotStart);
+
+        Mockito.when(jdbcTemplate.queryForList(
+                        Mockito.contains("information_schema.TABLES"),
+                        Mockito.eq(String.class),
+                        Mockito.eq(TransactionArchiveService.ARCHIVE_TABLE)))
+                .thenReturn(List.of("Dynamic"));
+        givenPartitions(List.of(oldest, blocked, hot, "pmax"));
+        Mockito.when(jdbcTemplate.queryForObject(
+                        Mockito.contains("PARTITION (" + oldest + ")"), Mockito.eq(Long.class), Mockito.eq("PENDING")))
+                .thenReturn(0L);
+        Mockito.when(jdbcTemplate.queryForObject(
+                        Mockito.contains("PARTITION (" + blocked + ")"), Mockito.eq(Long.class), Mockito.eq("PENDING")))
+                .thenReturn(2L);
+        Mockito.when(jdbcTemplate.update(Mockito.startsWith("INSERT IGNORE INTO transactions_archive"))).thenReturn(40);
+
+        int archived = transactionArchiveService.archiveClosedPartitions();
+
+        Assertions.assertEquals(1, archived);
+
+        Mockito.verify(jdbcTemplate).execute("ALTER TABLE transactions_archive ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8");
+        Mockito.verify(jdbcTemplate).update(Mockito.endsWith("FROM transactions PARTITION (" + oldest + ")"));
+        Mockito.verify(jdbcTemplate).execute("ALTER TABLE transactions DROP PARTITION " + oldest);
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute("ALTER TABLE transactions DROP PARTITION " + blocked);
+    }
+
+    @Test
+    void shouldKeepPartitionUntilSegmentIsVisibleToAllReaders() {
+        YearMonth hotStart = YearMonth.now().minusMonths(12);
+        YearMonth month = hotStart.minusMonths(1);
+        String oldest = TransactionArchiveService.partitionName(month);
+
+        Mockito.when(jdbcTemplate.queryForList(
+                        Mockito.contains("information_schema.TABLES"),
+                        Mockito.eq(String.class),
+                        Mockito.eq(TransactionArchiveService.ARCHIVE_TABLE)))
+                .thenReturn(List.of("Compressed"));
+        givenPartitions(List.of(oldest, TransactionArchiveService.partitionName(hotStart), "pmax"));
+        Mockito.when(jdbcTemplate.queryForObject(
+                        Mockito.contains("PARTITION (" + oldest + ")"), Mockito.eq(Long.class), Mockito.eq("PENDING")))
+                .thenReturn(0L);
+        Mockito.when(coldSegmentStore.enabled()).thenReturn(true);
+        Mockito.when(coldSegmentStore.contains(month)).thenReturn(true);
+        Mockito.when(coldSegmentStore.visibleToAllReaders(month)).thenReturn(false, true);
+
+        Assertions.assertEquals(0, transactionArchiveService.archiveClosedPartitions());
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute("ALTER TABLE transactions DROP PARTITION " + oldest);
+
+        Assertions.assertEquals(1, transactionArchiveService.archiveClosedPartitions());
+        Mockito.verify(jdbcTemplate).execute("ALTER TABLE transactions DROP PARTITION " + oldest);
+        Mockito.verify(coldSegmentStore, Mockito.never()).writer(Mockito.any());
+    }
+
+    @Test
+    void shouldNotRepartitionPartitionedTable() {
+        givenPartitions(List.of("p202601", "pmax"));
+
+        Assertions.assertFalse(transactionArchiveService.ensurePartitioned());
+
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(Mockito.anyString());
+    }
+
+    @Test
+    void shouldLeavePopulatedTableUnlessMigrationAllowed() {
+        givenPartitions(List.of());
+        Mockito.when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM transactions)", Boolean.class))
+                .thenReturn(true);
+
+        Assertions.assertFalse(transactionArchiveService.ensurePartitioned());
+
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(Mockito.anyString());
+    }
+
+    @Test
+    void shouldPartitionPopulatedTableWhenMigrationAllowed() {
+        ReflectionTestUtils.setField(transactionArchiveService, "migrateExisting", true);
+        givenPartitions(List.of());
+        Mockito.when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM transactions)", Boolean.class))
+                .thenReturn(true);
+        Mockito.when(jdbcTemplate.queryForList(Mockito.contains("REFERENTIAL_CONSTRAINTS"),
+                        Mockito.eq(String.class), Mockito.eq(TransactionArchiveService.TABLE)))
+                .thenReturn(List.of());
+        Mockito.when(jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM transactions", LocalDateTime.class))
+                .thenReturn(YearMonth.now().minusMonths(2).atDay(5).atStartOfDay());
+
+        Assertions.assertTrue(transactionArchiveService.ensurePartitioned());
+
+        Mockito.verify(jdbcTemplate).execute(Mockito.startsWith(
+                "ALTER TABLE transactions DROP PRIMARY KEY, ADD PRIMARY KEY (transaction_id, created_at)"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionConsumerImplTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private TransactionEmailTemplateService emailTemplateService;
+
+    @Mock
+    private NotificationDigestService notificationDigestService;
+
+    @Mock
+    private NotificationDedupeService notificationDedupeService;
+
+    @Mock
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TransactionConsumerImpl transactionConsumer;
+
+    @BeforeEach
+    void setUp() {
+        transactionConsumer = new TransactionConsumerImpl(emailService, emailTemplateService,
+                notificationDigestService, notificationDedupeService, kafkaTemplate, meterRegistry);
+        ReflectionTestUtils.setField(transactionConsumer, "emailThreads", 4);
+        ReflectionTestUtils.setField(transactionConsumer, "emailQueue", 10);
+        ReflectionTestUtils.setField(transactionConsumer, "batchTimeoutMs", 5000L);
+        transactionConsumer.start();
+
+        Mockito.lenient().when(emailTemplateService.buildEmailBody(Mockito.any())).thenReturn("body");
+        Mockito.lenient().when(notificationDedupeService.delivered(Mockito.anyList()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), Boolean.FALSE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionConsumer.stop();
+    }
+
+    private TransactionEvent event(String email) {
+        return new TransactionEvent(UUID.randomUUID(), email, BigDecimal.TEN, OperationType.DEPOSIT,
+                TransactionType.CREDIT, TransactionStatus.SUCCESS, "ok");
+    }
+
+    @Test
+    void shouldSendWholeBatchThenAcknowledgeOnce() {
+        transactionConsumer.transactionConsumer(
+                List.of(event("a@x.com"), event("b@x.com"), event("c@x.com")), acknowledgment);
+
+        Mockito.verify(emailService).sendMail("a@x.com", "Transaction Update", "body");
+        Mockito.verify(emailService).sendMail("b@x.com", "Transaction Update", "body");
+        Mockito.verify(emailService).sendMail("c@x.com", "Transaction Update", "body");
+        Mockito.verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void shouldSkipRedeliveredEventsWithoutRendering() {
+        TransactionEvent redelivered = event("a@x.com");
+        TransactionEvent fresh = event("b@x.com");
+        Mockito.when(notificationDedupeService.delivered(List.of(redelivered, fresh))).thenReturn(List.of(true, false));
+
+        transactionConsumer.transactionConsumer(List.of(redelivered, fresh), acknowledgment);
+
+        Mockito.verify(emailTemplateService, Mockito.never()).buildEmailBody(redelivered);
+        Mockito.verify(emailService, Mockito.never()).sendMail(Mockito.eq("a@x.com"), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(emailService).sendMail("b@x.com", "Transaction Update", "body");
+        Mockito.verify(notificationDedupeService).markDelivered(fresh);
+        Mockito.verify(acknowledgment).acknowledge();
+        Assertions.assertEquals(1.0, meterRegistry.counter("notification.dedupe.skipped").count());
+    }
+
+    @Test
+    void shouldLeaveBufferedEventsToDigest() {
+        TransactionEvent buffered = event("a@x.com");
+        TransactionEvent failed = event("b@x.com");
+        Mockito.lenient().when(notificationDigestService.coalesces(buffered)).thenReturn(true);
+        Mockito.when(notificationDigestService.buffer(buffered)).thenReturn(true);
+
+        transactionConsumer.transactionConsumer(List.of(buffered, failed), acknowledgment);
+
+        Mockito.verify(emailService, Mockito.never()).sendMail(Mockito.eq("a@x.com"), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(emailService).sendMail("b@x.com", "Transaction Update", "body");
+        Mockito.verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void shouldForwardFailedEmailToRetryTopicAndStillAcknowledge() {
+        Mockito.lenient().doThrow(new RuntimeException("smtp down"))
+                .when(emailService).sendMail(Mockito.eq("b@x.com"), Mockito.anyString(), Mockito.anyString());
+        TransactionEvent failing = event("b@x.com");
+        Mockito.when(kafkaTemplate.send(TransactionEmailRetryConsumer.RETRY_TOPIC,
+                        failing.getTransactionId().toString(), failing))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        transactionConsumer.transactionConsumer(
+                List.of(event("a@x.com"), failing, event("c@x.com")), acknowledgment);
+
+        Mockito.verify(kafkaTemplate).send(TransactionEmailRetryConsumer.RETRY_TOPIC,
+                failing.getTransactionId().toString(), failing);
+        Mockito.verify(acknowledgment).acknowledge();
+        Assertions.assertEquals(1.0, meterRegistry.counter("notification.retry.forwarded").count());
+    }
+
+    @Test
+    void shouldReportIndexThatCouldNotBeForwardedWithoutAcknowledging() {
+        Mockito.lenient().doThrow(new RuntimeException("smtp down"))
+                .when(emailService).sendMail(Mockito.eq("b@x.com"), Mockito.anyString(), Mockito.anyString());
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(TransactionEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        BatchListenerFailedException ex = Assertions.assertThrows(BatchListenerFailedException.class,
+                () -> transactionConsumer.transactionConsumer(
+                        List.of(event("a@x.com"), event("b@x.com"), event("c@x.com")), acknowledgment));
+
+        Assertions.assertEquals(1, ex.getIndex());
+        Mockito.verifyNoInteractions(acknowledgment);
+    }
+
+    @Test
+    void shouldRedeliverFromTimedOutSendWithoutForwardingOrMailingQueuedOnes() throws Exception {
+        ReflectionTestUtils.setField(transactionConsumer, "emailThreads", 1);
+        ReflectionTestUtils.setField(transactionConsumer, "batchTimeoutMs", 200L);
+        transactionConsumer.stop();
+        transactionConsumer.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.lenient().doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(emailService).sendMail(Mockito.eq("slow@x.com"), Mockito.anyString(), Mockito.anyString());
+
+        BatchListenerFailedException ex = Assertions.assertThrows(BatchListenerFailedException.class,
+                () -> transactionConsumer.transactionConsumer(
+                        List.of(event("a@x.com"), event("slow@x.com"), event("queued@x.com")), acknowledgment));
+        release.countDown();
+        transactionConsumer.stop();
+        Assertions.assertTrue(((ThreadPoolExecutor) ReflectionTestUtils.getField(transactionConsumer, "emailExecutor"))
+                .awaitTermination(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(1, ex.getIndex());
+        Mockito.verify(emailService, Mockito.never()).sendMail(Mockito.eq("queued@x.com"), Mockito.anyString(), Mockito.anyString());
+        Mockito.verifyNoInteractions(kafkaTemplate, acknowledgment);
+    }
+}
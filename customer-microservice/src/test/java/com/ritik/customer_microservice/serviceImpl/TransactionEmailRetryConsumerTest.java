@@ -0,0 +1,78 @@
+package com.ritik.customer_microservice.serviceImpl;
+
+import com.ritik.customer_microservice.dto.event.TransactionEvent;
+import com.ritik.customer_microservice.enums.OperationType;
+import com.ritik.customer_microservice.enums.TransactionStatus;
+import com.ritik.customer_microservice.enums.TransactionType;
+import com.ritik.customer_microservice.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionEmailRetryConsumerTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private TransactionEmailTemplateService emailTemplateService;
+
+    @Mock
+    private NotificationDedupeService notificationDedupeService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TransactionEmailRetryConsumer retryConsumer;
+
+    @BeforeEach
+    void setUp() {
+        retryConsumer = new TransactionEmailRetryConsumer(emailService, emailTemplateService, notificationDedupeService,
+                meterRegistry);
+    }
+
+    private TransactionEvent event() {
+        return new TransactionEvent(UUID.randomUUID(), "a@x.com", BigDecimal.TEN, OperationType.DEPOSIT,
+                TransactionType.CREDIT, TransactionStatus.SUCCESS, "ok");
+    }
+
+    @Test
+    void shouldResendAndCountAttemptPerTopic() {
+        Mockito.when(emailTemplateService.buildEmailBody(Mockito.any())).thenReturn("body");
+
+        TransactionEvent event = event();
+        retryConsumer.retry(event, "transaction-email-retry-retry-1");
+
+        Mockito.verify(emailService).sendMail("a@x.com", "Transaction Update", "body");
+        Mockito.verify(notificationDedupeService).markDelivered(event);
+        Assertions.assertEquals(1.0, meterRegistry.counter("notification.retry.attempts",
+                "topic", "transaction-email-retry-retry-1").count());
+    }
+
+    @Test
+    void shouldSkipRetryOfDeliveredEvent() {
+        TransactionEvent event = event();
+        Mockito.when(notificationDedupeService.isDelivered(event)).thenReturn(true);
+
+        retryConsumer.retry(event, "transaction-email-retry");
+
+        Mockito.verifyNoInteractions(emailService, emailTemplateService);
+        Assertions.assertEquals(1.0, meterRegistry.counter("notification.dedupe.skipped").count());
+    }
+
+    @Test
+    void shouldCountDeadLetters() {
+        retryConsumer.deadLetter(event(), "transaction-email-retry-dlt");
+
+        Assertions.assertEquals(1.0, meterRegistry.counter("notification.dlt").count());
+        Mockito.verifyNoInteractions(emailService);
+    }
+}
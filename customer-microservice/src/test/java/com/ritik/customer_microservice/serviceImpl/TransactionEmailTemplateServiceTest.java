@@ -11,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -118,4 +119,19 @@ class TransactionEmailTemplateServiceTest {
         Assertions.assertTrue(result.contains(event.getTransactionId().toString()));
     }
 
+    @Test
+    void shouldBuildDigestWithTotals() {
+        TransactionEvent credit = new TransactionEvent(UUID.randomUUID(), "user@test.com", BigDecimal.valueOf(1000),
+                OperationType.TRANSFER, TransactionType.CREDIT, TransactionStatus.SUCCESS, null);
+        TransactionEvent debit = new TransactionEvent(UUID.randomUUID(), "user@test.com", BigDecimal.valueOf(250),
+                OperationType.WITHDRAW, TransactionType.DEBIT, TransactionStatus.SUCCESS, null);
+
+        String result = service.buildDigestBody(List.of(credit, credit, debit));
+
+        Assertions.assertTrue(result.contains("3 transaction updates"));
+        Assertions.assertTrue(result.contains("Total credited: ₹2000"));
+        Assertions.assertTrue(result.contains("Total debited: ₹250"));
+        Assertions.assertTrue(result.contains(debit.getTransactionId().toString()));
+    }
+
 }
@@ -27,6 +27,9 @@ class TransactionFailureServiceTest {
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
+    @Mock
+    private CacheGenerationService cacheGenerationService;
+
     @InjectMocks
     private TransactionFailureService transactionFailureService;
 
@@ -67,6 +70,8 @@ class TransactionFailureServiceTest {
         Assertions.assertEquals(txId, event.getTransactionId());
         Assertions.assertEquals(TransactionStatus.FAILED, event.getStatus());
         Assertions.assertEquals("OTP ATTEMPT EXCEEDED", event.getMessage());
+
+        Mockito.verify(cacheGenerationService).invalidate(email, tx.getAccountNum(), null);
     }
 
     @Test
@@ -86,5 +91,23 @@ class TransactionFailureServiceTest {
         Mockito.verify(applicationEventPublisher, Mockito.never()).publishEvent(Mockito.any());
     }
 
+    @Test
+    void shouldNotFailTransactionThatIsNoLongerPending() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+
+        Transaction tx = new Transaction();
+        tx.setTransactionId(txId);
+        tx.setTransactionStatus(TransactionStatus.SUCCESS);
 
-}
\ No newline at end of file
+        Mockito.when(transactionRepository.findByTransactionId(txId)).thenReturn(Optional.of(tx));
+
+        // Act
+        transactionFailureService.failTransaction(txId, "user@test.com", "Insufficient balance at confirmation");
+
+        // Assert
+        Assertions.assertEquals(TransactionStatus.SUCCESS, tx.getTransactionStatus());
+        Mockito.verify(transactionRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(applicationEventPublisher, Mockito.never()).publishEvent(Mockito.any());
+    }
+}
@@ -6,25 +6,42 @@ import com.ritik.customer_microservice.enums.TransactionStatus;
 import com.ritik.customer_microservice.exception.*;
 import com.ritik.customer_microservice.model.Account;
 import com.ritik.customer_microservice.model.Customer;
+import com.ritik.customer_microservice.model.PostingIntent;
 import com.ritik.customer_microservice.model.Transaction;
 import com.ritik.customer_microservice.repository.AccountRepository;
 import com.ritik.customer_microservice.repository.CustomerRepository;
+import com.ritik.customer_microservice.repository.OffsetPageRequest;
+import com.ritik.customer_microservice.repository.PostingIntentRepository;
+import com.ritik.customer_microservice.repository.TransactionArchiveRepository;
 import com.ritik.customer_microservice.repository.TransactionRepository;
+import com.ritik.customer_microservice.repository.TransactionSearchCriteria;
+import com.ritik.customer_microservice.service.LedgerService;
+import com.ritik.customer_microservice.wrapper.CursorPageResponse;
+import com.ritik.customer_microservice.wrapper.HistoryCursor;
 import com.ritik.customer_microservice.wrapper.PageResponse;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +70,47 @@ class TransactionServiceImplTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private AccountSequencer accountSequencer;
+
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PostingEngine postingEngine;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private TransactionFailureService transactionFailureService;
+
+    @Mock
+    private HotAccountService hotAccountService;
+
+    @Mock
+    private RecentTransactionWindow recentTransactionWindow;
+
+    @Mock
+    private CacheGenerationService cacheGenerationService;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private ColdSegmentStore coldSegmentStore;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private PostingIntentRepository postingIntentRepository;
+
+    private final LocalDateTime hotTierStart = LocalDateTime.of(2025, 10, 1, 0, 0);
+
     private DepositRequestDTO depositRequestDTO;
     private WithdrawRequestDTO withdrawRequestDTO;
     private Customer customer;
@@ -66,6 +124,9 @@ class TransactionServiceImplTest {
 
     @BeforeEach
     void setUp(){
+        Mockito.lenient().when(transactionArchiveService.hotTierStart()).thenReturn(hotTierStart);
+        Mockito.lenient().when(coldSegmentStore.isEmpty()).thenReturn(true);
+
         depositRequestDTO = new DepositRequestDTO();
         depositRequestDTO.setAmount(BigDecimal.valueOf(2000));
         depositRequestDTO.setAccountNum(123456789L);
@@ -108,6 +169,10 @@ class TransactionServiceImplTest {
         confirmRequestDTO.setTransactionId(transaction.getTransactionId());
         confirmRequestDTO.setOTP("0000");
 
+        Mockito.lenient().when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        ReflectionTestUtils.setField(transactionService, "lockMaxAttempts", 3);
     }
 
     @Test
@@ -116,10 +181,15 @@ class TransactionServiceImplTest {
         //Arrange
         Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
 
+        account.setAccountNum(depositRequestDTO.getAccountNum());
+
         Mockito.when(accountRepository
-                .lockAccount(depositRequestDTO.getAccountNum(), customer.getCustomerId()))
+                .findByAccountNumAndCustomer_CustomerId(depositRequestDTO.getAccountNum(), customer.getCustomerId()))
                 .thenReturn(Optional.of(account));
 
+        Mockito.when(accountRepository.credit(depositRequestDTO.getAccountNum(), depositRequestDTO.getAmount()))
+                .thenReturn(Optional.of(BigDecimal.valueOf(2000)));
+
         Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -134,6 +204,29 @@ class TransactionServiceImplTest {
         Mockito.verify(transactionRepository).save(Mockito.any(Transaction.class));
     }         //---------------------------------------1
 
+    @Test
+    void shouldRetryLedgerDepositOnConcurrentAppend() {
+        ReflectionTestUtils.setField(transactionService, "ledgerEnabled", true);
+        ReflectionTestUtils.setField(transactionService, "modelMapper", new ModelMapper());
+        account.setAccountNum(depositRequestDTO.getAccountNum());
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository
+                .findByAccountNumAndCustomer_CustomerId(depositRequestDTO.getAccountNum(), customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(ledgerService.post(Mockito.eq(account.getAccountId()), Mockito.eq(depositRequestDTO.getAmount()), Mockito.any()))
+                .thenThrow(new LedgerConflictException("Concurrent update on account. Please retry."))
+                .thenReturn(BigDecimal.valueOf(2000));
+
+        TransactionResponseDTO response = transactionService.depositMoney("test@gmail.com", depositRequestDTO);
+
+        Assertions.assertEquals(BigDecimal.valueOf(2000), response.getClosingBalance());
+        Mockito.verify(transactionTemplate, Mockito.times(2)).execute(Mockito.any());
+        Mockito.verify(ledgerService, Mockito.times(2)).post(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     void shouldThrowExceptionWhenCustomerNotFoundDuringDepositMoney(){
         //Arrange
@@ -153,7 +246,7 @@ class TransactionServiceImplTest {
         //Arrange
         Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.ofNullable(customer));
         Mockito.when(accountRepository
-                .lockAccount(depositRequestDTO.getAccountNum(), customer.getCustomerId()))
+                .findByAccountNumAndCustomer_CustomerId(depositRequestDTO.getAccountNum(), customer.getCustomerId()))
                 .thenReturn(Optional.empty());
 
         //Act + Assert
@@ -163,6 +256,7 @@ class TransactionServiceImplTest {
         Assertions.assertEquals("Account not found.", ex.getMessage());
 
         Mockito.verify(customerRepository).findByEmail(Mockito.any());
+        Mockito.verify(accountRepository, Mockito.never()).credit(Mockito.any(), Mockito.any());
         Mockito.verify(transactionRepository, Mockito.never()).save(Mockito.any());
     }     //----------------3
 
@@ -388,9 +482,9 @@ class TransactionServiceImplTest {
         Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(
                                 123456789L, customer.getCustomerId())).thenReturn(Optional.of(account));
 
-        Page<Transaction> emptyPage = Page.empty(pageable);
+        Page<TransactionHistoryDTO> emptyPage = Page.empty(pageable);
 
-        Mockito.when(transactionRepository.findByAccount_AccountId(account.getAccountId(), pageable))
+        Mockito.when(transactionRepository.findHistoryByAccountId(account.getAccountId(), hotTierStart, pageable))
                 .thenReturn(emptyPage);
 
         // Act + Assert
@@ -416,9 +510,9 @@ class TransactionServiceImplTest {
         Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(
                 123456789L, customer.getCustomerId())).thenReturn(Optional.of(account));
 
-        Page<Transaction> transactionPage = new PageImpl<>(List.of(transaction), pageable, 1);
+        Page<TransactionHistoryDTO> transactionPage = new PageImpl<>(List.of(new TransactionHistoryDTO()), pageable, 1);
 
-        Mockito.when(transactionRepository.findByAccount_AccountId(account.getAccountId(),pageable))
+        Mockito.when(transactionRepository.findHistoryByAccountId(account.getAccountId(), hotTierStart, pageable))
                 .thenReturn(transactionPage);
 
         //Act
@@ -429,7 +523,7 @@ class TransactionServiceImplTest {
         Assertions.assertNotNull(response);
         Assertions.assertEquals(1, response.getData().size());
 
-        Mockito.verify(transactionRepository).findByAccount_AccountId(account.getAccountId(),pageable);
+        Mockito.verify(transactionRepository).findHistoryByAccountId(account.getAccountId(), hotTierStart, pageable);
     }   //------------------------16
 
     @Test
@@ -459,8 +553,8 @@ class TransactionServiceImplTest {
 
         Mockito.when(accountRepository.findByCustomer_CustomerId(customer.getCustomerId())).thenReturn(List.of(account));
 
-        Page<Transaction> emptyPage = Page.empty();
-        Mockito.when(transactionRepository.findByAccount_AccountIdIn(List.of(account.getAccountId()),pageable))
+        Page<TransactionHistoryDTO> emptyPage = Page.empty();
+        Mockito.when(transactionRepository.findHistoryByAccountIdIn(List.of(account.getAccountId()), hotTierStart, pageable))
                 .thenReturn(emptyPage);
 
         // Act + Assert
@@ -473,7 +567,7 @@ class TransactionServiceImplTest {
 
         Mockito.verify(accountRepository).findByCustomer_CustomerId(customer.getCustomerId());
 
-        Mockito.verify(transactionRepository).findByAccount_AccountIdIn(List.of(account.getAccountId()),pageable);
+        Mockito.verify(transactionRepository).findHistoryByAccountIdIn(List.of(account.getAccountId()), hotTierStart, pageable);
 
         Mockito.verify(accountRepository, Mockito.never())
                 .findByAccountNumAndCustomer_CustomerId(Mockito.any(), Mockito.any());
@@ -489,9 +583,9 @@ class TransactionServiceImplTest {
 
         Mockito.when(accountRepository.findByCustomer_CustomerId(customer.getCustomerId())).thenReturn(List.of(account));
 
-        Page<Transaction> transactionPage = new PageImpl<>(List.of(transaction), pageable, 1);
+        Page<TransactionHistoryDTO> transactionPage = new PageImpl<>(List.of(new TransactionHistoryDTO()), pageable, 1);
 
-        Mockito.when(transactionRepository.findByAccount_AccountIdIn(List.of(account.getAccountId()),pageable))
+        Mockito.when(transactionRepository.findHistoryByAccountIdIn(List.of(account.getAccountId()), hotTierStart, pageable))
                 .thenReturn(transactionPage);
 
         // Act
@@ -507,12 +601,326 @@ class TransactionServiceImplTest {
 
         Mockito.verify(accountRepository).findByCustomer_CustomerId(customer.getCustomerId());
 
-        Mockito.verify(transactionRepository).findByAccount_AccountIdIn(List.of(account.getAccountId()),pageable);
+        Mockito.verify(transactionRepository).findHistoryByAccountIdIn(List.of(account.getAccountId()), hotTierStart, pageable);
 
         Mockito.verify(accountRepository, Mockito.never())
                 .findByAccountNumAndCustomer_CustomerId(Mockito.any(), Mockito.any());
     }  //---19
 
+    @Test
+    void shouldServeFirstHistoryPageFromRecentWindow() {
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+
+        Account second = new Account();
+        second.setAccountId(UUID.randomUUID());
+        second.setAccountNum(987654321L);
+        account.setAccountNum(123456789L);
+
+        Mockito.when(accountRepository.findByCustomer_CustomerId(customer.getCustomerId()))
+                .thenReturn(List.of(account, second));
+        Mockito.when(recentTransactionWindow.covers(2)).thenReturn(true);
+
+        TransactionHistoryDTO newest = historyRow(0);
+        TransactionHistoryDTO middle = historyRow(1);
+        TransactionHistoryDTO oldest = historyRow(2);
+        Mockito.when(recentTransactionWindow.load(123456789L, account.getAccountId()))
+                .thenReturn(Optional.of(new RecentTransactionWindow.WindowPage(List.of(middle), 3)));
+        Mockito.when(recentTransactionWindow.load(987654321L, second.getAccountId()))
+                .thenReturn(Optional.of(new RecentTransactionWindow.WindowPage(List.of(newest, oldest), 4)));
+
+        PageResponse<TransactionHistoryDTO> response =
+                transactionService.transactionHistory("test@gmail.com", null, 0, 2);
+
+        Assertions.assertEquals(List.of(newest, middle), response.getData());
+        Assertions.assertEquals(4, response.getTotalPages());
+        Assertions.assertFalse(response.isLast());
+
+        Mockito.verify(transactionRepository, Mockito.never()).findHistoryByAccountIdIn(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    private TransactionHistoryDTO historyRow(int minutesAgo) {
+        TransactionHistoryDTO row = new TransactionHistoryDTO();
+        row.setTransactionId(UUID.randomUUID());
+        row.setCreatedAt(LocalDateTime.of(2026, 1, 1, 12, 0).minusMinutes(minutesAgo));
+        return row;
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreHistoryExists() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+
+        TransactionHistoryDTO first = historyRow(0);
+        TransactionHistoryDTO second = historyRow(1);
+        Mockito.when(transactionRepository.findHistoryFirstPage(List.of(account.getAccountId()), PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+
+        CursorPageResponse<TransactionHistoryDTO> response =
+                transactionService.transactionHistoryByCursor("test@gmail.com", 123456789L, null, 1);
+
+        Assertions.assertEquals(1, response.getData().size());
+        Assertions.assertFalse(response.isLast());
+
+        HistoryCursor cursor = HistoryCursor.decode(response.getNextCursor());
+        Assertions.assertEquals(first.getCreatedAt(), cursor.createdAt());
+        Assertions.assertEquals(first.getTransactionId(), cursor.transactionId());
+    }
+
+    @Test
+    void shouldSeekPastCursorWithoutCountQuery() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByCustomer_CustomerId(customer.getCustomerId())).thenReturn(List.of(account));
+
+        TransactionHistoryDTO previous = historyRow(5);
+        String token = new HistoryCursor(previous.getCreatedAt(), previous.getTransactionId()).encode();
+
+        Mockito.when(transactionRepository.findHistoryAfter(
+                        List.of(account.getAccountId()),
+                        previous.getCreatedAt(),
+                        previous.getTransactionId(),
+                        PageRequest.of(0, 6)))
+                .thenReturn(List.of(historyRow(6)));
+
+        CursorPageResponse<TransactionHistoryDTO> response =
+                transactionService.transactionHistoryByCursor("test@gmail.com", null, token, 5);
+
+        Assertions.assertEquals(1, response.getData().size());
+        Assertions.assertTrue(response.isLast());
+        Assertions.assertNull(response.getNextCursor());
+
+        Mockito.verify(transactionRepository, Mockito.never()).findHistoryByAccountIdIn(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void shouldContinueHistoryPageIntoArchiveTable() {
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+
+        // 7 rows still in `transactions`, 4 older ones archived; page 1 of size 5 holds 2 hot and 3 archived rows
+        Pageable second = PageRequest.of(1, 5, Sort.by("createdAt").descending());
+        TransactionHistoryDTO hot5 = historyRow(5);
+        TransactionHistoryDTO hot6 = historyRow(6);
+        Mockito.when(transactionRepository.findHistoryByAccountId(account.getAccountId(), hotTierStart, second))
+                .thenReturn(new PageImpl<>(List.of(hot5, hot6), second, 7));
+
+        List<UUID> accountIds = List.of(account.getAccountId());
+        LocalDateTime oldestHot = historyRow(6).getCreatedAt();
+        Mockito.when(transactionRepository.findOldestCreatedAt(accountIds)).thenReturn(oldestHot);
+        Mockito.when(transactionArchiveRepository.countByAccountIdInAndCreatedAtLessThan(accountIds, oldestHot))
+                .thenReturn(4L);
+
+        List<TransactionHistoryDTO> archived = List.of(historyRow(100), historyRow(101), historyRow(102));
+        Mockito.when(transactionArchiveRepository.findHistory(accountIds, oldestHot, new OffsetPageRequest(0, 3)))
+                .thenReturn(archived);
+
+        PageResponse<TransactionHistoryDTO> response =
+                transactionService.transactionHistory("test@gmail.com", 123456789L, 1, 5);
+
+        Assertions.assertEquals(List.of(hot5, hot6, archived.get(0), archived.get(1), archived.get(2)), response.getData());
+        Assertions.assertEquals(3, response.getTotalPages());
+        Assertions.assertFalse(response.isLast());
+
+        // The next page starts three rows into the archive
+        Pageable third = PageRequest.of(2, 5, Sort.by("createdAt").descending());
+        Mockito.when(transactionRepository.findHistoryByAccountId(account.getAccountId(), hotTierStart, third))
+                .thenReturn(new PageImpl<>(List.of(), third, 7));
+        TransactionHistoryDTO lastArchived = historyRow(103);
+        Mockito.when(transactionArchiveRepository.findHistory(accountIds, oldestHot, new OffsetPageRequest(3, 5)))
+                .thenReturn(List.of(lastArchived));
+
+        response = transactionService.transactionHistory("test@gmail.com", 123456789L, 2, 5);
+
+        Assertions.assertEquals(List.of(lastArchived), response.getData());
+        Assertions.assertTrue(response.isLast());
+    }
+
+    @Test
+    void shouldNotTouchOlderTiersWhenPageFitsInHotRows() {
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+
+        Pageable first = PageRequest.of(0, 2, Sort.by("createdAt").descending());
+        Mockito.when(transactionRepository.findHistoryByAccountId(account.getAccountId(), hotTierStart, first))
+                .thenReturn(new PageImpl<>(List.of(historyRow(0), historyRow(1)), first, 7));
+
+        PageResponse<TransactionHistoryDTO> response =
+                transactionService.transactionHistory("test@gmail.com", 123456789L, 0, 2);
+
+        Assertions.assertEquals(2, response.getData().size());
+        Mockito.verify(transactionRepository, Mockito.never()).countHistoryBefore(Mockito.any(), Mockito.any());
+        Mockito.verify(transactionRepository, Mockito.never()).findOldestCreatedAt(Mockito.any());
+        Mockito.verify(coldSegmentStore, Mockito.never()).count(Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(transactionArchiveRepository);
+    }
+
+    @Test
+    void shouldReadUnarchivedClosedMonthsBeforeColdTiers() {
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+
+        // 3 hot rows, then 2 rows of a closed month still waiting for archival in `transactions`
+        Pageable first = PageRequest.of(0, 5, Sort.by("createdAt").descending());
+        List<TransactionHistoryDTO> hot = List.of(historyRow(0), historyRow(1), historyRow(2));
+        Mockito.when(transactionRepository.findHistoryByAccountId(account.getAccountId(), hotTierStart, first))
+                .thenReturn(new PageImpl<>(hot, first, 3));
+
+        List<UUID> accountIds = List.of(account.getAccountId());
+        List<TransactionHistoryDTO> unarchived = List.of(historyRow(50), historyRow(51));
+        Mockito.when(transactionRepository.countHistoryBefore(accountIds, hotTierStart)).thenReturn(2L);
+        Mockito.when(transactionRepository.findHistoryBefore(accountIds, hotTierStart, new OffsetPageRequest(0, 2)))
+                .thenReturn(unarchived);
+
+        PageResponse<TransactionHistoryDTO> response =
+                transactionService.transactionHistory("test@gmail.com", 123456789L, 0, 5);
+
+        Assertions.assertEquals(List.of(hot.get(0), hot.get(1), hot.get(2), unarchived.get(0), unarchived.get(1)),
+                response.getData());
+        Assertions.assertEquals(1, response.getTotalPages());
+        Mockito.verify(transactionArchiveRepository, Mockito.never()).findHistory(
+                Mockito.any(), Mockito.any(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void shouldContinueHistoryCursorIntoArchiveTable() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+
+        List<UUID> accountIds = List.of(account.getAccountId());
+        TransactionHistoryDTO hotNewest = historyRow(0);
+        TransactionHistoryDTO hotOldest = historyRow(1);
+        Mockito.when(transactionRepository.findHistoryFirstPage(accountIds, PageRequest.of(0, 4)))
+                .thenReturn(List.of(hotNewest, hotOldest));
+        Mockito.when(transactionRepository.findOldestCreatedAt(accountIds)).thenReturn(hotOldest.getCreatedAt());
+
+        TransactionHistoryDTO archivedNewest = historyRow(100);
+        TransactionHistoryDTO archivedNext = historyRow(101);
+        Mockito.when(transactionArchiveRepository.findHistory(accountIds, hotOldest.getCreatedAt(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(archivedNewest, archivedNext));
+
+        CursorPageResponse<TransactionHistoryDTO> first =
+                transactionService.transactionHistoryByCursor("test@gmail.com", 123456789L, null, 3);
+
+        Assertions.assertEquals(List.of(hotNewest, hotOldest, archivedNewest), first.getData());
+        Assertions.assertFalse(first.isLast());
+
+        // The cursor now points into the archive: `transactions` has nothing older, so the archive continues it
+        Mockito.when(transactionRepository.findHistoryAfter(accountIds, archivedNewest.getCreatedAt(),
+                        archivedNewest.getTransactionId(), PageRequest.of(0, 4)))
+                .thenReturn(List.of());
+        Mockito.when(transactionArchiveRepository.findHistoryAfter(accountIds, hotOldest.getCreatedAt(),
+                        archivedNewest.getCreatedAt(), archivedNewest.getTransactionId(), PageRequest.of(0, 4)))
+                .thenReturn(List.of(archivedNext));
+
+        CursorPageResponse<TransactionHistoryDTO> second =
+                transactionService.transactionHistoryByCursor("test@gmail.com", 123456789L, first.getNextCursor(), 3);
+
+        Assertions.assertEquals(List.of(archivedNext), second.getData());
+        Assertions.assertTrue(second.isLast());
+    }
+
+    @Test
+    void shouldRejectInvalidHistoryCursor() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByCustomer_CustomerId(customer.getCustomerId())).thenReturn(List.of(account));
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> transactionService.transactionHistoryByCursor("test@gmail.com", null, "not-a-cursor", 5));
+
+        Assertions.assertEquals("Invalid cursor", ex.getMessage());
+    }
+
+    @Test
+    void shouldSearchHotTierWithSuppliedFiltersOnly() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        Mockito.when(customerRepository.findByEmail("test@gmail.com")).thenReturn(Optional.of(customer));
+        Mockito.when(accountRepository.findByAccountNumAndCustomer_CustomerId(123456789L, customer.getCustomerId()))
+                .thenReturn(Optional.of(account));
+
+        TransactionSearchRequestDTO request = new TransactionSearchRequestDTO();
+        request.setAccountNum(123456789L);
+        request.setTo(LocalDate.of(2026, 1, 31));
+        request.setMinAmount(BigDecimal.valueOf(100));
+        request.setOperationType(OperationType.TRANSFER);
+        request.setSize(1);
+
+        TransactionHistoryDTO first = historyRow(0);
+        Mockito.when(transactionRepository.search(Mockito.any(TransactionSearchCriteria.class),
+                        Mockito.isNull(), Mockito.isNull(), Mockito.eq(2)))
+                .thenReturn(List.of(first, historyRow(1)));
+
+        CursorPageResponse<TransactionHistoryDTO> response = transactionService.searchTransactions("test@gmail.com", request);
+
+        Assertions.assertEquals(List.of(first), response.getData());
+        Assertions.assertFalse(response.isLast());
+        Assertions.assertEquals(first.getTransactionId(), HistoryCursor.decode(response.getNextCursor()).transactionId());
+
+        ArgumentCaptor<TransactionSearchCriteria> criteria = ArgumentCaptor.forClass(TransactionSearchCriteria.class);
+        Mockito.verify(transactionRepository).search(criteria.capture(), Mockito.isNull(), Mockito.isNull(), Mockito.eq(2));
+
+        Assertions.assertEquals(List.of(account.getAccountId()), criteria.getValue().accountIds());
+        Assertions.assertEquals(hotTierStart, criteria.getValue().from());
+        Assertions.assertEquals(LocalDateTime.of(2026, 2, 1, 0, 0), criteria.getValue().to());
+        Assertions.assertEquals(OperationType.TRANSFER, criteria.getValue().operationType());
+        Assertions.assertNull(criteria.getValue().maxAmount());
+        Assertions.assertNull(criteria.getValue().transactionStatus());
+    }
+
+    @Test
+    void shouldRejectSearchStartingBeforeHotTier() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        TransactionSearchRequestDTO request = new TransactionSearchRequestDTO();
+        request.setFrom(LocalDate.of(2020, 1, 1));
+        request.setSize(10);
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> transactionService.searchTransactions("test@gmail.com", request));
+
+        Assertions.assertEquals("Search start date must not be before 2025-10-01; "
+                + "use transaction history or a statement for older transactions", ex.getMessage());
+        Mockito.verify(transactionRepository, Mockito.never())
+                .search(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    void shouldRejectInvertedSearchAmountRange() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        TransactionSearchRequestDTO request = new TransactionSearchRequestDTO();
+        request.setMinAmount(BigDecimal.valueOf(500));
+        request.setMaxAmount(BigDecimal.valueOf(100));
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> transactionService.searchTransactions("test@gmail.com", request));
+
+        Assertions.assertEquals("Minimum amount must not exceed maximum amount", ex.getMessage());
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void shouldRejectOversizedCursorPage() {
+        ReflectionTestUtils.setField(transactionService, "maxHistoryPageSize", 100);
+
+        Assertions.assertThrows(BadRequestException.class,
+                () -> transactionService.transactionHistoryByCursor("test@gmail.com", null, null, 101));
+
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
     @Test
     void shouldCreatePendingTransferMoneyTransactionSuccessfully() {
 
@@ -709,8 +1117,11 @@ class TransactionServiceImplTest {
         senderAccount.setAmount(BigDecimal.valueOf(5000));
 
 
+        senderAccount.setAccountNum(123456789L);
+
         transaction.setTransactionStatus(TransactionStatus.PENDING);
         transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
         transaction.setAmount(BigDecimal.valueOf(2000));
         transaction.setOperationType(OperationType.WITHDRAW);
 
@@ -720,11 +1131,8 @@ class TransactionServiceImplTest {
         Mockito.when(otpService.verifyOtp(customer.getEmail(), transaction.getTransactionId(),
                 confirmRequestDTO.getOTP())).thenReturn(true);
 
-        Mockito.when(accountRepository.lockAccountById(senderAccount.getAccountId()))
-                .thenReturn(senderAccount);
-
-        Mockito.when(accountRepository.save(Mockito.any(Account.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(accountRepository.debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(3000)));
 
         Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -736,13 +1144,185 @@ class TransactionServiceImplTest {
         // Assert
         Assertions.assertNotNull(response);
         Assertions.assertEquals(TransactionStatus.SUCCESS, response.getTransactionStatus());
-        Assertions.assertEquals(BigDecimal.valueOf(3000), senderAccount.getAmount());
+        Assertions.assertEquals(BigDecimal.valueOf(3000), transaction.getClosingBalance());
 
-        Mockito.verify(accountRepository).save(senderAccount);
+        Mockito.verify(accountRepository, Mockito.never()).save(Mockito.any());
         Mockito.verify(transactionRepository, Mockito.times(1))
                 .save(Mockito.any(Transaction.class));
     }
 
+    @Test
+    void shouldVerifyOtpOnceWhenPostingIsRetriedAfterLockFailure() {
+        ReflectionTestUtils.setField(transactionService, "modelMapper", new ModelMapper());
+        senderAccount.setCustomer(customer);
+        senderAccount.setAccountNum(123456789L);
+
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
+        transaction.setAmount(BigDecimal.valueOf(2000));
+        transaction.setOperationType(OperationType.WITHDRAW);
+
+        Mockito.when(transactionRepository.lockByTransactionId(confirmRequestDTO.getTransactionId()))
+                .thenReturn(Optional.of(transaction));
+        Mockito.when(otpService.verifyOtp(customer.getEmail(), transaction.getTransactionId(),
+                confirmRequestDTO.getOTP())).thenReturn(true);
+
+        // First attempt times out waiting for the account lock and is rolled back
+        Mockito.when(accountRepository.debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000)))
+                .thenThrow(new PessimisticLockingFailureException("Lock wait timeout exceeded"))
+                .thenReturn(Optional.of(BigDecimal.valueOf(3000)));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionResponseDTO response = transactionService.transactionConfirm(customer.getEmail(), confirmRequestDTO);
+
+        Assertions.assertEquals(TransactionStatus.SUCCESS, response.getTransactionStatus());
+        Assertions.assertEquals(BigDecimal.valueOf(3000), transaction.getClosingBalance());
+
+        // One verification; each posting attempt claims the code in its own transaction, so the rolled-back
+        // attempt does not use it up
+        Mockito.verify(otpService, Mockito.times(1)).verifyOtp(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(otpService, Mockito.times(2)).consumeOtp(customer.getEmail(), transaction.getTransactionId());
+        Mockito.verify(accountRepository, Mockito.times(2))
+                .debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000));
+    }
+
+    @Test
+    void shouldTakeOrderedAccountLocksBeforeApplyingConfirmation() {
+        ReflectionTestUtils.setField(transactionService, "modelMapper", new ModelMapper());
+
+        senderAccount.setCustomer(customer);
+        senderAccount.setAccountNum(123456789L);
+
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
+        transaction.setAmount(BigDecimal.valueOf(2000));
+        transaction.setOperationType(OperationType.WITHDRAW);
+
+        Mockito.when(transactionRepository.lockByTransactionId(confirmRequestDTO.getTransactionId()))
+                .thenReturn(Optional.of(transaction));
+        Mockito.when(accountRepository.debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(3000)));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.transactionConfirm(customer.getEmail(), confirmRequestDTO);
+
+        InOrder order = Mockito.inOrder(accountLockService, accountRepository);
+        order.verify(accountLockService).lockAccounts(List.of(123456789L));
+        order.verify(accountRepository).debitIfSufficient(123456789L, BigDecimal.valueOf(2000));
+    }
+
+    @Test
+    void shouldRecordPostingIntentBeforeQueueingConfirmedPosting() {
+        ReflectionTestUtils.setField(transactionService, "modelMapper", new ModelMapper());
+
+        senderAccount.setCustomer(customer);
+        senderAccount.setAccountNum(123456789L);
+
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
+        transaction.setAmount(BigDecimal.valueOf(2000));
+        transaction.setOperationType(OperationType.WITHDRAW);
+
+        Mockito.when(postingEngine.isEnabled()).thenReturn(true);
+        Mockito.when(transactionRepository.lockByTransactionId(confirmRequestDTO.getTransactionId()))
+                .thenReturn(Optional.of(transaction));
+
+        TransactionResponseDTO response = transactionService.transactionConfirm(customer.getEmail(), confirmRequestDTO);
+
+        Assertions.assertEquals(TransactionStatus.PENDING, response.getTransactionStatus());
+
+        // Saved in the confirm transaction, so a crash before the queued posting runs does not lose it
+        ArgumentCaptor<PostingIntent> intent = ArgumentCaptor.forClass(PostingIntent.class);
+        InOrder order = Mockito.inOrder(postingIntentRepository, postingEngine);
+        order.verify(postingIntentRepository).save(intent.capture());
+        order.verify(postingEngine).submit(
+                Mockito.eq(transaction.getTransactionId()),
+                Mockito.eq(List.of(123456789L)),
+                Mockito.any(),
+                Mockito.any()
+        );
+        Assertions.assertEquals(transaction.getTransactionId(), intent.getValue().getTransactionId());
+        Assertions.assertEquals(customer.getEmail(), intent.getValue().getEmail());
+    }
+
+    @Test
+    void shouldRequeueConfirmedPostingLeftPendingByCrash() {
+        ReflectionTestUtils.setField(transactionService, "modelMapper", new ModelMapper());
+
+        senderAccount.setCustomer(customer);
+        senderAccount.setAccountNum(123456789L);
+
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
+        transaction.setAmount(BigDecimal.valueOf(2000));
+        transaction.setOperationType(OperationType.WITHDRAW);
+
+        LocalDateTime before = LocalDateTime.now().minusMinutes(1);
+        Mockito.when(postingIntentRepository.findStale(before, 100))
+                .thenReturn(List.of(new PostingIntent(transaction.getTransactionId(), customer.getEmail())));
+        Mockito.when(transactionRepository.lockByTransactionId(transaction.getTransactionId()))
+                .thenReturn(Optional.of(transaction));
+        Mockito.when(postingEngine.isEnabled()).thenReturn(true);
+
+        Assertions.assertEquals(1, transactionService.recoverConfirmedPostings(before, 100));
+
+        Mockito.verify(postingEngine).submit(
+                Mockito.eq(transaction.getTransactionId()),
+                Mockito.eq(List.of(123456789L)),
+                Mockito.any(),
+                Mockito.any()
+        );
+        Mockito.verify(postingIntentRepository, Mockito.never()).deleteByTransactionId(Mockito.any());
+    }
+
+    @Test
+    void shouldDropPostingIntentOnceTransactionIsSettled() {
+        transaction.setTransactionStatus(TransactionStatus.SUCCESS);
+
+        LocalDateTime before = LocalDateTime.now().minusMinutes(1);
+        Mockito.when(postingIntentRepository.findStale(before, 100))
+                .thenReturn(List.of(new PostingIntent(transaction.getTransactionId(), customer.getEmail())));
+        Mockito.when(transactionRepository.lockByTransactionId(transaction.getTransactionId()))
+                .thenReturn(Optional.of(transaction));
+
+        transactionService.recoverConfirmedPostings(before, 100);
+
+        Mockito.verify(postingIntentRepository).deleteByTransactionId(transaction.getTransactionId());
+        Mockito.verify(postingEngine, Mockito.never()).submit(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void shouldThrowInsufficientBalanceWhenConditionalDebitMatchesNoRow() {
+        // Arrange
+        senderAccount.setCustomer(customer);
+        senderAccount.setAccountNum(123456789L);
+
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
+        transaction.setAmount(BigDecimal.valueOf(2000));
+        transaction.setOperationType(OperationType.WITHDRAW);
+
+        Mockito.when(transactionRepository.lockByTransactionId(confirmRequestDTO.getTransactionId()))
+                .thenReturn(Optional.of(transaction));
+
+        Mockito.when(accountRepository.debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000)))
+                .thenReturn(Optional.empty());
+
+        // Act + Assert
+        Assertions.assertThrows(InsufficientBalanceException.class,
+                () -> transactionService.transactionConfirm(customer.getEmail(), confirmRequestDTO));
+
+        Assertions.assertEquals(TransactionStatus.PENDING, transaction.getTransactionStatus());
+        Mockito.verify(transactionRepository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     void shouldThrowExceptionWhenTransactionNotFound() {
         Mockito.when(transactionRepository.lockByTransactionId(confirmRequestDTO.getTransactionId()))
@@ -802,13 +1382,17 @@ class TransactionServiceImplTest {
         senderAccount.setCustomer(customer);
         senderAccount.setAmount(BigDecimal.valueOf(5000));
 
+        senderAccount.setAccountNum(123456789L);
+
         transaction.setAccount(senderAccount);
+        transaction.setAccountNum(senderAccount.getAccountNum());
         transaction.setAmount(BigDecimal.valueOf(2000));
         transaction.setOperationType(OperationType.TRANSFER);
         transaction.setTransactionStatus(TransactionStatus.PENDING);
         transaction.setCounterpartyAccountNum(987654L);
 
         Account receiver = new Account();
+        receiver.setAccountNum(987654L);
         receiver.setAmount(BigDecimal.valueOf(1000));
 
         Customer receiverCustomer = new Customer();
@@ -826,14 +1410,13 @@ class TransactionServiceImplTest {
                 confirmRequestDTO.getOTP()
         )).thenReturn(true);
 
-        Mockito.when(accountRepository.lockAccountById(senderAccount.getAccountId()))
-                .thenReturn(senderAccount);
+        Mockito.when(accountRepository.findByAccountNum(987654L)).thenReturn(Optional.of(receiver));
 
-        Mockito.when(accountRepository.lockByAccountNum(987654L))
-                .thenReturn(receiver);
+        Mockito.when(accountRepository.credit(987654L, BigDecimal.valueOf(2000)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(3000)));
 
-        Mockito.when(accountRepository.save(Mockito.any(Account.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(accountRepository.debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(3000)));
 
         Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -845,7 +1428,12 @@ class TransactionServiceImplTest {
         // Assert
         Assertions.assertNotNull(response);
         Assertions.assertEquals(TransactionStatus.SUCCESS, response.getTransactionStatus());
-        Assertions.assertEquals(BigDecimal.valueOf(3000), senderAccount.getAmount());
+        Assertions.assertEquals(BigDecimal.valueOf(3000), transaction.getClosingBalance());
+
+        // Receiver has the lower account number, so its leg is applied first
+        InOrder legs = Mockito.inOrder(accountRepository);
+        legs.verify(accountRepository).credit(987654L, BigDecimal.valueOf(2000));
+        legs.verify(accountRepository).debitIfSufficient(senderAccount.getAccountNum(), BigDecimal.valueOf(2000));
 
         Mockito.verify(transactionRepository, Mockito.times(2))
                 .save(Mockito.any(Transaction.class));